@@ -1,6 +1,7 @@
 package com.cdac;
 
 import java.util.Properties;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.modelmapper.Conditions;
 import org.modelmapper.ModelMapper;
@@ -8,13 +9,18 @@ import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @SpringBootApplication // includes @Configuration
+@EnableCaching
+@EnableScheduling
 public class Application {
 
 	public static void main(String[] args) {
@@ -51,6 +57,22 @@ public class Application {
 		return new BCryptPasswordEncoder();
 	}
 	
+	//product thumbnails , rendered off the upload request . a full queue renders on the uploading thread
+	@Bean
+	ThreadPoolTaskExecutor thumbnailExecutor(@Value("${greenora.images.thumbnail-workers}") int workers,
+			@Value("${greenora.images.thumbnail-queue-capacity}") int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("thumbnail-");
+		executor.setCorePoolSize(workers);
+		executor.setMaxPoolSize(workers);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setDaemon(true);
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(10);
+		return executor;
+	}
+	
 	
 	@Value("${spring.mail.host}")
     private String mailHost;
@@ -0,0 +1,110 @@
+package com.cdac.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/*
+ * sparse item x item "bought in the same order" counts.
+ * product id -> row slot is a LongIntHashMap , each row is another LongIntHashMap of neighbour -> count.
+ * rows are pruned back to keep neighbours once they pass 2 * keep , so a row never grows with
+ * the catalog. not thread safe - RelatedProductsIndex guards it.
+ */
+public class CoOccurrenceMatrix {
+
+	public record Neighbour(long id, long count) {
+	}
+
+	private static final Comparator<Neighbour> BY_COUNT = Comparator.comparingLong(Neighbour::count)
+			.thenComparing(Comparator.comparingLong(Neighbour::id).reversed());
+
+	private final int keep;
+	// slot + 1 per product , 0 means no row
+	private final LongIntHashMap slots = new LongIntHashMap();
+	private final List<Row> rows = new ArrayList<>();
+
+	private record Row(long id, LongIntHashMap neighbours) {
+	}
+
+	public CoOccurrenceMatrix(int keep) {
+		this.keep = keep;
+	}
+
+	// basket = distinct product ids of one order
+	public void addBasket(long[] basket) {
+		for (long a : basket)
+			for (long b : basket)
+				if (a != b)
+					increment(a, b);
+	}
+
+	private void increment(long a, long b) {
+		LongIntHashMap row = rowOf(a, true);
+		row.addTo(b, 1);
+		if (row.size() > 2 * keep)
+			row.retainTop(keep);
+	}
+
+	//exact count , no pruning - the caller prunes with pruneAll() once done
+	void count(long a, long b) {
+		rowOf(a, true).addTo(b, 1);
+	}
+
+	public int products() {
+		return rows.size();
+	}
+
+	public List<Neighbour> related(long id, int k) {
+		return related(new long[] { id }, k);
+	}
+
+	// neighbours of several products summed , the inputs themselves excluded
+	public List<Neighbour> related(long[] ids, int k) {
+		LongIntHashMap sum = new LongIntHashMap();
+		for (long id : ids) {
+			LongIntHashMap row = rowOf(id, false);
+			if (row != null)
+				row.forEach(sum::addTo);
+		}
+		for (long id : ids)
+			sum.put(id, 0);
+
+		PriorityQueue<Neighbour> heap = new PriorityQueue<>(k + 1, BY_COUNT);
+		sum.forEach((id, count) -> {
+			if (count <= 0)
+				return;
+			heap.offer(new Neighbour(id, count));
+			if (heap.size() > k)
+				heap.poll();
+		});
+		List<Neighbour> list = new ArrayList<>(heap);
+		list.sort(BY_COUNT.reversed());
+		return list;
+	}
+
+	public void pruneAll() {
+		for (Row row : rows)
+			row.neighbours.retainTop(keep);
+	}
+
+	// moves the rows of a matrix built over a disjoint set of products into this one
+	public void absorb(CoOccurrenceMatrix other) {
+		for (Row row : other.rows) {
+			rows.add(row);
+			slots.put(row.id, rows.size());
+		}
+	}
+
+	private LongIntHashMap rowOf(long id, boolean create) {
+		int slot = slots.get(id) - 1;
+		if (slot >= 0)
+			return rows.get(slot).neighbours;
+		if (!create)
+			return null;
+		Row row = new Row(id, new LongIntHashMap());
+		rows.add(row);
+		slots.put(id, rows.size());
+		return row.neighbours;
+	}
+}
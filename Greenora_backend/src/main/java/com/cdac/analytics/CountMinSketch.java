@@ -0,0 +1,69 @@
+package com.cdac.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * count-min sketch over long ids - DEPTH rows of width counters , an estimate is the
+ * smallest of the DEPTH cells the id hashes to. never under counts , over counts by
+ * at most total / width with high probability. updates are lock free.
+ */
+final class CountMinSketch {
+	static final int DEPTH = 4;
+	private static final long[] SEEDS = { 0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L,
+			0xD6E8FEB86659FD93L };
+
+	private final int mask;
+	private final AtomicLongArray cells;
+
+	CountMinSketch(int width) {
+		if (Integer.bitCount(width) != 1)
+			throw new IllegalArgumentException("width must be a power of two");
+		this.mask = width - 1;
+		this.cells = new AtomicLongArray(DEPTH * width);
+	}
+
+	int width() {
+		return mask + 1;
+	}
+
+	//returns the estimate after the update
+	long add(long id, long n) {
+		long min = Long.MAX_VALUE;
+		for (int row = 0; row < DEPTH; row++)
+			min = Math.min(min, cells.addAndGet(cell(row, id), n));
+		return min;
+	}
+
+	long estimate(long id) {
+		long min = Long.MAX_VALUE;
+		for (int row = 0; row < DEPTH; row++)
+			min = Math.min(min, cells.get(cell(row, id)));
+		return min;
+	}
+
+	long raw(int i) {
+		return cells.get(i);
+	}
+
+	void setRaw(int i, long value) {
+		cells.set(i, value);
+	}
+
+	int size() {
+		return cells.length();
+	}
+
+	private int cell(int row, long id) {
+		return row * (mask + 1) + (int) (mix(id ^ SEEDS[row]) & mask);
+	}
+
+	//murmur3 finalizer
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
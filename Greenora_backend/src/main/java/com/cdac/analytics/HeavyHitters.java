@@ -0,0 +1,213 @@
+package com.cdac.analytics;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * sliding window heavy hitters . a ring of time buckets , each bucket is a count-min sketch
+ * plus a short candidate list of its biggest ids. memory is fixed by
+ * buckets * (DEPTH * width + capacity) whatever the catalog size , and a query only looks at the
+ * candidates of the buckets inside the window - at most window * capacity ids , heap of k.
+ */
+public class HeavyHitters {
+
+	public record Hit(long id, long count) {
+	}
+
+	private static final Comparator<Hit> BY_COUNT = Comparator.comparingLong(Hit::count)
+			.thenComparing(Comparator.comparingLong(Hit::id).reversed());
+
+	private final long bucketMillis;
+	private final int width;
+	private final int capacity;
+	private final AtomicReferenceArray<Bucket> ring;
+
+	public HeavyHitters(long bucketMillis, int buckets, int width, int capacity) {
+		this.bucketMillis = bucketMillis;
+		this.width = width;
+		this.capacity = capacity;
+		this.ring = new AtomicReferenceArray<>(buckets);
+	}
+
+	public void add(long id, long n, long nowMillis) {
+		if (n <= 0)
+			return;
+		Bucket bucket = bucket(nowMillis / bucketMillis);
+		if (bucket != null)
+			bucket.add(id, n);
+	}
+
+	// top k over the last windowBuckets buckets (current one included)
+	public List<Hit> top(int k, int windowBuckets, long nowMillis) {
+		List<Bucket> live = live(Math.min(windowBuckets, ring.length()), nowMillis / bucketMillis);
+		Set<Long> ids = new HashSet<>();
+		for (Bucket b : live)
+			b.candidates(ids);
+
+		PriorityQueue<Hit> heap = new PriorityQueue<>(k + 1, BY_COUNT);
+		for (long id : ids) {
+			long count = 0;
+			for (Bucket b : live)
+				count += b.sketch.estimate(id);
+			heap.offer(new Hit(id, count));
+			if (heap.size() > k)
+				heap.poll();
+		}
+		List<Hit> list = new ArrayList<>(heap);
+		list.sort(BY_COUNT.reversed());
+		return list;
+	}
+
+	public int buckets() {
+		return ring.length();
+	}
+
+	public long bucketMillis() {
+		return bucketMillis;
+	}
+
+	//binary snapshot of the live buckets , restored by read() after a restart
+	public void write(DataOutputStream out, long nowMillis) throws IOException {
+		List<Bucket> live = live(ring.length(), nowMillis / bucketMillis);
+		out.writeLong(bucketMillis);
+		out.writeInt(ring.length());
+		out.writeInt(width);
+		out.writeInt(capacity);
+		out.writeInt(live.size());
+		for (Bucket b : live) {
+			out.writeLong(b.slot);
+			for (int i = 0; i < b.sketch.size(); i++)
+				out.writeLong(b.sketch.raw(i));
+			synchronized (b) {
+				out.writeInt(b.size);
+				for (int i = 0; i < b.size; i++) {
+					out.writeLong(b.ids[i]);
+					out.writeLong(b.counts[i]);
+				}
+			}
+		}
+	}
+
+	//false (and nothing loaded) when the snapshot was taken with another shape
+	public boolean read(DataInputStream in) throws IOException {
+		if (in.readLong() != bucketMillis || in.readInt() != ring.length() || in.readInt() != width
+				|| in.readInt() != capacity)
+			return false;
+		int count = in.readInt();
+		List<Bucket> loaded = new ArrayList<>(count);
+		for (int n = 0; n < count; n++) {
+			Bucket b = new Bucket(in.readLong(), width, capacity);
+			for (int i = 0; i < b.sketch.size(); i++)
+				b.sketch.setRaw(i, in.readLong());
+			b.size = in.readInt();
+			if (b.size > capacity)
+				throw new IOException("corrupt snapshot");
+			for (int i = 0; i < b.size; i++) {
+				b.ids[i] = in.readLong();
+				b.counts[i] = in.readLong();
+			}
+			b.refreshFloor();
+			loaded.add(b);
+		}
+		for (Bucket b : loaded)
+			ring.set(index(b.slot), b);
+		return true;
+	}
+
+	private List<Bucket> live(int window, long current) {
+		List<Bucket> live = new ArrayList<>(window);
+		for (long slot = current; slot > current - window; slot--) {
+			Bucket b = ring.get(index(slot));
+			if (b != null && b.slot == slot)
+				live.add(b);
+		}
+		return live;
+	}
+
+	private Bucket bucket(long slot) {
+		int i = index(slot);
+		while (true) {
+			Bucket b = ring.get(i);
+			if (b != null && b.slot == slot)
+				return b;
+			// late update for a slot that already rolled out of the ring
+			if (b != null && b.slot > slot)
+				return null;
+			Bucket fresh = new Bucket(slot, width, capacity);
+			if (ring.compareAndSet(i, b, fresh))
+				return fresh;
+		}
+	}
+
+	private int index(long slot) {
+		return (int) Math.floorMod(slot, (long) ring.length());
+	}
+
+	private static final class Bucket {
+		final long slot;
+		final CountMinSketch sketch;
+		final long[] ids;
+		final long[] counts;
+		int size;
+		// smallest candidate count once the list is full , read without the lock
+		volatile long floor;
+
+		Bucket(long slot, int width, int capacity) {
+			this.slot = slot;
+			this.sketch = new CountMinSketch(width);
+			this.ids = new long[capacity];
+			this.counts = new long[capacity];
+		}
+
+		void add(long id, long n) {
+			long estimate = sketch.add(id, n);
+			if (estimate <= floor)
+				return;
+			synchronized (this) {
+				for (int i = 0; i < size; i++) {
+					if (ids[i] == id) {
+						counts[i] = estimate;
+						refreshFloor();
+						return;
+					}
+				}
+				if (size < ids.length) {
+					ids[size] = id;
+					counts[size++] = estimate;
+				} else {
+					int min = argMin();
+					if (estimate <= counts[min])
+						return;
+					ids[min] = id;
+					counts[min] = estimate;
+				}
+				refreshFloor();
+			}
+		}
+
+		synchronized void candidates(Set<Long> into) {
+			for (int i = 0; i < size; i++)
+				into.add(ids[i]);
+		}
+
+		void refreshFloor() {
+			floor = size < ids.length ? 0 : counts[argMin()];
+		}
+
+		private int argMin() {
+			int min = 0;
+			for (int i = 1; i < size; i++)
+				if (counts[i] < counts[min])
+					min = i;
+			return min;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package com.cdac.analytics;
+
+import java.util.Arrays;
+
+/*
+ * open addressing long -> int map (linear probing , power of two table).
+ * two flat arrays instead of a Long/Integer node per entry - about 12 bytes an entry
+ * against ~80 for a boxed HashMap. Long.MIN_VALUE is reserved as the empty slot. not thread safe.
+ */
+public final class LongIntHashMap {
+	private static final long EMPTY = Long.MIN_VALUE;
+
+	@FunctionalInterface
+	public interface Visitor {
+		void accept(long key, int value);
+	}
+
+	private long[] keys;
+	private int[] values;
+	private int size;
+
+	public LongIntHashMap() {
+		this(8);
+	}
+
+	public LongIntHashMap(int expected) {
+		allocate(Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int get(long key) {
+		int i = find(key);
+		return keys[i] == key ? values[i] : 0;
+	}
+
+	public void put(long key, int value) {
+		int i = find(key);
+		if (keys[i] != key) {
+			keys[i] = key;
+			if (++size * 4 > keys.length * 3)
+				grow(i, value);
+			else
+				values[i] = value;
+			return;
+		}
+		values[i] = value;
+	}
+
+	//returns the new value
+	public int addTo(long key, int delta) {
+		int i = find(key);
+		int value = keys[i] == key ? values[i] + delta : delta;
+		put(key, value);
+		return value;
+	}
+
+	public void forEach(Visitor visitor) {
+		for (int i = 0; i < keys.length; i++)
+			if (keys[i] != EMPTY)
+				visitor.accept(keys[i], values[i]);
+	}
+
+	//keeps the n largest values (ties by smaller key) , drops the rest
+	public void retainTop(int n) {
+		if (size <= n)
+			return;
+		Integer[] order = new Integer[size];
+		int at = 0;
+		for (int i = 0; i < keys.length; i++)
+			if (keys[i] != EMPTY)
+				order[at++] = i;
+		Arrays.sort(order, (a, b) -> values[a] != values[b] ? Integer.compare(values[b], values[a])
+				: Long.compare(keys[a], keys[b]));
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(Integer.highestOneBit(Math.max(4, n * 2 - 1)) << 1);
+		size = 0;
+		for (int i = 0; i < n; i++)
+			put(oldKeys[order[i]], oldValues[order[i]]);
+	}
+
+	private int find(long key) {
+		if (key == EMPTY)
+			throw new IllegalArgumentException("reserved key");
+		int mask = keys.length - 1;
+		int i = (int) (mix(key) & mask);
+		while (keys[i] != EMPTY && keys[i] != key)
+			i = (i + 1) & mask;
+		return i;
+	}
+
+	// value of the key just placed at slot goes in after the rehash
+	private void grow(int slot, int value) {
+		long key = keys[slot];
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		oldKeys[slot] = EMPTY;
+		allocate(keys.length * 2);
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++)
+			if (oldKeys[i] != EMPTY)
+				put(oldKeys[i], oldValues[i]);
+		put(key, value);
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+	}
+
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,100 @@
+package com.cdac.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjLongConsumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * write-behind view counts . a view is one LongAdder increment (no lock , no allocation once
+ * the product has a counter) , the flush turns everything since the last flush into one
+ * batched upsert. a crash loses at most one flush interval of views.
+ */
+@Component
+@Slf4j
+public class ProductViewCounter {
+	private static final String UPSERT = "insert into product_view_count (product_id, views, creation_date, updated_on) "
+			+ "values (?, ?, current_date, current_timestamp) "
+			+ "on duplicate key update views = views + values(views), updated_on = values(updated_on)";
+
+	private static final class Counter {
+		final LongAdder adder = new LongAdder();
+		// written by the flushing thread only , read by pending() on request threads
+		volatile long flushed;
+	}
+
+	private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+	private final JdbcTemplate jdbcTemplate;
+	// told each (product , views) delta once it is written - trending is fed from here , not per view
+	private volatile ObjLongConsumer<Long> flushListener = (productId, views) -> {
+	};
+
+	public ProductViewCounter(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	public void onFlush(ObjLongConsumer<Long> listener) {
+		this.flushListener = listener;
+	}
+
+	public void record(Long productId) {
+		Counter c = counters.get(productId);
+		if (c == null)
+			c = counters.computeIfAbsent(productId, k -> new Counter());
+		c.adder.increment();
+	}
+
+	//views not yet written to the table
+	public long pending(Long productId) {
+		Counter c = counters.get(productId);
+		if (c == null)
+			return 0;
+		// flushed first : it never passes a sum taken after it , so the difference is never negative
+		long flushed = c.flushed;
+		return c.adder.sum() - flushed;
+	}
+
+	/*
+	 * deltas are sum - flushed , never a reset , so increments racing with the flush simply land
+	 * in the next one. flushed only moves after the batch succeeded - a failed flush is retried whole.
+	 * rows go in product id order so two nodes flushing at once lock in the same order
+	 */
+	@Scheduled(fixedDelayString = "${greenora.views.flush-interval-ms}")
+	@PreDestroy
+	public synchronized int flush() {
+		List<Long> ids = new ArrayList<>();
+		List<Object[]> rows = new ArrayList<>();
+		List<Long> totals = new ArrayList<>();
+		counters.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(e -> {
+			long total = e.getValue().adder.sum();
+			long delta = total - e.getValue().flushed;
+			if (delta > 0) {
+				ids.add(e.getKey());
+				totals.add(total);
+				rows.add(new Object[] { e.getKey(), delta });
+			}
+		});
+		if (rows.isEmpty())
+			return 0;
+		try {
+			jdbcTemplate.batchUpdate(UPSERT, rows);
+		} catch (RuntimeException e) {
+			log.warn("view flush of {} products failed , retrying next interval", rows.size(), e);
+			return 0;
+		}
+		for (int i = 0; i < ids.size(); i++)
+			counters.get(ids.get(i)).flushed = totals.get(i);
+		for (Object[] row : rows)
+			flushListener.accept((Long) row[0], (Long) row[1]);
+		return rows.size();
+	}
+}
@@ -0,0 +1,206 @@
+package com.cdac.analytics;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/*
+ * frequently bought together . one CoOccurrenceMatrix behind a read/write lock ,
+ * every placed order adds its basket , a Rebuild recomputes it from all historical baskets.
+ */
+@Component
+public class RelatedProductsIndex {
+	// quadratic in the basket size - very large orders add little signal
+	public static final int MAX_BASKET = 50;
+	// baskets buffered by a rebuild before they are counted , bounds its memory
+	static final int CHUNK = 20_000;
+
+	private final int keep;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private CoOccurrenceMatrix matrix;
+	// orders that arrived while a rebuild was reading history , replayed on swap unless history had them
+	private Map<Long, long[]> sinceRebuild;
+
+	public RelatedProductsIndex(@Value("${greenora.related.neighbours}") int keep) {
+		this.keep = keep;
+		this.matrix = new CoOccurrenceMatrix(keep);
+	}
+
+	public void add(long orderId, long[] basket) {
+		if (basket.length < 2)
+			return;
+		lock.writeLock().lock();
+		try {
+			matrix.addBasket(basket);
+			if (sinceRebuild != null)
+				sinceRebuild.put(orderId, basket);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public List<CoOccurrenceMatrix.Neighbour> related(long[] ids, int k) {
+		lock.readLock().lock();
+		try {
+			return matrix.related(ids, k);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return matrix.products();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// call before reading history so no basket falls between the read and the swap
+	public Rebuild beginRebuild() {
+		lock.writeLock().lock();
+		try {
+			sinceRebuild = new LinkedHashMap<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		return new Rebuild(ForkJoinPool.commonPool().getParallelism() * 4);
+	}
+
+	/*
+	 * rows are split by product hash into partitions . history is streamed in , every basket goes
+	 * to the slices of the partitions owning one of its products , and each CHUNK of baskets is
+	 * counted on the fork/join pool - a leaf only reads its own slice and only counts the pairs whose
+	 * left product it owns. leaves own disjoint rows , so nothing is merged , the partial matrices
+	 * are just concatenated. one thread feeds a Rebuild.
+	 */
+	public final class Rebuild {
+		private final int partitions;
+		private final CoOccurrenceMatrix[] parts;
+		private final List<List<long[]>> slices = new ArrayList<>();
+		// order ids seen in history , offset by the first one - ids are a dense ascending sequence
+		private final BitSet seen = new BitSet();
+		private long firstOrderId = -1;
+		private int buffered;
+		private int orders;
+
+		private Rebuild(int partitions) {
+			this.partitions = partitions;
+			this.parts = new CoOccurrenceMatrix[partitions];
+			for (int p = 0; p < partitions; p++) {
+				parts[p] = new CoOccurrenceMatrix(keep);
+				slices.add(new ArrayList<>());
+			}
+		}
+
+		// baskets must come in ascending order id
+		public void add(long orderId, long[] basket) {
+			if (firstOrderId < 0)
+				firstOrderId = orderId;
+			if (orderId >= firstOrderId)
+				seen.set(Math.toIntExact(orderId - firstOrderId));
+			if (basket.length < 2)
+				return;
+			orders++;
+			// once per partition , whatever the number of its products in the basket
+			int[] owners = new int[basket.length];
+			int n = 0;
+			for (long a : basket) {
+				int p = partition(a, partitions);
+				int i = 0;
+				while (i < n && owners[i] != p)
+					i++;
+				if (i == n) {
+					owners[n++] = p;
+					slices.get(p).add(basket);
+				}
+			}
+			if (++buffered == CHUNK)
+				count();
+		}
+
+		public int orders() {
+			return orders;
+		}
+
+		// counts what is left , replays the orders history did not have and swaps the matrix in
+		public void finish() {
+			count();
+			CoOccurrenceMatrix built = parts[0];
+			built.pruneAll();
+			for (int p = 1; p < partitions; p++) {
+				parts[p].pruneAll();
+				built.absorb(parts[p]);
+			}
+			lock.writeLock().lock();
+			try {
+				if (sinceRebuild != null)
+					sinceRebuild.forEach((orderId, basket) -> {
+						if (!seenInHistory(orderId))
+							built.addBasket(basket);
+					});
+				sinceRebuild = null;
+				matrix = built;
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		private boolean seenInHistory(long orderId) {
+			return firstOrderId >= 0 && orderId >= firstOrderId && orderId - firstOrderId <= Integer.MAX_VALUE
+					&& seen.get((int) (orderId - firstOrderId));
+		}
+
+		private void count() {
+			if (buffered == 0)
+				return;
+			ForkJoinPool.commonPool().invoke(new PartitionTask(this, 0, partitions));
+			buffered = 0;
+		}
+	}
+
+	// rows are counted exactly then pruned once in finish() , no pruning noise in a rebuild
+	private static final class PartitionTask extends RecursiveAction {
+		private final Rebuild rebuild;
+		private final int from;
+		private final int to;
+
+		PartitionTask(Rebuild rebuild, int from, int to) {
+			this.rebuild = rebuild;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new PartitionTask(rebuild, from, mid), new PartitionTask(rebuild, mid, to));
+				return;
+			}
+			List<long[]> slice = rebuild.slices.get(from);
+			CoOccurrenceMatrix m = rebuild.parts[from];
+			for (long[] basket : slice)
+				for (long a : basket)
+					if (partition(a, rebuild.partitions) == from)
+						for (long b : basket)
+							if (a != b)
+								m.count(a, b);
+			slice.clear();
+		}
+	}
+
+	private static int partition(long productId, int partitions) {
+		return Math.floorMod(Long.hashCode(productId * 0x9E3779B97F4A7C15L), partitions);
+	}
+}
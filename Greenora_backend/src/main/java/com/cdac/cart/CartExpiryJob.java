@@ -0,0 +1,98 @@
+package com.cdac.cart;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dao.CartDao;
+import com.cdac.dao.CartItemDao;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * deletes carts nobody has edited for expiry-days (cart.updated_on is touched by every write behind).
+ * idle carts are walked in id order , batch-size carts per transaction , so row locks are held for
+ * one short delete at a time. carts with edits not yet written behind are skipped , the rest are
+ * evicted from CartStore once their rows are gone. rows purged : greenora.cart.expired{table}
+ */
+@Component
+@Slf4j
+public class CartExpiryJob {
+	private record Purged(List<Long> cartIds, int items) {
+	}
+
+	private final CartDao cartdao;
+	private final CartItemDao cartitemdao;
+	private final CartStore cartstore;
+	private final TransactionTemplate tx;
+	private final Counter expiredCarts;
+	private final Counter expiredItems;
+	private final int expiryDays;
+	private final int batchSize;
+
+	public CartExpiryJob(CartDao cartdao, CartItemDao cartitemdao, CartStore cartstore,
+			PlatformTransactionManager transactionManager, MeterRegistry registry,
+			@Value("${greenora.cart.expiry-days}") int expiryDays,
+			@Value("${greenora.cart.expiry-batch-size}") int batchSize) {
+		this.cartdao = cartdao;
+		this.cartitemdao = cartitemdao;
+		this.cartstore = cartstore;
+		this.tx = new TransactionTemplate(transactionManager);
+		this.expiredCarts = Counter.builder("greenora.cart.expired").tag("table", "cart")
+				.description("idle carts deleted").register(registry);
+		this.expiredItems = Counter.builder("greenora.cart.expired").tag("table", "cart_item")
+				.description("lines of idle carts deleted").register(registry);
+		this.expiryDays = expiryDays;
+		this.batchSize = batchSize;
+	}
+
+	//returns the number of carts deleted
+	@Scheduled(cron = "${greenora.cart.expiry-cron}")
+	public int expire() {
+		LocalDateTime cutoff = LocalDateTime.now().minusDays(expiryDays);
+		int expired = 0;
+		long afterId = 0;
+		for (;;) {
+			List<Object[]> idle = cartdao.findIdleAfter(cutoff, afterId, Limit.of(batchSize));
+			if (idle.isEmpty())
+				break;
+			afterId = (Long) idle.get(idle.size() - 1)[0];
+			// cart id -> user id
+			Map<Long, Long> users = new HashMap<>();
+			for (Object[] row : idle)
+				if (!cartstore.isUnsaved((Long) row[1]))
+					users.put((Long) row[0], (Long) row[1]);
+			if (!users.isEmpty()) {
+				Purged purged = tx.execute(s -> purge(users, cutoff));
+				cartstore.evict(purged.cartIds().stream().map(users::get).toList());
+				expiredCarts.increment(purged.cartIds().size());
+				expiredItems.increment(purged.items());
+				expired += purged.cartIds().size();
+			}
+			if (idle.size() < batchSize)
+				break;
+		}
+		if (expired > 0)
+			log.info("expired {} carts idle since {}", expired, cutoff);
+		return expired;
+	}
+
+	private Purged purge(Map<Long, Long> users, LocalDateTime cutoff) {
+		List<Long> cartIds = cartdao.lockIdle(users.keySet(), cutoff);
+		if (cartIds.isEmpty())
+			return new Purged(cartIds, 0);
+		int items = cartitemdao.deleteByCartIdIn(cartIds);
+		cartdao.deleteByIdIn(cartIds);
+		return new Purged(cartIds, items);
+	}
+}
@@ -0,0 +1,13 @@
+package com.cdac.cart;
+
+//one product line of a cart , price is the unit price captured when the line was added
+public record CartLine(long productId, int quantity, double price) {
+
+	public long pricePaise() {
+		return CartPricing.paise(price);
+	}
+
+	public long totalPaise() {
+		return quantity * pricePaise();
+	}
+}
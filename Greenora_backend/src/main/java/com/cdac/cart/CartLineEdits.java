@@ -0,0 +1,85 @@
+package com.cdac.cart;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/*
+ * the copy of a snapshot's lines an edit works on. remembers the line each touched product had
+ * before its first change , so the next snapshot moves the totals by those lines only.
+ * merge , compute* and remove(key , value) are the Map defaults and go through put / remove.
+ * not thread safe - lives under the user's stripe lock for one edit
+ */
+class CartLineEdits extends AbstractMap<Long, CartLine> {
+	private final Map<Long, CartLine> lines;
+	// product -> its line before the edit , null for a line the edit added
+	private final Map<Long, CartLine> before = new HashMap<>();
+
+	CartLineEdits(Map<Long, CartLine> lines) {
+		this.lines = new LinkedHashMap<>(lines);
+	}
+
+	@Override
+	public CartLine get(Object productId) {
+		return lines.get(productId);
+	}
+
+	@Override
+	public boolean containsKey(Object productId) {
+		return lines.containsKey(productId);
+	}
+
+	@Override
+	public int size() {
+		return lines.size();
+	}
+
+	@Override
+	public CartLine put(Long productId, CartLine line) {
+		CartLine old = lines.put(productId, line);
+		if (!before.containsKey(productId))
+			before.put(productId, old);
+		return old;
+	}
+
+	@Override
+	public CartLine remove(Object productId) {
+		if (!lines.containsKey(productId))
+			return null;
+		CartLine old = lines.remove(productId);
+		if (!before.containsKey(productId))
+			before.put((Long) productId, old);
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		for (Long productId : Set.copyOf(lines.keySet()))
+			remove(productId);
+	}
+
+	//read only - a change through a view would not be tracked
+	@Override
+	public Set<Entry<Long, CartLine>> entrySet() {
+		return Collections.unmodifiableMap(lines).entrySet();
+	}
+
+	boolean changed() {
+		for (Map.Entry<Long, CartLine> e : before.entrySet())
+			if (!Objects.equals(e.getValue(), lines.get(e.getKey())))
+				return true;
+		return false;
+	}
+
+	Map<Long, CartLine> before() {
+		return before;
+	}
+
+	Map<Long, CartLine> lines() {
+		return Collections.unmodifiableMap(lines);
+	}
+}
@@ -0,0 +1,136 @@
+package com.cdac.cart;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.cdac.custom_exception.ResourseNotFoundException;
+import com.cdac.dao.CartDao;
+import com.cdac.dao.CartItemDao;
+import com.cdac.dao.ProductDao;
+import com.cdac.dao.UserDao;
+import com.cdac.entities.Cart;
+import com.cdac.entities.CartItem;
+
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+
+/*
+ * DB side of CartStore - read-through of one cart and write-behind of a batch of carts.
+ * a batch is written as a diff against the stored rows : one select for every cart's lines ,
+ * one delete , one batched update and batched inserts (cart_item has pooled ids)
+ */
+@Component
+@AllArgsConstructor
+public class CartPersister {
+	private static final String UPDATE_LINE = "update cart_item set quantity = ?, price = ?, updated_on = current_timestamp where id = ?";
+
+	private final CartDao cartdao;
+	private final CartItemDao cartitemdao;
+	private final UserDao userdao;
+	private final ProductDao productdao;
+	private final JdbcTemplate jdbcTemplate;
+
+	/*
+	 * cart , lines and current catalog prices in one query , no entity is loaded.
+	 * pricedAt is the price epoch read before the query - later changes are re-checked
+	 */
+	public CartSnapshot load(long userId, long version, long pricedAt) {
+		List<Object[]> rows = cartdao.findLinesByUserId(userId);
+		if (rows.isEmpty()) {
+			if (!userdao.existsById(userId))
+				throw new ResourseNotFoundException("invalid user id!!!");
+			return CartSnapshot.of(userId, null, version, Map.of(), pricedAt, Set.of());
+		}
+		Map<Long, CartLine> lines = new LinkedHashMap<>();
+		Map<Long, Long> catalog = new HashMap<>();
+		for (Object[] row : rows) {
+			if (row[1] == null)
+				continue;
+			long productId = (Long) row[1];
+			// older carts may hold the same product twice , they are merged here and on the next write
+			lines.merge(productId, new CartLine(productId, (Integer) row[2], (Double) row[3]),
+					(a, b) -> new CartLine(productId, a.quantity() + b.quantity(), b.price()));
+			catalog.put(productId, CartPricing.paise((Double) row[4]));
+		}
+		Set<Long> stale = new HashSet<>();
+		for (CartLine line : lines.values())
+			if (line.pricePaise() != catalog.get(line.productId()))
+				stale.add(line.productId());
+		return CartSnapshot.of(userId, (Long) rows.get(0)[0], version, Collections.unmodifiableMap(lines), pricedAt,
+				Set.copyOf(stale));
+	}
+
+	//returns the cart id of every written user , carts created here included
+	@Transactional(Transactional.TxType.REQUIRES_NEW)
+	public Map<Long, Long> write(Collection<CartSnapshot> carts) {
+		// looked up rather than taken from the snapshot , CartExpiryJob may have deleted the cart since it was read
+		Map<Long, Long> cartIds = new HashMap<>();
+		for (Object[] row : cartdao.findIdsByUserIdIn(carts.stream().map(CartSnapshot::userId).toList()))
+			cartIds.put((Long) row[0], (Long) row[1]);
+		List<Long> touched = new ArrayList<>(cartIds.values());
+		List<Cart> created = new ArrayList<>();
+		for (CartSnapshot cart : carts)
+			if (!cart.isEmpty() && !cartIds.containsKey(cart.userId()))
+				created.add(new Cart(userdao.getReferenceById(cart.userId())));
+		for (Cart cart : cartdao.saveAll(created))
+			cartIds.put(cart.getUser().getId(), cart.getId());
+		if (cartIds.isEmpty())
+			return cartIds;
+
+		// cart id -> product id -> {item id , quantity , price}
+		Map<Long, Map<Long, Object[]>> stored = new HashMap<>();
+		List<Long> deletes = new ArrayList<>();
+		for (Object[] row : cartitemdao.findLinesByCartIdIn(cartIds.values())) {
+			Object[] previous = stored.computeIfAbsent((Long) row[1], k -> new HashMap<>()).put((Long) row[2],
+					new Object[] { row[0], row[3], row[4] });
+			if (previous != null)
+				deletes.add((Long) previous[0]);
+		}
+
+		List<Object[]> updates = new ArrayList<>();
+		List<CartItem> inserts = new ArrayList<>();
+		for (CartSnapshot cart : carts) {
+			Long cartId = cartIds.get(cart.userId());
+			if (cartId == null)
+				continue;
+			Map<Long, Object[]> rows = stored.getOrDefault(cartId, Map.of());
+			for (Map.Entry<Long, Object[]> row : rows.entrySet()) {
+				CartLine line = cart.lines().get(row.getKey());
+				Object[] values = row.getValue();
+				if (line == null)
+					deletes.add((Long) values[0]);
+				else if (line.quantity() != (Integer) values[1] || line.price() != (Double) values[2])
+					updates.add(new Object[] { line.quantity(), line.price(), values[0] });
+			}
+			for (CartLine line : cart.lines().values()) {
+				if (rows.containsKey(line.productId()))
+					continue;
+				CartItem item = new CartItem();
+				item.setCart(cartdao.getReferenceById(cartId));
+				item.setProduct(productdao.getReferenceById(line.productId()));
+				item.setQuantity(line.quantity());
+				item.setPrice(line.price());
+				inserts.add(item);
+			}
+		}
+		if (!deletes.isEmpty())
+			cartitemdao.deleteByIdIn(deletes);
+		if (!updates.isEmpty())
+			jdbcTemplate.batchUpdate(UPDATE_LINE, updates);
+		cartitemdao.saveAll(inserts);
+		//cart updated_on is the last edit time of the whole cart
+		if (!touched.isEmpty())
+			cartdao.touch(touched);
+		return cartIds;
+	}
+}
@@ -0,0 +1,83 @@
+package com.cdac.cart;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cdac.dto.CartTotalsDto;
+import com.cdac.entities.Coupon;
+import com.cdac.events.ProductPriceChangedEvent;
+
+/*
+ * cart money in integer paise , and price drift without touching the lines of every cart.
+ * each committed price change gets the next price epoch , a cart remembers the epoch it was
+ * last checked at (pricedAt) - while no price changed since , its stale set is still exact and
+ * nothing is scanned. otherwise only lines of products changed after pricedAt are compared.
+ * updated_on is no signal here , stock reservations and ratings bump it too
+ */
+@Component
+public class CartPricing {
+	private record PriceChange(long epoch, long pricePaise) {
+	}
+
+	private final AtomicLong epoch = new AtomicLong();
+	private final Map<Long, PriceChange> changes = new ConcurrentHashMap<>();
+
+	public static long paise(double rupees) {
+		return Math.round(rupees * 100);
+	}
+
+	public long epoch() {
+		return epoch.get();
+	}
+
+	// the change is visible before the epoch that covers it , a reader never skips it
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public synchronized void onPriceChanged(ProductPriceChangedEvent event) {
+		long next = epoch.get() + 1;
+		changes.put(event.getProductId(), new PriceChange(next, paise(event.getNewPrice())));
+		epoch.set(next);
+	}
+
+	CartSnapshot refresh(CartSnapshot cart) {
+		long now = epoch.get();
+		if (cart.pricedAt() >= now)
+			return cart;
+		Set<Long> stale = new HashSet<>(cart.stale());
+		for (CartLine line : cart.lines().values()) {
+			PriceChange change = changes.get(line.productId());
+			if (change == null || change.epoch() <= cart.pricedAt())
+				continue;
+			if (change.pricePaise() != line.pricePaise())
+				stale.add(line.productId());
+			else
+				stale.remove(line.productId());
+		}
+		return cart.withPricing(now, Set.copyOf(stale));
+	}
+
+	//subtotal is cached on the snapshot , the coupon is applied in the same pass
+	public CartTotalsDto totals(CartSnapshot cart, Coupon coupon) {
+		long subtotal = cart.subtotalPaise();
+		long discount = 0;
+		if (coupon != null && applies(coupon, subtotal))
+			discount = Math.min(paise(coupon.getDiscountValue()), subtotal);
+		return new CartTotalsDto(cart.itemCount(), subtotal, discount, subtotal - discount,
+				discount > 0 ? coupon.getCouponCode() : null, List.copyOf(cart.stale()));
+	}
+
+	private static boolean applies(Coupon coupon, long subtotal) {
+		LocalDate today = LocalDate.now();
+		return coupon.isActive() && subtotal >= paise(coupon.getMinOrderAmt())
+				&& (coupon.getValidFrom() == null || !today.isBefore(coupon.getValidFrom()))
+				&& (coupon.getValidUntil() == null || !today.isAfter(coupon.getValidUntil()));
+	}
+}
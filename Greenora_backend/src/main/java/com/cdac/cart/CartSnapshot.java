@@ -0,0 +1,60 @@
+package com.cdac.cart;
+
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * immutable state of one user's cart . lines keep insertion order and are never modified -
+ * every edit builds a new snapshot with a new version , so a reader (checkout , a GET)
+ * holds a consistent cart without any lock. cartId is null until the cart row is written.
+ * subtotal and item count are summed once when a cart is loaded , never on read - an edit moves
+ * them by the lines it changed.
+ * stale holds the products whose catalog price moved away from the line price as of price epoch pricedAt
+ */
+public record CartSnapshot(long userId, Long cartId, long version, Map<Long, CartLine> lines, long subtotalPaise,
+		int itemCount, long pricedAt, Set<Long> stale) {
+
+	static CartSnapshot of(long userId, Long cartId, long version, Map<Long, CartLine> lines, long pricedAt,
+			Set<Long> stale) {
+		long subtotal = 0;
+		int count = 0;
+		for (CartLine line : lines.values()) {
+			subtotal += line.totalPaise();
+			count += line.quantity();
+		}
+		return new CartSnapshot(userId, cartId, version, lines, subtotal, count, pricedAt, stale);
+	}
+
+	//the totals of this snapshot , less the replaced lines and plus what replaced them
+	CartSnapshot edited(long nextVersion, CartLineEdits edits, Set<Long> staleIds) {
+		Map<Long, CartLine> next = edits.lines();
+		long subtotal = subtotalPaise;
+		int count = itemCount;
+		for (Map.Entry<Long, CartLine> e : edits.before().entrySet()) {
+			CartLine was = e.getValue();
+			CartLine now = next.get(e.getKey());
+			if (was != null) {
+				subtotal -= was.totalPaise();
+				count -= was.quantity();
+			}
+			if (now != null) {
+				subtotal += now.totalPaise();
+				count += now.quantity();
+			}
+		}
+		return new CartSnapshot(userId, cartId, nextVersion, next, subtotal, count, pricedAt, staleIds);
+	}
+
+	public boolean isEmpty() {
+		return lines.isEmpty();
+	}
+
+	CartSnapshot withCartId(Long id) {
+		return cartId != null || id == null ? this
+				: new CartSnapshot(userId, id, version, lines, subtotalPaise, itemCount, pricedAt, stale);
+	}
+
+	CartSnapshot withPricing(long epoch, Set<Long> staleIds) {
+		return new CartSnapshot(userId, cartId, version, lines, subtotalPaise, itemCount, epoch, staleIds);
+	}
+}
@@ -0,0 +1,291 @@
+package com.cdac.cart;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cdac.events.CartCheckedOutEvent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * active carts in memory , written behind to cart / cart_item.
+ * users hash onto STRIPES lock + LRU map pairs , so edits of different users rarely contend and an
+ * edit is a map copy under one lock. a miss reads the cart through from the DB (outside the lock).
+ * edited carts also sit in unsaved until their write commits - an evicted cart is never lost and
+ * never reloaded stale. the flush coalesces every edit since the last one into one write per cart.
+ * unsaved is capped - past max-unsaved carts an edit first flushes on the caller's thread.
+ * single node only : a second instance would keep its own copy of the carts
+ */
+@Component
+@Slf4j
+public class CartStore {
+	private static final int STRIPES = 64;
+	private static final int FLUSH_BATCH = 100;
+
+	private static final class Stripe {
+		final ReentrantLock lock = new ReentrantLock();
+		final Map<Long, CartSnapshot> carts;
+		// bumped by evict , a load that read the DB before an eviction is not cached
+		int evictions;
+
+		Stripe(int capacity) {
+			carts = new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Long, CartSnapshot> eldest) {
+					return size() > capacity;
+				}
+			};
+		}
+	}
+
+	private final Stripe[] stripes = new Stripe[STRIPES];
+	private final Map<Long, CartSnapshot> unsaved = new ConcurrentHashMap<>();
+	private final AtomicLong versions = new AtomicLong();
+	private final CartPersister persister;
+	private final CartPricing pricing;
+	private final int maxUnsaved;
+
+	public CartStore(CartPersister persister, CartPricing pricing, @Value("${greenora.cart.max-carts}") int maxCarts,
+			@Value("${greenora.cart.max-unsaved}") int maxUnsaved) {
+		this.persister = persister;
+		this.pricing = pricing;
+		this.maxUnsaved = maxUnsaved;
+		for (int i = 0; i < STRIPES; i++)
+			stripes[i] = new Stripe(Math.max(1, maxCarts / STRIPES));
+	}
+
+	//price drift is brought up to date on the way out , see CartPricing
+	public CartSnapshot get(long userId) {
+		CartSnapshot cart = load(userId);
+		if (cart.pricedAt() >= pricing.epoch())
+			return cart;
+		CartSnapshot repriced = pricing.refresh(cart);
+		Stripe s = stripe(userId);
+		s.lock.lock();
+		try {
+			// an edit meanwhile keeps its own snapshot , it is re-checked on the next read
+			if (s.carts.get(userId) == cart)
+				s.carts.put(userId, repriced);
+			if (unsaved.get(userId) == cart)
+				unsaved.put(userId, repriced);
+		} finally {
+			s.lock.unlock();
+		}
+		return repriced;
+	}
+
+	private CartSnapshot load(long userId) {
+		Stripe s = stripe(userId);
+		for (;;) {
+			int evictions;
+			s.lock.lock();
+			try {
+				CartSnapshot cart = cached(s, userId);
+				if (cart != null)
+					return cart;
+				evictions = s.evictions;
+			} finally {
+				s.lock.unlock();
+			}
+			CartSnapshot loaded = persister.load(userId, versions.incrementAndGet(), pricing.epoch());
+			s.lock.lock();
+			try {
+				// another request may have loaded (and edited) it meanwhile
+				CartSnapshot cart = cached(s, userId);
+				if (cart != null)
+					return cart;
+				if (s.evictions != evictions)
+					continue;
+				s.carts.put(userId, loaded);
+				return loaded;
+			} finally {
+				s.lock.unlock();
+			}
+		}
+	}
+
+	/*
+	 * applies edit to a copy of the lines under the user's stripe lock - it must not block.
+	 * an exception from edit leaves the cart untouched
+	 */
+	public CartSnapshot update(long userId, Consumer<Map<Long, CartLine>> edit) {
+		// backpressure : a cart not yet unsaved would grow the backlog , write it down first.
+		// still full after that means the DB is failing - the edit is refused rather than held in memory
+		if (unsaved.size() >= maxUnsaved && !unsaved.containsKey(userId)) {
+			flush();
+			if (unsaved.size() >= maxUnsaved)
+				throw new IllegalStateException("too many unsaved carts , try again later");
+		}
+		Stripe s = stripe(userId);
+		for (;;) {
+			load(userId);
+			s.lock.lock();
+			try {
+				CartSnapshot current = cached(s, userId);
+				// evicted between the load and the lock
+				if (current == null)
+					continue;
+				CartLineEdits lines = new CartLineEdits(current.lines());
+				edit.accept(lines);
+				if (!lines.changed())
+					return current;
+				return replace(s, edited(current, lines));
+			} finally {
+				s.lock.unlock();
+			}
+		}
+	}
+
+	/*
+	 * the checkout transaction deleted the cart rows , drop the ordered lines here too -
+	 * lines added or changed after the snapshot was taken stay. always marked unsaved so the
+	 * next flush rewrites the rows even if a flush of the old cart raced with the checkout
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onCheckedOut(CartCheckedOutEvent event) {
+		CartSnapshot ordered = event.getCart();
+		Stripe s = stripe(ordered.userId());
+		s.lock.lock();
+		try {
+			CartSnapshot current = cached(s, ordered.userId());
+			if (current == null)
+				return;
+			CartLineEdits lines = new CartLineEdits(current.lines());
+			ordered.lines().forEach(lines::remove);
+			replace(s, edited(current.withCartId(ordered.cartId()), lines));
+		} finally {
+			s.lock.unlock();
+		}
+	}
+
+	/*
+	 * carts go in user id order , FLUSH_BATCH per transaction . a failed batch is retried cart by
+	 * cart so one bad cart does not hold back the rest , a failed cart stays unsaved for the next run
+	 */
+	@Scheduled(fixedDelayString = "${greenora.cart.flush-interval-ms}")
+	@PreDestroy
+	public synchronized int flush() {
+		List<CartSnapshot> pending = new ArrayList<>(unsaved.values());
+		if (pending.isEmpty())
+			return 0;
+		pending.sort(Comparator.comparingLong(CartSnapshot::userId));
+		int written = 0;
+		for (int from = 0; from < pending.size(); from += FLUSH_BATCH) {
+			List<CartSnapshot> batch = pending.subList(from, Math.min(from + FLUSH_BATCH, pending.size()));
+			try {
+				saved(batch, persister.write(batch));
+				written += batch.size();
+			} catch (RuntimeException e) {
+				log.warn("cart flush of {} carts failed , writing them one by one", batch.size(), e);
+				for (CartSnapshot cart : batch) {
+					try {
+						saved(List.of(cart), persister.write(List.of(cart)));
+						written++;
+					} catch (RuntimeException ex) {
+						log.warn("cart of user {} not written , retrying next interval", cart.userId(), ex);
+					}
+				}
+			}
+		}
+		return written;
+	}
+
+	//carts edited since their last successful write
+	public int unsavedCount() {
+		return unsaved.size();
+	}
+
+	public boolean isUnsaved(long userId) {
+		return unsaved.containsKey(userId);
+	}
+
+	/*
+	 * drops the copies of carts whose rows were deleted (CartExpiryJob) , the next read loads the
+	 * empty cart. a cart edited meanwhile stays - the flush writes it into a new cart row
+	 */
+	public void evict(Collection<Long> userIds) {
+		for (Long userId : userIds) {
+			Stripe s = stripe(userId);
+			s.lock.lock();
+			try {
+				s.evictions++;
+				if (!unsaved.containsKey(userId))
+					s.carts.remove(userId);
+			} finally {
+				s.lock.unlock();
+			}
+		}
+	}
+
+	private void saved(List<CartSnapshot> batch, Map<Long, Long> cartIds) {
+		for (CartSnapshot written : batch) {
+			Stripe s = stripe(written.userId());
+			Long cartId = cartIds.get(written.userId());
+			s.lock.lock();
+			try {
+				CartSnapshot current = s.carts.get(written.userId());
+				if (current != null)
+					s.carts.put(written.userId(), current.withCartId(cartId));
+				CartSnapshot pending = unsaved.get(written.userId());
+				if (pending == null)
+					continue;
+				// edited again while the write was running - stays unsaved
+				if (pending.version() == written.version())
+					unsaved.remove(written.userId());
+				else
+					unsaved.put(written.userId(), pending.withCartId(cartId));
+			} finally {
+				s.lock.unlock();
+			}
+		}
+	}
+
+	/*
+	 * a line stops being stale only when the edit re-priced it (add , batch ops , accept prices) -
+	 * a quantity change keeps the captured price and so stays stale.
+	 * pricedAt is kept - changes after it are still re-checked for the untouched lines
+	 */
+	private CartSnapshot edited(CartSnapshot current, CartLineEdits lines) {
+		Set<Long> stale = new HashSet<>();
+		for (Long productId : current.stale()) {
+			CartLine line = lines.get(productId);
+			if (line != null && line.price() == current.lines().get(productId).price())
+				stale.add(productId);
+		}
+		return current.edited(versions.incrementAndGet(), lines, Set.copyOf(stale));
+	}
+
+	private CartSnapshot replace(Stripe s, CartSnapshot next) {
+		s.carts.put(next.userId(), next);
+		unsaved.put(next.userId(), next);
+		return next;
+	}
+
+	private CartSnapshot cached(Stripe s, long userId) {
+		CartSnapshot cart = s.carts.get(userId);
+		if (cart == null && (cart = unsaved.get(userId)) != null)
+			s.carts.put(userId, cart);
+		return cart;
+	}
+
+	private Stripe stripe(long userId) {
+		return stripes[Math.floorMod(Long.hashCode(userId) * 0x9E3779B9, STRIPES)];
+	}
+}
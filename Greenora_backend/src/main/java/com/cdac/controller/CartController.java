@@ -4,15 +4,20 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import java.util.List;
+
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.cdac.dto.CartDto;
+import com.cdac.dto.CartOpDto;
 import com.cdac.dto.CartResDto;
 import com.cdac.entities.Cart;
 import com.cdac.service.CartService;
@@ -48,6 +53,23 @@ public class CartController {
 
   }
   
+  //integer paise totals , optional coupon , and the products whose price changed since they were added
+  @GetMapping("/{userId}/totals")
+  public ResponseEntity<?> getCartTotals(@PathVariable Long userId ,@RequestParam(required = false) String couponCode){
+	  return ResponseEntity.ok(cartservice.getCartTotals(userId, couponCode));
+  }
+  
+  @PostMapping("/{userId}/reprice")
+  public ResponseEntity<?> acceptCurrentPrices(@PathVariable Long userId){
+	  return ResponseEntity.ok(cartservice.acceptCurrentPrices(userId));
+  }
+  
+  //several line edits in one request - [{productId , quantity} | {productId , delta}]
+  @PatchMapping("/{userId}")
+  public ResponseEntity<?> applyCartOps(@PathVariable Long userId ,@RequestBody List<@Valid CartOpDto> ops){
+	  return ResponseEntity.ok(cartservice.applyCartOps(userId, ops));
+  }
+  
   @DeleteMapping("/{userId}/product/{productId}")
   public ResponseEntity<?> removeFromCart(@PathVariable Long userId ,@PathVariable Long productId){
       
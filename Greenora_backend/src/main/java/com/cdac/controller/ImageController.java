@@ -0,0 +1,111 @@
+package com.cdac.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.cdac.service.ImageService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/images")
+@CrossOrigin(" http://localhost:5173")
+public class ImageController {
+	// tomcat serves the file itself with sendfile() when these request attributes are set
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	private final ImageService imageservice;
+
+	@PostMapping
+	public ResponseEntity<?> upload(@RequestParam("file") MultipartFile file) throws IOException {
+		return ResponseEntity.status(HttpStatus.CREATED).body(imageservice.store(file));
+	}
+
+	//content addressed => the bytes behind a name never change , cache forever
+	@GetMapping("/{fileName:.+}")
+	public void serve(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+		Path path = imageservice.resolve(fileName);
+		long length = Files.size(path);
+		String etag = "\"" + fileName.substring(0, fileName.lastIndexOf('.')) + "\"";
+
+		response.setHeader(HttpHeaders.ETAG, etag);
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+		if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+			response.setStatus(HttpStatus.NOT_MODIFIED.value());
+			return;
+		}
+
+		long start = 0;
+		long end = length - 1;
+		String range = request.getHeader(HttpHeaders.RANGE);
+		if (range != null && range.startsWith("bytes=") && !range.contains(",")) {
+			String spec = range.substring(6).trim();
+			int dash = spec.indexOf('-');
+			try {
+				if (dash == 0) {
+					// suffix range : last n bytes
+					start = Math.max(0, length - Long.parseLong(spec.substring(1)));
+				} else if (dash > 0) {
+					start = Long.parseLong(spec.substring(0, dash));
+					if (dash < spec.length() - 1)
+						end = Math.min(end, Long.parseLong(spec.substring(dash + 1)));
+				}
+			} catch (NumberFormatException e) {
+				start = length;
+			}
+			if (dash < 0 || start >= length || start > end) {
+				response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+				return;
+			}
+			response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+			response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+		}
+
+		long count = end - start + 1;
+		response.setContentType(imageservice.contentType(fileName));
+		response.setContentLengthLong(count);
+
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+			request.setAttribute(SENDFILE_FILENAME, path.toString());
+			request.setAttribute(SENDFILE_START, start);
+			request.setAttribute(SENDFILE_END, end + 1);
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+			long position = start;
+			while (count > 0) {
+				long n = channel.transferTo(position, count, out);
+				position += n;
+				count -= n;
+			}
+		}
+	}
+}
@@ -2,7 +2,9 @@
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -10,14 +12,21 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.cdac.dto.ExportFormat;
+import com.cdac.dto.GatewayOrderDto;
 import com.cdac.dto.OrderResDto;
+import com.cdac.dto.OrderSearchDto;
 import com.cdac.dto.OrderSummaryDto;
 import com.cdac.dto.PaymentResDto;
 import com.cdac.entities.Order;
+import com.cdac.service.ExportService;
+import com.cdac.service.IdempotencyService;
 import com.cdac.service.OrderService;
 
 import lombok.AllArgsConstructor;
@@ -30,11 +39,17 @@ import lombok.AllArgsConstructor;
 
 public class OrderController {
   private final OrderService orderservice;
+  private final IdempotencyService idempotencyservice;
+  private final ExportService exportservice;
   
+  //a retried checkout with the same Idempotency-Key gets the first response back
   @PostMapping("/user/{userId}/address/{addressId}")
-  public ResponseEntity<?> placeOrder(@PathVariable Long userId,@PathVariable Long addressId,@RequestParam(required = false) Long couponId){
-	  PaymentResDto order = orderservice.placeOrder(userId, addressId, couponId);
-	  return ResponseEntity.ok(order);
+  public ResponseEntity<?> placeOrder(@PathVariable Long userId,@PathVariable Long addressId,@RequestParam(required = false) Long couponId,
+		  @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey){
+	  return idempotencyservice.execute(idempotencyKey, "order:" + userId, new Object[] {userId, addressId, couponId}, () -> {
+		  PaymentResDto order = orderservice.placeOrder(userId, addressId, couponId);
+		  return ResponseEntity.ok(order);
+	  });
   }
   @GetMapping("user/{userId}")
   public ResponseEntity<?>  getOrderByUser(@PathVariable Long userId){
@@ -44,6 +59,21 @@ public class OrderController {
 	  }
 	  return ResponseEntity.ok(list);
   }
+  //admin dashboard : filtered , keyset paginated summaries instead of every order entity
+  @GetMapping("/search")
+  public ResponseEntity<?> searchOrders(OrderSearchDto query){
+	  return ResponseEntity.ok(orderservice.searchOrders(query));
+  }
+  //finance export , written row by row on an async thread
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(defaultValue = "CSV") ExportFormat format,
+		  @RequestParam(defaultValue = "false") boolean gzip){
+	  StreamingResponseBody body = out -> exportservice.exportOrders(format, gzip, out);
+	  return ResponseEntity.ok()
+			  .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + format.getExtension() + (gzip ? ".gz\"" : "\""))
+			  .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType()))
+			  .body(body);
+  }
   @GetMapping("/{orderId}")
   public ResponseEntity<?> getOrderById(@PathVariable Long orderId){
 	  System.out.println("order iud" + orderId);
@@ -51,6 +81,17 @@ public class OrderController {
 	  return ResponseEntity.ok(order);
 
   }
+  //202 until the gateway order exists , 502 once the outbox gave up
+  @GetMapping("/{orderId}/payment")
+  public ResponseEntity<?> getGatewayOrder(@PathVariable Long orderId){
+	  GatewayOrderDto dto = orderservice.getGatewayOrder(orderId);
+	  HttpStatus status = switch (dto.getStatus()) {
+	  	case SENT -> HttpStatus.OK;
+	  	case FAILED -> HttpStatus.BAD_GATEWAY;
+	  	default -> HttpStatus.ACCEPTED;
+	  };
+	  return ResponseEntity.status(status).body(dto);
+  }
   @GetMapping
   public ResponseEntity<?>  getAll(){
 	  List<Order> list = orderservice.getAlllOrders();
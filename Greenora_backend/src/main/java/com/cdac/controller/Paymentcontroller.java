@@ -1,7 +1,10 @@
 package com.cdac.controller;
 
+import java.security.Principal;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -9,12 +12,18 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.cdac.dto.ExportFormat;
 import com.cdac.dto.PaymentRequestDto;
 import com.cdac.dto.PaymentResDto;
 import com.cdac.entities.Payment;
+import com.cdac.service.ExportService;
+import com.cdac.service.IdempotencyService;
 import com.cdac.service.PaymentService;
 
 import jakarta.validation.Valid;
@@ -30,11 +39,18 @@ import lombok.AllArgsConstructor;
 @Validated
 public class Paymentcontroller {
 	private final PaymentService paymentservice;
+	private final IdempotencyService idempotencyservice;
+	private final ExportService exportservice;
 
 	@PostMapping
-	public ResponseEntity<?> makepayment(@RequestBody  @Valid PaymentRequestDto dto) {
-		PaymentResDto payment = paymentservice.processPayment(dto);
-		return ResponseEntity.ok(payment);
+	public ResponseEntity<?> makepayment(@RequestBody  @Valid PaymentRequestDto dto,
+			@RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+			Principal principal) {
+		//keys are per user , like the order scope
+		return idempotencyservice.execute(idempotencyKey, "payment:" + principal.getName(), dto, () -> {
+			PaymentResDto payment = paymentservice.processPayment(dto);
+			return ResponseEntity.ok(payment);
+		});
 	}
 
 	@GetMapping("/order/{orderId}")
@@ -42,6 +58,16 @@ public class Paymentcontroller {
 		return ResponseEntity.ok(paymentservice.getPaymentByOrderId(orderId));
 
 	}
+	//finance export , written row by row on an async thread
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> exportPayments(@RequestParam(defaultValue = "CSV") ExportFormat format,
+			@RequestParam(defaultValue = "false") boolean gzip) {
+		StreamingResponseBody body = out -> exportservice.exportPayments(format, gzip, out);
+		return ResponseEntity.ok()
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payments." + format.getExtension() + (gzip ? ".gz\"" : "\""))
+				.contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType()))
+				.body(body);
+	}
 	@GetMapping
 	public ResponseEntity<?> getAll(){
 		List<Payment> list = paymentservice.getAll();
@@ -1,6 +1,11 @@
 package com.cdac.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -11,10 +16,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
+import com.cdac.dto.FacetQueryDto;
 import com.cdac.dto.ProductDto;
 import com.cdac.entities.Product;
+import com.cdac.service.ProductAnalyticsService;
+import com.cdac.service.ProductImportService;
 import com.cdac.service.ProductService;
 
 import jakarta.validation.Valid;
@@ -27,6 +37,8 @@ import lombok.AllArgsConstructor;
 @CrossOrigin(" http://localhost:5173")
 public class ProductContoller {
 	 final ProductService productservice;
+	 final ProductImportService importservice;
+	 final ProductAnalyticsService analyticsservice;
 	 
 	    @PostMapping("/{categoryId}")
 	 public ResponseEntity<?> addProduct(@PathVariable Long categoryId,@RequestBody @Valid ProductDto dto){
@@ -35,21 +47,44 @@ public class ProductContoller {
 	 }
      
 	 
+	 //bulk import - body is streamed , one row per line with a header line for csv
+	 @PostMapping(value = "/import", consumes = "text/csv")
+	 public ResponseEntity<?> importCsv(InputStream body) throws IOException {
+		 return ResponseEntity.ok(importservice.importCsv(body));
+	 }
+	 
+	 @PostMapping(value = "/import", consumes = "application/x-ndjson")
+	 public ResponseEntity<?> importJsonLines(InputStream body) throws IOException {
+		 return ResponseEntity.ok(importservice.importJsonLines(body));
+	 }
+     
 	 @PutMapping(value="/{productId}" )
 	 public ResponseEntity<?> updateProduct(@PathVariable Long productId,@RequestBody  @Valid ProductDto dto) {
 		 Product product = productservice.updateProduct(productId, dto);
 		 return ResponseEntity.ok(product);
 		 
 	 }
+	 @PostMapping("/{productId}/image")
+	 public ResponseEntity<?> uploadImage(@PathVariable Long productId, @RequestParam("file") MultipartFile file) throws IOException {
+		 return ResponseEntity.ok(productservice.uploadImage(productId, file));
+	 }
 	 @GetMapping("/{productId}")
 	 public ResponseEntity<?> getProduct(@PathVariable Long productId){
-		   Product product = productservice.getProductById(productId);
-		   return ResponseEntity.ok(product);
+		   byte[] product = productservice.getProductJson(productId);
+		   analyticsservice.recordView(productId);
+		   return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(product);
 	 }
 	 @GetMapping
 	 public ResponseEntity<?>  getAllProduct(){
 		 return ResponseEntity.ok(productservice.getAllProducts());
 	 }
+	 //keyset paginated listing , sort = id | price
+	 @GetMapping("/page")
+	 public ResponseEntity<?> getProductPage(@RequestParam(defaultValue = "id") String sort,
+			 @RequestParam(defaultValue = "20") int size,
+			 @RequestParam(required = false) String token){
+		 return ResponseEntity.ok(productservice.getProductPage(sort, size, token));
+	 }
 	 @GetMapping("/category/{categoryId}")
 	 public ResponseEntity<?> getAllProductBycategory(@PathVariable Long categoryId){
 		 return ResponseEntity.ok(productservice.getProductsByCategoryId(categoryId));
@@ -60,6 +95,49 @@ public class ProductContoller {
 		 return ResponseEntity.ok(productservice.searchProducts(productName));
 	 }
 	 
+	 //full text search served from the in-memory index
+	 @GetMapping("/search")
+	 public ResponseEntity<?>  search(@RequestParam String q, @RequestParam(defaultValue = "20") int limit){
+		 return ResponseEntity.ok(productservice.searchCatalog(q, limit));
+	 }
+	 
+	 //typeahead completions , top K by popularity
+	 @GetMapping("/suggest")
+	 public ResponseEntity<?>  suggest(@RequestParam String q, @RequestParam(defaultValue = "8") int limit){
+		 return ResponseEntity.ok(productservice.suggest(q, limit));
+	 }
+	 
+	 //most viewed / bought over the last few hours
+	 @GetMapping("/trending")
+	 public ResponseEntity<?>  trending(@RequestParam(defaultValue = "10") int limit){
+		 return ResponseEntity.ok(analyticsservice.getTrending(limit));
+	 }
+	 
+	 //units sold , window = 1h .. 7d
+	 @GetMapping("/top-sellers")
+	 public ResponseEntity<?>  topSellers(@RequestParam(defaultValue = "24h") String window,
+			 @RequestParam(defaultValue = "10") int limit){
+		 return ResponseEntity.ok(analyticsservice.getTopSellers(window, limit));
+	 }
+	 
+	 //frequently bought together
+	 @GetMapping("/{productId}/related")
+	 public ResponseEntity<?>  related(@PathVariable Long productId, @RequestParam(defaultValue = "8") int limit){
+		 return ResponseEntity.ok(analyticsservice.getRelated(List.of(productId), limit));
+	 }
+	 
+	 //bought together with anything in the given set - used by the cart page , ?ids=1&ids=2
+	 @GetMapping("/related")
+	 public ResponseEntity<?>  relatedToAll(@RequestParam List<Long> ids, @RequestParam(defaultValue = "8") int limit){
+		 return ResponseEntity.ok(analyticsservice.getRelated(ids, limit));
+	 }
+	 
+	 //faceted filter - ?categoryId=1&categoryId=2&ecoRating=5&priceBand=UNDER_100&stockStatus=IN_STOCK
+	 @GetMapping("/facets")
+	 public ResponseEntity<?>  filter(FacetQueryDto query){
+		 return ResponseEntity.ok(productservice.filterProducts(query));
+	 }
+	 
 	 @DeleteMapping("/{productId}")
 	 public ResponseEntity<?>  deleteProduct(@PathVariable Long productId){
 		 return ResponseEntity.ok(productservice.deleteProduct(productId));
@@ -68,4 +146,9 @@ public class ProductContoller {
 	 public ResponseEntity<?>  getByVendor(@PathVariable Long id){
 		 return ResponseEntity.ok(productservice.getByVendorId(id));
 	 }
+	 //view counts of a vendor's products
+	 @GetMapping("/vendor/{id}/views")
+	 public ResponseEntity<?>  getVendorViews(@PathVariable Long id){
+		 return ResponseEntity.ok(analyticsservice.getVendorViews(id));
+	 }
 }
@@ -0,0 +1,52 @@
+package com.cdac.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cdac.dto.ReviewDto;
+import com.cdac.service.ReviewService;
+
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/reviews")
+@Validated
+@CrossOrigin(" http://localhost:5173")
+public class ReviewController {
+	private final ReviewService reviewservice;
+
+	@PostMapping("/user/{userId}/product/{productId}")
+	public ResponseEntity<?> addReview(@PathVariable Long userId, @PathVariable Long productId,
+			@RequestBody @Valid ReviewDto dto) {
+		return ResponseEntity.status(HttpStatus.CREATED).body(reviewservice.addReview(userId, productId, dto));
+	}
+
+	@DeleteMapping("/{reviewId}/user/{userId}")
+	public ResponseEntity<?> deleteReview(@PathVariable Long reviewId, @PathVariable Long userId) {
+		return ResponseEntity.ok(reviewservice.deleteReview(reviewId, userId));
+	}
+
+	//newest first , pass nextToken back as token for the following page
+	@GetMapping("/product/{productId}")
+	public ResponseEntity<?> getReviews(@PathVariable Long productId, @RequestParam(defaultValue = "10") int size,
+			@RequestParam(required = false) String token) {
+		return ResponseEntity.ok(reviewservice.getReviews(productId, size, token));
+	}
+
+	@GetMapping("/product/{productId}/summary")
+	public ResponseEntity<?> getRatingSummary(@PathVariable Long productId) {
+		return ResponseEntity.ok(reviewservice.getRatingSummary(productId));
+	}
+}
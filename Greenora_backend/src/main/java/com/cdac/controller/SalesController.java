@@ -0,0 +1,56 @@
+package com.cdac.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cdac.dto.ApiResponse;
+import com.cdac.entities.RollupDimension;
+import com.cdac.service.SalesRollupService;
+
+import lombok.AllArgsConstructor;
+
+//dashboard sales figures , one row per day from the rollup table
+@RestController
+@AllArgsConstructor
+@RequestMapping("/sales")
+@CrossOrigin(" http://localhost:5173")
+public class SalesController {
+	private final SalesRollupService rollupservice;
+
+	@GetMapping("/daily")
+	public ResponseEntity<?> getDaily(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		return ResponseEntity.ok(rollupservice.getDaily(RollupDimension.TOTAL, 0, from, to));
+	}
+
+	@GetMapping("/vendor/{vendorId}")
+	public ResponseEntity<?> getVendorDaily(@PathVariable Long vendorId,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		return ResponseEntity.ok(rollupservice.getDaily(RollupDimension.VENDOR, vendorId, from, to));
+	}
+
+	@GetMapping("/category/{categoryId}")
+	public ResponseEntity<?> getCategoryDaily(@PathVariable Long categoryId,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		return ResponseEntity.ok(rollupservice.getDaily(RollupDimension.CATEGORY, categoryId, from, to));
+	}
+
+	//backfill / repair
+	@PostMapping("/rebuild")
+	public ResponseEntity<?> rebuild(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		int rows = rollupservice.rebuild(from, to);
+		return ResponseEntity.ok(new ApiResponse("rebuilt " + rows + " rollup rows"));
+	}
+}
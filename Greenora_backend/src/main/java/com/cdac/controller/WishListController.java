@@ -0,0 +1,53 @@
+package com.cdac.controller;
+
+import java.security.Principal;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cdac.service.WishListService;
+
+import lombok.AllArgsConstructor;
+
+//paths match the storefront calls , principal name is the user's email from the jwt
+@RestController
+@AllArgsConstructor
+@RequestMapping("/products/wishlist")
+@CrossOrigin(" http://localhost:5173")
+public class WishListController {
+	private final WishListService wishlistservice;
+
+	@GetMapping
+	public ResponseEntity<?> getWishlist(Principal principal) {
+		return ResponseEntity.ok(wishlistservice.getWishlist(principal.getName()));
+	}
+
+	@PostMapping("/{productId}")
+	public ResponseEntity<?> addToWishlist(Principal principal, @PathVariable Long productId) {
+		return ResponseEntity.ok(wishlistservice.addToWishlist(principal.getName(), productId));
+	}
+
+	@DeleteMapping("/{productId}")
+	public ResponseEntity<?> removeFromWishlist(Principal principal, @PathVariable Long productId) {
+		return ResponseEntity.ok(wishlistservice.removeFromWishlist(principal.getName(), productId));
+	}
+
+	@GetMapping("/check/{productId}")
+	public ResponseEntity<?> isInWishlist(Principal principal, @PathVariable Long productId) {
+		return ResponseEntity.ok(wishlistservice.isInWishlist(principal.getName(), productId));
+	}
+
+	//batch check for a product grid - ?ids=1&ids=2 , returns the hearted ids
+	@GetMapping("/check")
+	public ResponseEntity<?> filterInWishlist(Principal principal, @RequestParam List<Long> ids) {
+		return ResponseEntity.ok(wishlistservice.filterInWishlist(principal.getName(), ids));
+	}
+}
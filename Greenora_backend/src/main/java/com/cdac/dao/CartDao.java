@@ -1,8 +1,19 @@
 package com.cdac.dao;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.cdac.entities.Cart;
+
+import jakarta.persistence.LockModeType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,5 +21,31 @@ import com.cdac.entities.User;
 
 
 public interface CartDao extends JpaRepository<Cart, Long > {
+        @EntityGraph(Cart.WITH_ITEMS)
         Optional<Cart> findByUser(User user);
+
+        //{cart id , product id , quantity , cart price , catalog price} - one row with a null product for an empty cart
+        @Query("select c.id, p.id, i.quantity, i.price, p.price from Cart c left join c.items i left join i.product p where c.user.id = :userId order by i.id")
+        List<Object[]> findLinesByUserId(@Param("userId") Long userId);
+
+        //{user id , cart id}
+        @Query("select c.user.id, c.id from Cart c where c.user.id in :userIds")
+        List<Object[]> findIdsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+        @Modifying
+        @Query("update Cart c set c.updatedOn = current_timestamp where c.id in :ids")
+        int touch(@Param("ids") Collection<Long> ids);
+
+        //{cart id , user id} of carts not edited since the cutoff , in id order after afterId
+        @Query("select c.id, c.user.id from Cart c where c.updatedOn < :cutoff and c.id > :afterId order by c.id")
+        List<Object[]> findIdleAfter(@Param("cutoff") LocalDateTime cutoff, @Param("afterId") Long afterId, Limit limit);
+
+        //re-checks and locks the rows , a cart touched by a write since it was found is left out
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("select c.id from Cart c where c.id in :ids and c.updatedOn < :cutoff")
+        List<Long> lockIdle(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
+        @Modifying
+        @Query("delete from Cart c where c.id in :ids")
+        int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
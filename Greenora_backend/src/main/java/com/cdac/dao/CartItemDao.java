@@ -1,5 +1,6 @@
 package com.cdac.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +23,16 @@ public interface CartItemDao extends JpaRepository<CartItem, Long> {
     @Query("DELETE FROM CartItem c WHERE c.cart.id = :cartId")
     void deleteByCartId(@Param("cartId") Long cartId);
     List<CartItem> findByCartId(Long cartId);
+    
+    //{item id , cart id , product id , quantity , price}
+    @Query("select i.id, i.cart.id, i.product.id, i.quantity, i.price from CartItem i where i.cart.id in :cartIds")
+    List<Object[]> findLinesByCartIdIn(@Param("cartIds") Collection<Long> cartIds);
+    
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.id IN :ids")
+    void deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.cart.id IN :cartIds")
+    int deleteByCartIdIn(@Param("cartIds") Collection<Long> cartIds);
 }
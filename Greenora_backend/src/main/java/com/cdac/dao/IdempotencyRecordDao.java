@@ -0,0 +1,29 @@
+package com.cdac.dao;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cdac.entities.IdempotencyRecord;
+
+public interface IdempotencyRecordDao extends JpaRepository<IdempotencyRecord, Long> {
+	Optional<IdempotencyRecord> findByIdemKey(String idemKey);
+
+	@Modifying
+	@Query("delete from IdempotencyRecord r where r.idemKey = :idemKey and r.status = 0")
+	int deleteInProgress(@Param("idemKey") String idemKey);
+
+	@Modifying
+	@Query("delete from IdempotencyRecord r where r.idemKey = :idemKey and (r.expiresAt < :now "
+			+ "or (r.status = 0 and r.updatedOn < :leaseStart))")
+	int deleteStale(@Param("idemKey") String idemKey, @Param("now") LocalDateTime now,
+			@Param("leaseStart") LocalDateTime leaseStart);
+
+	@Modifying
+	@Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+	int deleteExpired(@Param("now") LocalDateTime now);
+}
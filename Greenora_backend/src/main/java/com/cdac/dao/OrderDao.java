@@ -1,11 +1,33 @@
 package com.cdac.dao;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import com.cdac.dto.OrderListItemDto;
 import com.cdac.entities.Order;
 
-public interface OrderDao extends JpaRepository<Order, Long> {
+import jakarta.persistence.QueryHint;
+
+public interface OrderDao extends JpaRepository<Order, Long>, OrderSearchDao {
+	String EXPORT_FETCH_SIZE = "1000";
+	
+    //GET /orders/user/{userId} and the admin list - orders , lines and products in one select
+    @EntityGraph(Order.WITH_ITEMS)
     List<Order> findByUserIdOrderByOrderDateDesc(Long userId);
+    
+    @Override
+    @EntityGraph(Order.WITH_ITEMS)
+    List<Order> findAll();
+    
+    //cursor over DTO rows - nothing lands in the persistence context , caller must close + be transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select new com.cdac.dto.OrderListItemDto(o.id, o.orderDate, o.deliveryStatus, o.totalAmt, "
+    		+ "o.deliveryDate, u.id, u.name, u.email) from Order o join o.user u order by o.id")
+    Stream<OrderListItemDto> streamExportRows();
 }
@@ -1,9 +1,28 @@
 package com.cdac.dao;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import com.cdac.dto.ProductOrderCount;
 import com.cdac.entities.OrderItem;
 
-public interface OrderItemDao extends JpaRepository<OrderItem,Long> {
+import jakarta.persistence.QueryHint;
 
+public interface OrderItemDao extends JpaRepository<OrderItem,Long> {
+	
+	@Query("select oi.product.id as productId, count(oi) as orderCount from OrderItem oi group by oi.product.id")
+	List<ProductOrderCount> countOrdersByProduct();
+	
+	//review check : the user's order contains the product
+	boolean existsByOrderIdAndProductIdAndOrderUserId(Long orderId, Long productId, Long userId);
+	
+	//(order id , product id) pairs grouped by order - caller must close + be transactional
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = OrderDao.EXPORT_FETCH_SIZE))
+	@Query("select oi.order.id, oi.product.id from OrderItem oi where oi.product is not null order by oi.order.id")
+	Stream<Object[]> streamOrderLines();
 }
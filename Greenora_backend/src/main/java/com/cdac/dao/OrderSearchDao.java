@@ -0,0 +1,12 @@
+package com.cdac.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.cdac.dto.OrderListItemDto;
+import com.cdac.dto.OrderSearchDto;
+
+//dynamic filters do not fit a derived / @Query method , implemented in OrderSearchDaoImpl
+public interface OrderSearchDao {
+	List<OrderListItemDto> searchOrders(OrderSearchDto query, LocalDate afterDate, Long afterId, int limit);
+}
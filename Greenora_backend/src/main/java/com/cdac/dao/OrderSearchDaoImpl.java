@@ -0,0 +1,58 @@
+package com.cdac.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.cdac.dto.OrderListItemDto;
+import com.cdac.dto.OrderSearchDto;
+import com.cdac.entities.Order;
+import com.cdac.entities.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/*
+ * newest first , keyset on (order_date , id) so every page is an index range scan
+ * on one of the orders composite indexes instead of OFFSET
+ */
+public class OrderSearchDaoImpl implements OrderSearchDao {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<OrderListItemDto> searchOrders(OrderSearchDto query, LocalDate afterDate, Long afterId, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<OrderListItemDto> cq = cb.createQuery(OrderListItemDto.class);
+		Root<Order> o = cq.from(Order.class);
+		Join<Order, User> u = o.join("user");
+
+		List<Predicate> where = new ArrayList<>();
+		if (query.getStatus() != null && !query.getStatus().isEmpty())
+			where.add(o.get("deliveryStatus").in(query.getStatus()));
+		if (query.getUserId() != null)
+			where.add(cb.equal(u.get("id"), query.getUserId()));
+		if (query.getFrom() != null)
+			where.add(cb.greaterThanOrEqualTo(o.get("orderDate"), query.getFrom()));
+		if (query.getTo() != null)
+			where.add(cb.lessThanOrEqualTo(o.get("orderDate"), query.getTo()));
+		if (query.getMinAmount() != null)
+			where.add(cb.greaterThanOrEqualTo(o.get("totalAmt"), query.getMinAmount()));
+		if (afterDate != null)
+			where.add(cb.or(cb.lessThan(o.get("orderDate"), afterDate),
+					cb.and(cb.equal(o.get("orderDate"), afterDate), cb.lessThan(o.get("id"), afterId))));
+
+		cq.select(cb.construct(OrderListItemDto.class, o.get("id"), o.get("orderDate"), o.get("deliveryStatus"),
+				o.get("totalAmt"), o.get("deliveryDate"), u.get("id"), u.get("name"), u.get("email")))
+				.where(where.toArray(Predicate[]::new))
+				.orderBy(cb.desc(o.get("orderDate")), cb.desc(o.get("id")));
+
+		return entityManager.createQuery(cq).setMaxResults(limit).getResultList();
+	}
+}
@@ -1,13 +1,33 @@
 package com.cdac.dao;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import jakarta.persistence.QueryHint;
+
+import com.cdac.dto.PaymentExportDto;
 import com.cdac.entities.Order;
 import com.cdac.entities.Payment;
 
 
 public interface PaymentDao extends JpaRepository<Payment, Long> {
+	@EntityGraph(Payment.WITH_ORDER)
 	Optional<Payment> findByOrderId(Order order);
+
+	@Override
+	@EntityGraph(Payment.WITH_ORDER)
+	List<Payment> findAll();
+	
+	//cursor over DTO rows - nothing lands in the persistence context , caller must close + be transactional
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = OrderDao.EXPORT_FETCH_SIZE))
+	@Query("select new com.cdac.dto.PaymentExportDto(p.id, p.orderId.id, p.method, p.status, p.transactionId, "
+			+ "p.amount, p.datetime) from Payment p order by p.id")
+	Stream<PaymentExportDto> streamExportRows();
 }
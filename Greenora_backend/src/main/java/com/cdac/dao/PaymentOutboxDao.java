@@ -0,0 +1,50 @@
+package com.cdac.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cdac.entities.OutboxStatus;
+import com.cdac.entities.PaymentOutbox;
+
+public interface PaymentOutboxDao extends JpaRepository<PaymentOutbox, Long> {
+	Optional<PaymentOutbox> findByOrderId(Long orderId);
+
+	//pending rows that are due + in-flight rows whose worker lease ran out (crashed / killed node)
+	@Query("select o.orderId from PaymentOutbox o where (o.status = com.cdac.entities.OutboxStatus.PENDING "
+			+ "or o.status = com.cdac.entities.OutboxStatus.IN_FLIGHT) and o.nextAttemptAt <= :now order by o.id")
+	List<Long> findDueOrderIds(@Param("now") LocalDateTime now, Limit limit);
+
+	//conditional claim - only one worker (or node) wins a row
+	@Modifying
+	@Query("update PaymentOutbox o set o.status = com.cdac.entities.OutboxStatus.IN_FLIGHT, o.nextAttemptAt = :leaseUntil "
+			+ "where o.orderId = :orderId and (o.status = com.cdac.entities.OutboxStatus.PENDING "
+			+ "or o.status = com.cdac.entities.OutboxStatus.IN_FLIGHT) and o.nextAttemptAt <= :now")
+	int claim(@Param("orderId") Long orderId, @Param("now") LocalDateTime now,
+			@Param("leaseUntil") LocalDateTime leaseUntil);
+
+	/*
+	 * the outcome of a gateway call is only written while the caller still holds its lease -
+	 * 0 rows means the lease ran out and another worker re-claimed the row
+	 */
+	@Modifying
+	@Query("update PaymentOutbox o set o.status = com.cdac.entities.OutboxStatus.SENT, o.gatewayOrderId = :gatewayOrderId, "
+			+ "o.attempts = o.attempts + 1 where o.orderId = :orderId "
+			+ "and o.status = com.cdac.entities.OutboxStatus.IN_FLIGHT and o.nextAttemptAt = :leaseUntil")
+	int completeLeased(@Param("orderId") Long orderId, @Param("leaseUntil") LocalDateTime leaseUntil,
+			@Param("gatewayOrderId") String gatewayOrderId);
+
+	@Modifying
+	@Query("update PaymentOutbox o set o.status = :status, o.attempts = :attempts, o.lastError = :lastError, "
+			+ "o.nextAttemptAt = :nextAttemptAt where o.orderId = :orderId "
+			+ "and o.status = com.cdac.entities.OutboxStatus.IN_FLIGHT and o.nextAttemptAt = :leaseUntil")
+	int retryLeased(@Param("orderId") Long orderId, @Param("leaseUntil") LocalDateTime leaseUntil,
+			@Param("status") OutboxStatus status, @Param("attempts") int attempts,
+			@Param("lastError") String lastError, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+}
@@ -0,0 +1,40 @@
+package com.cdac.dao;
+
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.cdac.entities.PooledBaseEntity;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * tables that moved from IDENTITY to a pooled sequence already hold rows ,
+ * while the freshly created <entity>_seq table starts at 1.
+ * bump every sequence past max(id) before the first insert can collide .
+ * (EntityManagerFactory dependency = runs after hibernate schema update)
+ */
+@Component
+@AllArgsConstructor
+@Slf4j
+public class PooledIdAligner {
+	// entity table -> sequence table
+	static final Map<String, String> POOLED_TABLES = Map.of("product", "product_seq", "orders", "orders_seq",
+			"order_item", "order_item_seq", "payment", "payment_seq", "cart_item", "cart_item_seq");
+
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManagerFactory entityManagerFactory;
+
+	@PostConstruct
+	public void alignSequences() {
+		POOLED_TABLES.forEach((table, seq) -> {
+			int rows = jdbcTemplate.update("update " + seq + " set next_val = greatest(next_val, "
+					+ "(select coalesce(max(id), 0) + " + PooledBaseEntity.ALLOCATION_SIZE + " from " + table + "))");
+			log.info("aligned {} with {} ({} row)", seq, table, rows);
+		});
+	}
+}
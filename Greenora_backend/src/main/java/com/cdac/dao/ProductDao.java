@@ -1,14 +1,37 @@
 package com.cdac.dao;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.cdac.dto.ProductSummaryDto;
 import com.cdac.entities.Product;
-import java.util.List;
-import com.cdac.entities.Category;
 
 
 
 public interface ProductDao extends JpaRepository<Product, Long> {
+	//single statement storefront projection , no eager category / vendor / address selects
+	String SUMMARY = "select new com.cdac.dto.ProductSummaryDto(p.id, p.name, p.description, p.quantity, "
+			+ "p.price, p.image, p.ecoRating, p.isActive, p.stockStatus, c.id, c.name, v.id, v.name, "
+			+ "p.ratingCount, p.ratingSum) "
+			+ "from Product p left join p.category c left join p.vendor v ";
+	
+    //entity reads are serialized as is (category , vendor) - fetched in the same select
+    @Override
+    @EntityGraph(attributePaths = { "category", "vendor" })
+    Optional<Product> findById(Long id);
+    
+    @Override
+    @EntityGraph(attributePaths = { "category", "vendor" })
+    List<Product> findAllById(Iterable<Long> ids);
+    
     boolean existsByCategoryIdAndName(Long categoryId, String name);
      boolean existsByName(String name);
      
@@ -16,4 +39,54 @@ public interface ProductDao extends JpaRepository<Product, Long> {
      List<Product> findByName(String name);
      
      List<Product> findByVendorId(Long Id);
+     
+     @Query("select p.name from Product p where p.category.id = :categoryId")
+     List<String> findNamesByCategoryId(@Param("categoryId") Long categoryId);
+     
+     @Query(SUMMARY + "order by p.id")
+     List<ProductSummaryDto> findAllSummaries();
+     
+     @Query(SUMMARY + "where c.id = :categoryId order by p.id")
+     List<ProductSummaryDto> findSummariesByCategoryId(@Param("categoryId") Long categoryId);
+     
+     @Query(SUMMARY + "where v.id = :vendorId order by p.id")
+     List<ProductSummaryDto> findSummariesByVendorId(@Param("vendorId") Long vendorId);
+     
+     @Query(SUMMARY + "where p.id in :ids")
+     List<ProductSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+     
+     //conditional decrement - the row lock + quantity check make concurrent checkouts unable to oversell
+     @Modifying(flushAutomatically = true)
+     @Query("update Product p set p.quantity = p.quantity - :n, p.updatedOn = current_timestamp "
+     		+ "where p.id = :id and p.quantity >= :n")
+     int reserveStock(@Param("id") Long id, @Param("n") int n);
+     
+     @Query("select p.id from Product p where p.id in :ids and p.quantity = 0 "
+     		+ "and p.stockStatus <> com.cdac.entities.StockStatus.OUT_OF_STOCK")
+     List<Long> findSoldOutIds(@Param("ids") Collection<Long> ids);
+     
+     @Modifying
+     @Query("update Product p set p.stockStatus = com.cdac.entities.StockStatus.OUT_OF_STOCK "
+     		+ "where p.id in :ids and p.quantity = 0")
+     int markOutOfStock(@Param("ids") Collection<Long> ids);
+     
+     //one atomic row update per review insert (delta 1) or delete (delta -1) , native because the
+     //rating columns are read only for the entity
+     @Modifying(flushAutomatically = true)
+     @Query(value = "update product set rating_count = rating_count + :delta, rating_sum = rating_sum + :delta * :rating, "
+     		+ "rating_1 = rating_1 + case when :rating = 1 then :delta else 0 end, "
+     		+ "rating_2 = rating_2 + case when :rating = 2 then :delta else 0 end, "
+     		+ "rating_3 = rating_3 + case when :rating = 3 then :delta else 0 end, "
+     		+ "rating_4 = rating_4 + case when :rating = 4 then :delta else 0 end, "
+     		+ "rating_5 = rating_5 + case when :rating = 5 then :delta else 0 end where id = :id", nativeQuery = true)
+     int applyRating(@Param("id") Long id, @Param("rating") int rating, @Param("delta") int delta);
+     
+     //keyset pages - seek past the last row of previous page instead of OFFSET
+     @Query(SUMMARY + "where p.id > :afterId order by p.id asc")
+     List<ProductSummaryDto> findPageAfterId(@Param("afterId") Long afterId, Limit limit);
+     
+     @Query(SUMMARY + "where p.price > :afterPrice "
+     		+ "or (p.price = :afterPrice and p.id > :afterId) order by p.price asc, p.id asc")
+     List<ProductSummaryDto> findPageAfterPrice(@Param("afterPrice") double afterPrice,
+    		 @Param("afterId") Long afterId, Limit limit);
 }
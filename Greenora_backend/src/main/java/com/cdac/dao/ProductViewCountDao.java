@@ -0,0 +1,16 @@
+package com.cdac.dao;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cdac.dto.ProductViewsDto;
+import com.cdac.entities.ProductViewCount;
+
+public interface ProductViewCountDao extends JpaRepository<ProductViewCount, Long> {
+	@Query("select new com.cdac.dto.ProductViewsDto(p.id, p.name, coalesce(v.views, 0)) from Product p "
+			+ "left join ProductViewCount v on v.productId = p.id where p.vendor.id = :vendorId order by p.id")
+	List<ProductViewsDto> findVendorViews(@Param("vendorId") Long vendorId);
+}
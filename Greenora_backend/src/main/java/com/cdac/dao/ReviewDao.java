@@ -1,9 +1,32 @@
 package com.cdac.dao;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.cdac.dto.ReviewResDto;
 import com.cdac.entities.Review;
 
 public interface ReviewDao extends JpaRepository<Review, Long> {
+	String RES = "select new com.cdac.dto.ReviewResDto(r.id, p.id, u.id, u.name, r.rating, r.reviewText, r.datetime) "
+			+ "from Review r join r.product p join r.user u ";
+
+	boolean existsByUserIdAndProductId(Long userId, Long productId);
+
+	//newest first , keyset on id
+	@Query(RES + "where p.id = :productId and r.id < :beforeId order by r.id desc")
+	List<ReviewResDto> findPageBefore(@Param("productId") Long productId, @Param("beforeId") Long beforeId, Limit limit);
+
+	@Query(RES + "where r.id = :id")
+	Optional<ReviewResDto> findResById(@Param("id") Long id);
 
+	//row count tells a concurrent second delete apart from the first
+	@Modifying(flushAutomatically = true)
+	@Query("delete from Review r where r.id = :id")
+	int deleteReturningCount(@Param("id") Long id);
 }
@@ -0,0 +1,64 @@
+package com.cdac.dao;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cdac.dto.RollupRow;
+import com.cdac.entities.DeliveryStatus;
+import com.cdac.entities.RollupDimension;
+import com.cdac.entities.SalesRollup;
+
+public interface SalesRollupDao extends JpaRepository<SalesRollup, Long> {
+	//dashboard read : one row per day , served by the unique (dimension , dimension_id , day) index
+	List<SalesRollup> findByDimensionAndDimensionIdAndDayBetweenOrderByDay(RollupDimension dimension,
+			long dimensionId, LocalDate from, LocalDate to);
+
+	@Modifying
+	@Query("delete from SalesRollup r where r.day between :from and :to")
+	int deleteDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	// single order , grouped per vendor / category for the incremental update
+	@Query("select o.orderDate as day, p.vendor.id as key, count(distinct o.id) as orderCount, "
+			+ "sum(oi.quantity) as units, sum(oi.quantity * oi.price) as revenue "
+			+ "from OrderItem oi join oi.order o join oi.product p where o.id = :orderId group by o.orderDate, p.vendor.id")
+	List<RollupRow> vendorLinesOfOrder(@Param("orderId") Long orderId);
+
+	@Query("select o.orderDate as day, p.category.id as key, count(distinct o.id) as orderCount, "
+			+ "sum(oi.quantity) as units, sum(oi.quantity * oi.price) as revenue "
+			+ "from OrderItem oi join oi.order o join oi.product p where o.id = :orderId group by o.orderDate, p.category.id")
+	List<RollupRow> categoryLinesOfOrder(@Param("orderId") Long orderId);
+
+	// backfill , same aggregates over a date range
+	//TOTAL revenue is what the buyer paid (after coupon) , units come from unitsBetween
+	@Query("select o.orderDate as day, 0L as key, count(o) as orderCount, 0L as units, sum(o.totalAmt) as revenue "
+			+ "from Order o where o.orderDate between :from and :to and o.deliveryStatus not in :excluded "
+			+ "group by o.orderDate")
+	List<RollupRow> totalsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("excluded") Collection<DeliveryStatus> excluded);
+
+	@Query("select o.orderDate as day, 0L as key, count(distinct o.id) as orderCount, sum(oi.quantity) as units, "
+			+ "0.0 as revenue from OrderItem oi join oi.order o "
+			+ "where o.orderDate between :from and :to and o.deliveryStatus not in :excluded group by o.orderDate")
+	List<RollupRow> unitsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("excluded") Collection<DeliveryStatus> excluded);
+
+	@Query("select o.orderDate as day, p.vendor.id as key, count(distinct o.id) as orderCount, "
+			+ "sum(oi.quantity) as units, sum(oi.quantity * oi.price) as revenue "
+			+ "from OrderItem oi join oi.order o join oi.product p "
+			+ "where o.orderDate between :from and :to and o.deliveryStatus not in :excluded group by o.orderDate, p.vendor.id")
+	List<RollupRow> vendorsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("excluded") Collection<DeliveryStatus> excluded);
+
+	@Query("select o.orderDate as day, p.category.id as key, count(distinct o.id) as orderCount, "
+			+ "sum(oi.quantity) as units, sum(oi.quantity * oi.price) as revenue "
+			+ "from OrderItem oi join oi.order o join oi.product p "
+			+ "where o.orderDate between :from and :to and o.deliveryStatus not in :excluded group by o.orderDate, p.category.id")
+	List<RollupRow> categoriesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("excluded") Collection<DeliveryStatus> excluded);
+}
@@ -3,6 +3,8 @@ package com.cdac.dao;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.cdac.entities.User;
 import com.cdac.entities.UserRole;
@@ -14,5 +16,8 @@ public interface UserDao extends JpaRepository<User, Long> {
    boolean existsByEmail(String email);
     Optional<User> findByEmail(String email);
     
+    @Query("select u.id from User u where u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+    
     List<User> findByRole(UserRole role);
 }
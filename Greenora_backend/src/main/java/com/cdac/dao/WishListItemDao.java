@@ -0,0 +1,27 @@
+package com.cdac.dao;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cdac.entities.WishListItem;
+
+public interface WishListItemDao extends JpaRepository<WishListItem, Long> {
+	//ascending - loaded straight into the membership cache
+	@Query("select i.product.id from WishListItem i where i.user.id = :userId order by i.product.id")
+	List<Long> findProductIdsByUserId(@Param("userId") Long userId);
+
+	//adding twice is a no-op instead of a constraint violation
+	@Modifying
+	@Query(value = "insert into wishlist_item (user_id, product_id, creation_date, updated_on) "
+			+ "values (:userId, :productId, current_date, current_timestamp) "
+			+ "on duplicate key update product_id = product_id", nativeQuery = true)
+	void insertIgnoringDuplicate(@Param("userId") Long userId, @Param("productId") Long productId);
+
+	@Modifying
+	@Query("delete from WishListItem i where i.user.id = :userId and i.product.id = :productId")
+	int deleteByUserIdAndProductId(@Param("userId") Long userId, @Param("productId") Long productId);
+}
@@ -0,0 +1,24 @@
+package com.cdac.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//one line of a PATCH /cart/{userId} - quantity sets the line (0 removes it) , delta adds to it
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartOpDto {
+	
+  @NotNull(message = "Product ID is required")
+  private Long productId;
+  
+  @Min(value = 0, message = "Quantity can not be negative")
+  private Integer quantity;
+  
+  private Integer delta;
+}
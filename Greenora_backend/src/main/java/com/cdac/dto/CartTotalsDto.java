@@ -0,0 +1,22 @@
+package com.cdac.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//amounts in paise , priceChanged lists products whose catalog price differs from the cart price
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartTotalsDto {
+	private int itemCount;
+	private long subtotalPaise;
+	private long discountPaise;
+	private long totalPaise;
+	private String couponCode;
+	private List<Long> priceChanged;
+}
@@ -0,0 +1,21 @@
+package com.cdac.dto;
+
+public enum ExportFormat {
+	CSV("text/csv", "csv"), JSONL("application/x-ndjson", "jsonl");
+
+	private final String contentType;
+	private final String extension;
+
+	ExportFormat(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+}
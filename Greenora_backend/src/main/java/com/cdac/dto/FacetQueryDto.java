@@ -0,0 +1,23 @@
+package com.cdac.dto;
+
+import java.util.List;
+
+import com.cdac.entities.StockStatus;
+import com.cdac.search.PriceBand;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+//values inside one facet are OR-ed , facets are AND-ed
+@Getter
+@Setter
+@ToString
+public class FacetQueryDto {
+	private List<Long> categoryId;
+	private List<Integer> ecoRating;
+	private List<PriceBand> priceBand;
+	private List<StockStatus> stockStatus;
+	private Long afterId;
+	private int size = 20;
+}
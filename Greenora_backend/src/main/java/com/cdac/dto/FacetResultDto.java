@@ -0,0 +1,24 @@
+package com.cdac.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetResultDto<T> {
+	private int total;
+	private List<T> items;
+	
+	//facet name -> (value -> matching products)
+	private Map<String, Map<String, Integer>> facets;
+	
+	//pass as afterId for the next page , null on last page
+	private Long nextAfterId;
+}
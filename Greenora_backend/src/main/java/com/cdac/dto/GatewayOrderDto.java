@@ -0,0 +1,21 @@
+package com.cdac.dto;
+
+import com.cdac.entities.OutboxStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//polled by the checkout page until razorpayOrderId is filled in
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GatewayOrderDto {
+	private Long orderId;
+	private OutboxStatus status;
+	private String razorpayOrderId;
+	private double amount;
+	private String currency;
+}
@@ -0,0 +1,20 @@
+package com.cdac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUploadDto {
+	private String hash;
+	private String contentType;
+	private long size;
+	private String url;
+	
+	//generated in background , 404 until ready
+	private String thumbnailUrl;
+}
@@ -0,0 +1,26 @@
+package com.cdac.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportReportDto {
+	private long totalRows;
+	private long imported;
+	private long failed;
+	private List<RowError> errors = new ArrayList<>();
+
+	@Getter
+	@AllArgsConstructor
+	public static class RowError {
+		private long line;
+		private String message;
+	}
+}
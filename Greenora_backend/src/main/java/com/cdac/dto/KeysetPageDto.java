@@ -0,0 +1,22 @@
+package com.cdac.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+//one page of a keyset (cursor) listing - products , orders , reviews
+public class KeysetPageDto<T> {
+	private List<T> items;
+	
+	//opaque continuation token , null on last page
+	private String nextToken;
+	
+	private boolean hasMore;
+}
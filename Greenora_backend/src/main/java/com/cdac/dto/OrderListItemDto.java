@@ -0,0 +1,26 @@
+package com.cdac.dto;
+
+import java.time.LocalDate;
+
+import com.cdac.entities.DeliveryStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//order summary columns + buyer , no items / products
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderListItemDto {
+	private Long id;
+	private LocalDate orderDate;
+	private DeliveryStatus deliveryStatus;
+	private double totalAmt;
+	private LocalDate deliveryDate;
+	private Long userId;
+	private String userName;
+	private String userEmail;
+}
@@ -0,0 +1,35 @@
+package com.cdac.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.cdac.entities.DeliveryStatus;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+//admin order search , every filter is optional
+@Getter
+@Setter
+@ToString
+public class OrderSearchDto {
+	private List<DeliveryStatus> status;
+
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate from;
+
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate to;
+
+	private Long userId;
+
+	private Double minAmount;
+
+	private int size = 20;
+
+	//nextToken of the previous page
+	private String token;
+}
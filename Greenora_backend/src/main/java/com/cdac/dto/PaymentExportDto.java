@@ -0,0 +1,26 @@
+package com.cdac.dto;
+
+import java.time.LocalDateTime;
+
+import com.cdac.entities.PaymentMethod;
+import com.cdac.entities.PaymentStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//flat payment row for finance exports
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentExportDto {
+	private Long id;
+	private Long orderId;
+	private PaymentMethod method;
+	private PaymentStatus status;
+	private String transactionId;
+	private double amount;
+	private LocalDateTime datetime;
+}
@@ -0,0 +1,7 @@
+package com.cdac.dto;
+
+//projection - number of order lines per product
+public interface ProductOrderCount {
+	Long getProductId();
+	Long getOrderCount();
+}
@@ -0,0 +1,19 @@
+package com.cdac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchHitDto {
+	private Long id;
+	private String name;
+	private String description;
+	private double price;
+	private String image;
+	private double score;
+}
@@ -0,0 +1,63 @@
+package com.cdac.dto;
+
+import com.cdac.entities.StockStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+ * storefront view of a product - built directly by the JPQL select in ProductDao ,
+ * so catalog reads touch only these columns (no vendor user / address / password)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductSummaryDto {
+	private Long id;
+	private String name;
+	private String description;
+	private int quantity;
+	private double price;
+	private String image;
+	private int ecoRating;
+	private boolean active;
+	private StockStatus stockStatus;
+	private CategoryRef category;
+	private VendorRef vendor;
+	private int ratingCount;
+	private double averageRating;
+
+	public ProductSummaryDto(Long id, String name, String description, int quantity, double price, String image,
+			int ecoRating, boolean active, StockStatus stockStatus, Long categoryId, String categoryName,
+			Long vendorId, String vendorName, int ratingCount, int ratingSum) {
+		this.id = id;
+		this.name = name;
+		this.description = description;
+		this.quantity = quantity;
+		this.price = price;
+		this.image = image;
+		this.ecoRating = ecoRating;
+		this.active = active;
+		this.stockStatus = stockStatus;
+		this.category = categoryId == null ? null : new CategoryRef(categoryId, categoryName);
+		this.vendor = vendorId == null ? null : new VendorRef(vendorId, vendorName);
+		this.ratingCount = ratingCount;
+		this.averageRating = ratingCount == 0 ? 0 : (double) ratingSum / ratingCount;
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static class CategoryRef {
+		private Long id;
+		private String name;
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static class VendorRef {
+		private Long id;
+		private String name;
+	}
+}
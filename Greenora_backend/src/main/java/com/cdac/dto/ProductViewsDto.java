@@ -0,0 +1,16 @@
+package com.cdac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductViewsDto {
+	private Long productId;
+	private String name;
+	private long views;
+}
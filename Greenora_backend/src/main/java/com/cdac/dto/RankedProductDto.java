@@ -0,0 +1,16 @@
+package com.cdac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//product plus its (estimated) score for trending / top seller lists
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedProductDto {
+	private ProductSummaryDto product;
+	private long score;
+}
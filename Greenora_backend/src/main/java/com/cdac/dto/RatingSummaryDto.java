@@ -0,0 +1,18 @@
+package com.cdac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryDto {
+	private Long productId;
+	private int ratingCount;
+	private double averageRating;
+	// histogram[0] = number of 1 star reviews .. histogram[4] = 5 stars
+	private int[] histogram;
+}
@@ -0,0 +1,23 @@
+package com.cdac.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReviewDto {
+	//order in which the reviewer bought the product
+	@NotNull
+	private Long orderId;
+	@Min(1)
+	@Max(5)
+	private int rating;
+	@Size(max = 50, message = "review must not exceed 50 characters")
+	private String reviewText;
+}
@@ -0,0 +1,23 @@
+package com.cdac.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//built by the JPQL select in ReviewDao
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewResDto {
+	private Long id;
+	private Long productId;
+	private Long userId;
+	private String userName;
+	private int rating;
+	private String reviewText;
+	private LocalDateTime datetime;
+}
@@ -0,0 +1,12 @@
+package com.cdac.dto;
+
+import java.time.LocalDate;
+
+//projection - aggregated order lines , key is a vendor / category id (null for totals)
+public interface RollupRow {
+	LocalDate getDay();
+	Long getKey();
+	Long getOrderCount();
+	Long getUnits();
+	Double getRevenue();
+}
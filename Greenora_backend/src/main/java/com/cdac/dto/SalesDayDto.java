@@ -0,0 +1,20 @@
+package com.cdac.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesDayDto {
+	private LocalDate day;
+	private long orderCount;
+	private long units;
+	private double revenue;
+	private double averageBasket;
+}
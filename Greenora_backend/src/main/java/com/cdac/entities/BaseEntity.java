@@ -1,12 +1,5 @@
 package com.cdac.entities;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-
-import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.UpdateTimestamp;
-
-import jakarta.persistence.Column;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -18,17 +11,9 @@ import lombok.ToString;
 @MappedSuperclass
 @Getter
 @Setter
-@ToString
-public class BaseEntity {
+@ToString(callSuper = true)
+public class BaseEntity extends TimestampedEntity {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
    private Long id;
-	
-	@CreationTimestamp
-	@Column(name = "creation_date")
-	private LocalDate creationDate;
-	
-	@UpdateTimestamp
-	@Column(name = "updated_on")
-	private LocalDateTime updatedOn;
 }
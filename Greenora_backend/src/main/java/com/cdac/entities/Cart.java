@@ -8,25 +8,39 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 
 @Entity
+//idle carts are found by updated_on , see CartExpiryJob
+@Table(indexes = @Index(name = "idx_cart_updated_id", columnList = "updated_on, id"))
+//lines with their products for code that loads the cart entity , the cart store itself reads projections
+@NamedEntityGraph(name = Cart.WITH_ITEMS, attributeNodes = @NamedAttributeNode(value = "items", subgraph = "items"),
+		subgraphs = {
+				@NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product")),
+				@NamedSubgraph(name = "product", attributeNodes = { @NamedAttributeNode("category"),
+						@NamedAttributeNode("vendor") }) })
 @NoArgsConstructor
 @Getter
 @Setter
 public class Cart extends BaseEntity {
+	public static final String WITH_ITEMS = "Cart.withItems";
 	
 	@OneToOne
 	@JoinColumn(name = "user_id")
     private User user;
 	
-	@OneToMany(mappedBy = "cart", cascade = CascadeType.ALL,fetch = FetchType.EAGER)
+	@OneToMany(mappedBy = "cart", cascade = CascadeType.ALL,fetch = FetchType.LAZY)
 	@JsonManagedReference 
     private List<CartItem> items = new ArrayList<>();
 
@@ -3,6 +3,7 @@ package com.cdac.entities;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import lombok.Getter;
@@ -13,13 +14,13 @@ import lombok.Setter;
 @NoArgsConstructor
 @Getter
 @Setter
-public class CartItem extends BaseEntity {
-	 @ManyToOne
+public class CartItem extends PooledBaseEntity {
+	 @ManyToOne(fetch = FetchType.LAZY)
 	 @JoinColumn(name = "cart_id")
 	 @JsonBackReference
      private Cart cart;
 	 
-	 @ManyToOne
+	 @ManyToOne(fetch = FetchType.LAZY)
 	 @JoinColumn(name = "product_id")
 	 private Product product;
 	 
@@ -0,0 +1,44 @@
+package com.cdac.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//durable Idempotency-Key -> response , status 0 while the first request is still executing
+@Entity
+@NoArgsConstructor
+@Getter
+@Setter
+@Table(name = "idempotency_record", indexes = @Index(name = "idx_idempotency_expires", columnList = "expires_at"))
+public class IdempotencyRecord extends BaseEntity {
+	public static final int IN_PROGRESS = 0;
+
+	@Column(name = "idem_key", length = 150, nullable = false, unique = true)
+	private String idemKey;
+
+	@Column(length = 64, nullable = false)
+	private String fingerprint;
+
+	private int status;
+
+	@Lob
+	private String body;
+
+	@Column(name = "expires_at", nullable = false)
+	private LocalDateTime expiresAt;
+
+	public IdempotencyRecord(String idemKey, String fingerprint, LocalDateTime expiresAt) {
+		super();
+		this.idemKey = idemKey;
+		this.fingerprint = fingerprint;
+		this.status = IN_PROGRESS;
+		this.expiresAt = expiresAt;
+	}
+}
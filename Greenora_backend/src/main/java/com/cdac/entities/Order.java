@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import jakarta.persistence.CascadeType;
@@ -12,8 +13,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.Getter;
@@ -26,8 +31,20 @@ import lombok.ToString;
 @Setter
 @Getter
 @ToString
-@Table(name="orders")
-public class Order extends BaseEntity {
+@Table(name="orders", indexes = {
+		@Index(name = "idx_orders_date_id", columnList = "order_date, id"),
+		@Index(name = "idx_orders_status_date_id", columnList = "delivery_status, order_date, id"),
+		@Index(name = "idx_orders_user_date_id", columnList = "user_id, order_date, id") })
+//everything an order response serializes , in one select
+@NamedEntityGraph(name = Order.WITH_ITEMS, attributeNodes = { @NamedAttributeNode("user"),
+		@NamedAttributeNode("coupon"), @NamedAttributeNode(value = "orderItems", subgraph = "items") }, subgraphs = {
+				@NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product")),
+				@NamedSubgraph(name = "product", attributeNodes = { @NamedAttributeNode("category"),
+						@NamedAttributeNode("vendor") }) })
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
+public class Order extends PooledBaseEntity {
+	public static final String WITH_ITEMS = "Order.withItems";
+
 	@Column(name = "total_amt")
     private double totalAmt;
 	
@@ -49,8 +66,9 @@ public class Order extends BaseEntity {
 	@JoinColumn(nullable = true,name = "coupon_id")
 	private Coupon coupon;
 	
-	@OneToMany(cascade = CascadeType.ALL,mappedBy = "order",orphanRemoval = true,fetch = FetchType.EAGER)
+	@OneToMany(cascade = CascadeType.ALL,mappedBy = "order",orphanRemoval = true,fetch = FetchType.LAZY)
 	@JsonManagedReference
+	@ToString.Exclude
 	private List<OrderItem> orderItems=new ArrayList<>();
 
 	public Order(double totalAmt, LocalDate orderDate, DeliveryStatus deliveryStatus, User user) {
@@ -3,12 +3,10 @@ package com.cdac.entities;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.OneToOne;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -17,15 +15,16 @@ import lombok.Setter;
 @NoArgsConstructor
 @Getter
 @Setter
-public class OrderItem  extends BaseEntity{
+public class OrderItem  extends PooledBaseEntity{
 	 
      private int quantity;
      
      private double price;
      
-     @OneToOne(cascade = CascadeType.ALL,fetch = FetchType.EAGER, orphanRemoval = true)
+     //many order lines per product - a one to one made product_id unique , so a product could be bought only once
+     @ManyToOne(fetch = FetchType.LAZY)
      @JsonManagedReference
-     @JoinColumn(name = "product_id",unique = false)
+     @JoinColumn(name = "product_id")
      private Product product;
      
      
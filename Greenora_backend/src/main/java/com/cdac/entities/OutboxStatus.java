@@ -0,0 +1,5 @@
+package com.cdac.entities;
+
+public enum OutboxStatus {
+	PENDING, IN_FLIGHT, SENT, FAILED
+}
@@ -9,16 +9,29 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 
 @Entity
+//a payment response serializes its order with the lines
+@NamedEntityGraph(name = Payment.WITH_ORDER, attributeNodes = @NamedAttributeNode(value = "orderId", subgraph = "order"),
+		subgraphs = {
+				@NamedSubgraph(name = "order", attributeNodes = { @NamedAttributeNode("user"), @NamedAttributeNode("coupon"),
+						@NamedAttributeNode(value = "orderItems", subgraph = "items") }),
+				@NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product")),
+				@NamedSubgraph(name = "product", attributeNodes = { @NamedAttributeNode("category"),
+						@NamedAttributeNode("vendor") }) })
 @NoArgsConstructor
 @Getter
 @Setter
-public class Payment extends BaseEntity{
+public class Payment extends PooledBaseEntity{
+	public static final String WITH_ORDER = "Payment.withOrder";
+
 	@ManyToOne(fetch =FetchType.EAGER)
 	@JoinColumn(name = "order_id",nullable = false)
    private Order orderId;
@@ -0,0 +1,57 @@
+package com.cdac.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+//gateway order request committed together with the order , sent by PaymentOutboxDispatcher
+@Entity
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@Table(name = "payment_outbox", indexes = @Index(name = "idx_outbox_status_next", columnList = "status, next_attempt_at"))
+public class PaymentOutbox extends BaseEntity {
+	@Column(name = "order_id", nullable = false, unique = true)
+	private Long orderId;
+
+	@Column(name = "amount_paise", nullable = false)
+	private long amountPaise;
+
+	@Column(length = 3, nullable = false)
+	private String currency;
+
+	@Enumerated(EnumType.STRING)
+	@Column(length = 20, nullable = false)
+	private OutboxStatus status;
+
+	private int attempts;
+
+	//due time while PENDING , lease expiry while IN_FLIGHT
+	@Column(name = "next_attempt_at", nullable = false)
+	private LocalDateTime nextAttemptAt;
+
+	@Column(name = "gateway_order_id", length = 50)
+	private String gatewayOrderId;
+
+	@Column(name = "last_error")
+	private String lastError;
+
+	public PaymentOutbox(Long orderId, long amountPaise, String currency) {
+		super();
+		this.orderId = orderId;
+		this.amountPaise = amountPaise;
+		this.currency = currency;
+		this.status = OutboxStatus.PENDING;
+		this.nextAttemptAt = LocalDateTime.now();
+	}
+}
@@ -0,0 +1,27 @@
+package com.cdac.entities;
+
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/*
+ * for high volume entities - IDENTITY makes hibernate insert row by row ,
+ * a pooled sequence (a <entity>_seq table on MySQL) hands out blocks of
+ * ALLOCATION_SIZE ids so inserts can be JDBC batched
+ */
+@MappedSuperclass
+@Getter
+@Setter
+@ToString(callSuper = true)
+public class PooledBaseEntity extends TimestampedEntity {
+	//hibernate default increment for an implicit sequence
+	public static final int ALLOCATION_SIZE = 50;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
+	private Long id;
+}
@@ -1,13 +1,19 @@
 package com.cdac.entities;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -18,7 +24,9 @@ import lombok.ToString;
 @Getter
 @Setter
 @ToString
-public class Product extends BaseEntity {
+@Table(indexes = @Index(name = "idx_product_price_id", columnList = "price, id"))
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
+public class Product extends PooledBaseEntity {
 	@Column(length=30)
      private String name;
 	
@@ -32,12 +40,15 @@ public class Product extends BaseEntity {
 	
 	private String  image;
 	
-	@ManyToOne(fetch = FetchType.EAGER)
+	//lazy - ProductDao.findById / findAllById fetch both in the same select
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name ="category_id")
+	@ToString.Exclude
 	private Category category;
 	
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name ="vendor_id")
+	@ToString.Exclude
 	private User vendor;
 	
 	@Column(name = "eco_rating")
@@ -50,4 +61,37 @@ public class Product extends BaseEntity {
 	@Column(name = "stock_status")
 	private StockStatus stockStatus;
 	
+	/*
+	 * denormalized review aggregates - written only by ProductDao.applyRating ,
+	 * never by an entity update , so a product edit can not overwrite a concurrent review
+	 */
+	@ColumnDefault("0")
+	@Column(name = "rating_count", nullable = false, insertable = false, updatable = false)
+	private int ratingCount;
+	
+	@ColumnDefault("0")
+	@Column(name = "rating_sum", nullable = false, insertable = false, updatable = false)
+	private int ratingSum;
+	
+	//histogram - number of 1 .. 5 star reviews
+	@ColumnDefault("0")
+	@Column(name = "rating_1", nullable = false, insertable = false, updatable = false)
+	private int rating1;
+	
+	@ColumnDefault("0")
+	@Column(name = "rating_2", nullable = false, insertable = false, updatable = false)
+	private int rating2;
+	
+	@ColumnDefault("0")
+	@Column(name = "rating_3", nullable = false, insertable = false, updatable = false)
+	private int rating3;
+	
+	@ColumnDefault("0")
+	@Column(name = "rating_4", nullable = false, insertable = false, updatable = false)
+	private int rating4;
+	
+	@ColumnDefault("0")
+	@Column(name = "rating_5", nullable = false, insertable = false, updatable = false)
+	private int rating5;
+	
 }
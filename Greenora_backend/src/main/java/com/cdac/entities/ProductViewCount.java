@@ -0,0 +1,29 @@
+package com.cdac.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/*
+ * lifetime views per product , kept out of the product row so view traffic never
+ * locks it or bumps its updated_on. written only by ProductViewCounter's batched upsert
+ */
+@Entity
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@Table(name = "product_view_count", uniqueConstraints = @UniqueConstraint(name = "uk_view_product",
+		columnNames = "product_id"))
+public class ProductViewCount extends BaseEntity {
+	@Column(name = "product_id", nullable = false)
+	private long productId;
+
+	@Column(nullable = false)
+	private long views;
+}
@@ -5,8 +5,11 @@ import java.time.LocalDateTime;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.Getter;
@@ -19,6 +22,9 @@ import lombok.ToString;
 @Setter
 @Getter
 @ToString
+//one review per user and product , listing seeks on (product_id , id)
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_review_user_product", columnNames = { "user_id", "product_id" }),
+		indexes = @Index(name = "idx_review_product_id", columnList = "product_id, id"))
 public class Review extends BaseEntity {
 	@ManyToOne(fetch =FetchType.LAZY)
 	 @JoinColumn(name = "product_id",nullable = false)
@@ -0,0 +1,6 @@
+package com.cdac.entities;
+
+//TOTAL rows use dimension_id 0
+public enum RollupDimension {
+	TOTAL, VENDOR, CATEGORY
+}
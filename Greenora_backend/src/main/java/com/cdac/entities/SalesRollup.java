@@ -0,0 +1,58 @@
+package com.cdac.entities;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/*
+ * one row per (dimension , dimension id , day) - maintained incrementally by SalesRollupListener.
+ * revenue is kept in paise so concurrent += never drifts
+ */
+@Entity
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@Table(name = "sales_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_rollup_dim_day",
+		columnNames = { "dimension", "dimension_id", "sales_day" }))
+public class SalesRollup extends BaseEntity {
+	@Enumerated(EnumType.STRING)
+	@Column(length = 20, nullable = false)
+	private RollupDimension dimension;
+
+	@Column(name = "dimension_id", nullable = false)
+	private long dimensionId;
+
+	//day is a reserved word in some databases
+	@Column(name = "sales_day", nullable = false)
+	private LocalDate day;
+
+	@Column(name = "order_count", nullable = false)
+	private long orderCount;
+
+	@Column(nullable = false)
+	private long units;
+
+	@Column(name = "revenue_paise", nullable = false)
+	private long revenuePaise;
+
+	public SalesRollup(RollupDimension dimension, long dimensionId, LocalDate day, long orderCount, long units,
+			long revenuePaise) {
+		super();
+		this.dimension = dimension;
+		this.dimensionId = dimensionId;
+		this.day = day;
+		this.orderCount = orderCount;
+		this.units = units;
+		this.revenuePaise = revenuePaise;
+	}
+}
@@ -0,0 +1,28 @@
+package com.cdac.entities;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+//audit columns shared by every entity , id strategy lives in the subclasses
+@MappedSuperclass
+@Getter
+@Setter
+@ToString
+public class TimestampedEntity {
+	@CreationTimestamp
+	@Column(name = "creation_date")
+	private LocalDate creationDate;
+	
+	@UpdateTimestamp
+	@Column(name = "updated_on")
+	private LocalDateTime updatedOn;
+}
@@ -7,6 +7,9 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -24,6 +27,7 @@ import lombok.Setter;
 
 @Entity
 @Table(name = "users")
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 @NoArgsConstructor
 @Getter
 @Setter
@@ -37,6 +41,7 @@ public class User extends BaseEntity implements UserDetails {
 	private String email;
 	
 	@Column(length = 250, nullable = false)
+	@JsonIgnore
 	private String password;
 	
 	@Size(min = 10, max = 10)
@@ -46,8 +51,10 @@ public class User extends BaseEntity implements UserDetails {
 	@Column(length = 100)
 	private UserRole role;	
 	
-	@OneToOne(cascade = CascadeType.ALL,fetch = FetchType.EAGER)
+	//lazy and not serialized - users are embedded in every product (vendor) and order , the address has its own endpoints
+	@OneToOne(cascade = CascadeType.ALL,fetch = FetchType.LAZY)
 	@JoinColumn(name="address_id")
+	@JsonIgnore
 	private Address myAddress;
 
 	@Override
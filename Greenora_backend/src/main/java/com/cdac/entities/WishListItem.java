@@ -0,0 +1,28 @@
+package com.cdac.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//one row per hearted product , the unique key doubles as the per user lookup index
+@Entity
+@NoArgsConstructor
+@Getter
+@Setter
+@Table(name = "wishlist_item", uniqueConstraints = @UniqueConstraint(name = "uk_wishlist_user_product",
+		columnNames = { "user_id", "product_id" }))
+public class WishListItem extends BaseEntity {
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "user_id", nullable = false)
+	private User user;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "product_id", nullable = false)
+	private Product product;
+}
@@ -0,0 +1,14 @@
+package com.cdac.events;
+
+import com.cdac.cart.CartSnapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//published by placeOrder , the cart store drops the ordered lines after commit
+@Getter
+@AllArgsConstructor
+public class CartCheckedOutEvent {
+	private final Long userId;
+	private final CartSnapshot cart;
+}
@@ -0,0 +1,17 @@
+package com.cdac.events;
+
+import java.util.List;
+
+import com.cdac.entities.Order;
+import com.cdac.entities.OrderItem;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//published by OrderService.placeOrder , consumers react after commit
+@Getter
+@AllArgsConstructor
+public class OrderPlacedEvent {
+	private final Order order;
+	private final List<OrderItem> items;
+}
@@ -0,0 +1,15 @@
+package com.cdac.events;
+
+import com.cdac.entities.DeliveryStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//published by OrderService.orderUpdate , consumers react after commit
+@Getter
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+	private final Long orderId;
+	private final DeliveryStatus previous;
+	private final DeliveryStatus current;
+}
@@ -0,0 +1,17 @@
+package com.cdac.events;
+
+import com.cdac.entities.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+ * published by ProductService on add / update / delete ,
+ * in-memory catalog structures listen to it after commit
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+	private final Product product;
+	private final boolean deleted;
+}
@@ -0,0 +1,13 @@
+package com.cdac.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//published by ProductService when an update changes the price , carts holding the product are re-checked
+@Getter
+@AllArgsConstructor
+public class ProductPriceChangedEvent {
+	private final Long productId;
+	private final double oldPrice;
+	private final double newPrice;
+}
@@ -0,0 +1,13 @@
+package com.cdac.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//published by WishListService , the membership cache applies it after commit
+@Getter
+@AllArgsConstructor
+public class WishListChangedEvent {
+	private final Long userId;
+	private final Long productId;
+	private final boolean added;
+}
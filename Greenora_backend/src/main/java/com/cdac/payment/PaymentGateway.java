@@ -0,0 +1,6 @@
+package com.cdac.payment;
+
+//creates the gateway side order the checkout page pays against , returns its id
+public interface PaymentGateway {
+	String createOrder(long amountInPaise, String currency, String receipt);
+}
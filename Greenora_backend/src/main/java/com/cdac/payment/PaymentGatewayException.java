@@ -0,0 +1,10 @@
+package com.cdac.payment;
+
+@SuppressWarnings("serial")
+public class PaymentGatewayException extends RuntimeException {
+
+	public PaymentGatewayException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
+
+}
@@ -0,0 +1,129 @@
+package com.cdac.payment;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dao.OrderDao;
+import com.cdac.dao.PaymentDao;
+import com.cdac.dao.PaymentOutboxDao;
+import com.cdac.entities.OutboxStatus;
+import com.cdac.entities.Payment;
+import com.cdac.entities.PaymentMethod;
+import com.cdac.entities.PaymentOutbox;
+import com.cdac.entities.PaymentStatus;
+import com.cdac.events.OrderPlacedEvent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * sends committed outbox rows to the gateway outside of any DB transaction.
+ * a fresh order is pushed to the bounded pool right after commit , the sweeper
+ * picks up everything else (pool full , retries with backoff , expired leases after a crash)
+ */
+@Component
+@Slf4j
+public class PaymentOutboxDispatcher {
+	static final int MAX_ATTEMPTS = 8;
+	private static final int MAX_BACKOFF_SECONDS = 300;
+	private static final int LEASE_SECONDS = 120;
+	private static final int SWEEP_BATCH = 100;
+
+	private final PaymentOutboxDao outboxdao;
+	private final OrderDao orderdao;
+	private final PaymentDao paymentdao;
+	private final PaymentGateway gateway;
+	private final TransactionTemplate tx;
+	private final ThreadPoolExecutor workers;
+
+	public PaymentOutboxDispatcher(PaymentOutboxDao outboxdao, OrderDao orderdao, PaymentDao paymentdao,
+			PaymentGateway gateway, PlatformTransactionManager transactionManager,
+			@Value("${greenora.payment.workers}") int workers,
+			@Value("${greenora.payment.queue-capacity}") int queueCapacity) {
+		this.outboxdao = outboxdao;
+		this.orderdao = orderdao;
+		this.paymentdao = paymentdao;
+		this.gateway = gateway;
+		this.tx = new TransactionTemplate(transactionManager);
+		// overflow is simply dropped - the row stays PENDING and the next sweep submits it again
+		this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.DiscardPolicy());
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onOrderPlaced(OrderPlacedEvent event) {
+		dispatch(event.getOrder().getId());
+	}
+
+	@Scheduled(fixedDelayString = "${greenora.payment.sweep-interval-ms}")
+	public void sweep() {
+		for (Long orderId : outboxdao.findDueOrderIds(LocalDateTime.now(), Limit.of(SWEEP_BATCH)))
+			dispatch(orderId);
+	}
+
+	public void dispatch(Long orderId) {
+		workers.execute(() -> process(orderId));
+	}
+
+	/*
+	 * the lease expiry doubles as the fencing token : completion and retry only touch the row
+	 * while it still carries this worker's lease. whole seconds so the value compares equal
+	 * after a round trip through a DATETIME column
+	 */
+	void process(Long orderId) {
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime leaseUntil = now.plusSeconds(LEASE_SECONDS).truncatedTo(ChronoUnit.SECONDS);
+		Boolean claimed = tx.execute(s -> outboxdao.claim(orderId, now, leaseUntil) == 1);
+		if (!Boolean.TRUE.equals(claimed))
+			return;
+
+		PaymentOutbox row = outboxdao.findByOrderId(orderId).orElseThrow();
+		try {
+			String gatewayOrderId = gateway.createOrder(row.getAmountPaise(), row.getCurrency(), "order_" + orderId);
+			tx.executeWithoutResult(s -> complete(row, leaseUntil, gatewayOrderId));
+		} catch (RuntimeException e) {
+			log.warn("gateway order for order {} failed : {}", orderId, e.getMessage());
+			tx.executeWithoutResult(s -> retryLater(row, leaseUntil, e));
+		}
+	}
+
+	private void complete(PaymentOutbox row, LocalDateTime leaseUntil, String gatewayOrderId) {
+		if (outboxdao.completeLeased(row.getOrderId(), leaseUntil, gatewayOrderId) == 0) {
+			log.warn("lease on order {} lost while creating gateway order {} , left to the new owner",
+					row.getOrderId(), gatewayOrderId);
+			return;
+		}
+		Payment payment = new Payment(orderdao.getReferenceById(row.getOrderId()), PaymentMethod.CREDIT_CARD,
+				PaymentStatus.COMPLETED, gatewayOrderId, row.getAmountPaise() / 100.0, LocalDateTime.now());
+		paymentdao.save(payment);
+	}
+
+	private void retryLater(PaymentOutbox row, LocalDateTime leaseUntil, RuntimeException e) {
+		int attempts = row.getAttempts() + 1;
+		String message = String.valueOf(e.getMessage());
+		String lastError = message.length() > 255 ? message.substring(0, 255) : message;
+		boolean failed = attempts >= MAX_ATTEMPTS;
+		LocalDateTime next = failed ? leaseUntil
+				: LocalDateTime.now().plusSeconds(Math.min(1L << attempts, MAX_BACKOFF_SECONDS));
+		if (outboxdao.retryLeased(row.getOrderId(), leaseUntil, failed ? OutboxStatus.FAILED : OutboxStatus.PENDING,
+				attempts, lastError, next) == 0)
+			log.warn("lease on order {} lost before its failure was recorded", row.getOrderId());
+	}
+
+	@PreDestroy
+	void shutdown() {
+		workers.shutdown();
+	}
+}
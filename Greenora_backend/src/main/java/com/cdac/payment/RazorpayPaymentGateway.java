@@ -0,0 +1,36 @@
+package com.cdac.payment;
+
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+
+//one client for the whole app - it holds the http connection pool
+@Component
+@ConditionalOnProperty(name = "greenora.payment.gateway", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayPaymentGateway implements PaymentGateway {
+
+	private final RazorpayClient client;
+
+	public RazorpayPaymentGateway(@Value("${razorpay.key_id}") String keyId,
+			@Value("${razorpay.key_secret}") String keySecret) throws RazorpayException {
+		this.client = new RazorpayClient(keyId, keySecret);
+	}
+
+	@Override
+	public String createOrder(long amountInPaise, String currency, String receipt) {
+		JSONObject request = new JSONObject();
+		request.put("amount", amountInPaise);
+		request.put("currency", currency);
+		request.put("receipt", receipt);
+		try {
+			com.razorpay.Order order = client.orders.create(request);
+			return order.get("id");
+		} catch (RazorpayException e) {
+			throw new PaymentGatewayException("razorpay order creation failed : " + e.getMessage(), e);
+		}
+	}
+}
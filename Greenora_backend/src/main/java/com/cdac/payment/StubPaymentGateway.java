@@ -0,0 +1,19 @@
+package com.cdac.payment;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+//local gateway for tests / offline dev : greenora.payment.gateway=stub
+@Component
+@ConditionalOnProperty(name = "greenora.payment.gateway", havingValue = "stub")
+public class StubPaymentGateway implements PaymentGateway {
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	@Override
+	public String createOrder(long amountInPaise, String currency, String receipt) {
+		return "order_stub" + sequence.incrementAndGet();
+	}
+}
@@ -0,0 +1,42 @@
+package com.cdac.search;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cdac.events.OrderPlacedEvent;
+import com.cdac.events.ProductChangedEvent;
+import com.cdac.entities.OrderItem;
+import com.cdac.entities.Product;
+
+import lombok.AllArgsConstructor;
+
+//applies product mutations to the in-memory indexes only once the DB commit succeeded
+@Component
+@AllArgsConstructor
+public class CatalogIndexListener {
+	private final ProductSearchIndex searchIndex;
+	private final ProductSuggestTrie suggestTrie;
+	private final ProductFacetIndex facetIndex;
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onProductChanged(ProductChangedEvent event) {
+		Product product = event.getProduct();
+		if (event.isDeleted()) {
+			searchIndex.remove(product.getId());
+			suggestTrie.remove(product.getId());
+			facetIndex.remove(product.getId());
+		} else {
+			searchIndex.index(product);
+			suggestTrie.index(product);
+			facetIndex.index(product);
+		}
+	}
+	
+	//suggestion popularity = number of order lines per product
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onOrderPlaced(OrderPlacedEvent event) {
+		for (OrderItem item : event.getItems())
+			suggestTrie.addPopularity(item.getProduct().getId(), 1);
+	}
+}
@@ -0,0 +1,44 @@
+package com.cdac.search;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.cdac.dao.OrderItemDao;
+import com.cdac.dao.ProductDao;
+import com.cdac.dto.ProductOrderCount;
+import com.cdac.entities.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+ * builds the in-memory catalog indexes once on start up ,
+ * afterwards CatalogIndexListener applies the deltas
+ */
+@Component
+@AllArgsConstructor
+@Slf4j
+public class CatalogIndexLoader {
+	private final ProductDao productdao;
+	private final OrderItemDao orderItemdao;
+	private final ProductSearchIndex searchIndex;
+	private final ProductSuggestTrie suggestTrie;
+	private final ProductFacetIndex facetIndex;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadIndexes() {
+		List<Product> products = productdao.findAll();
+		searchIndex.rebuild(products);
+		log.info("catalog search index built with {} products", searchIndex.size());
+		
+		Map<Long, Long> popularity = orderItemdao.countOrdersByProduct().stream()
+				.collect(Collectors.toMap(ProductOrderCount::getProductId, ProductOrderCount::getOrderCount));
+		suggestTrie.rebuild(products, popularity);
+		facetIndex.rebuild(products);
+	}
+}
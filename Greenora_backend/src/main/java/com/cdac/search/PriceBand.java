@@ -0,0 +1,23 @@
+package com.cdac.search;
+
+//fixed price buckets used by the price facet , upper bound exclusive
+public enum PriceBand {
+	UNDER_100(0, 100), FROM_100_TO_500(100, 500), FROM_500_TO_1000(500, 1000), FROM_1000_TO_5000(1000, 5000),
+	ABOVE_5000(5000, Double.MAX_VALUE);
+
+	private final double min;
+	private final double max;
+
+	PriceBand(double min, double max) {
+		this.min = min;
+		this.max = max;
+	}
+
+	//null for a price no band covers (negative , NaN) - such a product has no price facet
+	public static PriceBand of(double price) {
+		for (PriceBand band : values())
+			if (price >= band.min && price < band.max)
+				return band;
+		return null;
+	}
+}
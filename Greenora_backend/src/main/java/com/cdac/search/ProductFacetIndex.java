@@ -0,0 +1,193 @@
+package com.cdac.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.dto.FacetQueryDto;
+import com.cdac.entities.Product;
+import com.cdac.entities.StockStatus;
+
+/*
+ * one bitset per facet value , bit position = product id .
+ * filtering is an AND of the OR-ed value bitsets , facet counts are cardinalities
+ * of (filter without that facet) AND (value bitset) - the usual multi select facet semantics
+ */
+@Component
+public class ProductFacetIndex {
+
+	public static final String CATEGORY = "category";
+	public static final String ECO_RATING = "ecoRating";
+	public static final String PRICE_BAND = "priceBand";
+	public static final String STOCK_STATUS = "stockStatus";
+
+	//what a product contributed , needed to clear its bits on update / delete
+	private record Keys(Long category, int ecoRating, PriceBand band, StockStatus stock) {
+	}
+
+	public record Result(List<Long> ids, int total, Map<String, Map<String, Integer>> facets) {
+	}
+
+	private final BitSet all = new BitSet();
+	private final Map<Long, BitSet> byCategory = new HashMap<>();
+	private final Map<Integer, BitSet> byEcoRating = new HashMap<>();
+	private final Map<PriceBand, BitSet> byPriceBand = new EnumMap<>(PriceBand.class);
+	private final Map<StockStatus, BitSet> byStockStatus = new EnumMap<>(StockStatus.class);
+	private final Map<Long, Keys> keys = new HashMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	public void rebuild(Collection<Product> products) {
+		lock.writeLock().lock();
+		try {
+			all.clear();
+			byCategory.clear();
+			byEcoRating.clear();
+			byPriceBand.clear();
+			byStockStatus.clear();
+			keys.clear();
+			for (Product p : products)
+				addInternal(p);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void index(Product product) {
+		lock.writeLock().lock();
+		try {
+			removeInternal(product.getId());
+			addInternal(product);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Long productId) {
+		lock.writeLock().lock();
+		try {
+			removeInternal(productId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public Result query(FacetQueryDto q, int limit) {
+		int from = firstBit(q.getAfterId());
+		lock.readLock().lock();
+		try {
+			BitSet cat = union(byCategory, q.getCategoryId());
+			BitSet eco = union(byEcoRating, q.getEcoRating());
+			BitSet band = union(byPriceBand, q.getPriceBand());
+			BitSet stock = union(byStockStatus, q.getStockStatus());
+
+			BitSet match = and(cat, eco, band, stock);
+
+			Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+			facets.put(CATEGORY, counts(byCategory, and(eco, band, stock), String::valueOf));
+			facets.put(ECO_RATING, counts(byEcoRating, and(cat, band, stock), String::valueOf));
+			facets.put(PRICE_BAND, counts(byPriceBand, and(cat, eco, stock), Enum::name));
+			facets.put(STOCK_STATUS, counts(byStockStatus, and(cat, eco, band), Enum::name));
+
+			List<Long> ids = new ArrayList<>(limit);
+			for (int i = match.nextSetBit(from); i >= 0 && ids.size() < limit; i = match.nextSetBit(i + 1))
+				ids.add((long) i);
+			return new Result(ids, match.cardinality(), facets);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	//ids are bit positions , an afterId outside 0 .. Integer.MAX_VALUE - 1 cannot be a bit of the index
+	private static int firstBit(Long afterId) {
+		if (afterId == null)
+			return 0;
+		if (afterId < 0 || afterId >= Integer.MAX_VALUE)
+			throw new InvalidInputException("invalid afterId!!");
+		return (int) (afterId + 1);
+	}
+
+	// null / empty selection means "no filter" on that facet
+	private static <K> BitSet union(Map<K, BitSet> values, List<K> selected) {
+		if (selected == null || selected.isEmpty())
+			return null;
+		BitSet b = new BitSet();
+		for (K k : selected) {
+			BitSet v = values.get(k);
+			if (v != null)
+				b.or(v);
+		}
+		return b;
+	}
+
+	private BitSet and(BitSet... filters) {
+		BitSet b = (BitSet) all.clone();
+		for (BitSet f : filters)
+			if (f != null)
+				b.and(f);
+		return b;
+	}
+
+	private static <K> Map<String, Integer> counts(Map<K, BitSet> values, BitSet filter,
+			Function<K, String> label) {
+		Map<String, Integer> counts = new LinkedHashMap<>();
+		for (Map.Entry<K, BitSet> e : values.entrySet()) {
+			BitSet b = (BitSet) e.getValue().clone();
+			b.and(filter);
+			int c = b.cardinality();
+			if (c > 0)
+				counts.put(label.apply(e.getKey()), c);
+		}
+		return counts;
+	}
+
+	private void addInternal(Product p) {
+		if (p.getId() == null || !p.isActive())
+			return;
+		int bit = Math.toIntExact(p.getId());
+		Keys k = new Keys(p.getCategory() == null ? null : p.getCategory().getId(), p.getEcoRating(),
+				PriceBand.of(p.getPrice()), p.getStockStatus());
+		all.set(bit);
+		if (k.category() != null)
+			byCategory.computeIfAbsent(k.category(), x -> new BitSet()).set(bit);
+		byEcoRating.computeIfAbsent(k.ecoRating(), x -> new BitSet()).set(bit);
+		if (k.band() != null)
+			byPriceBand.computeIfAbsent(k.band(), x -> new BitSet()).set(bit);
+		if (k.stock() != null)
+			byStockStatus.computeIfAbsent(k.stock(), x -> new BitSet()).set(bit);
+		keys.put(p.getId(), k);
+	}
+
+	private void removeInternal(Long productId) {
+		Keys k = keys.remove(productId);
+		if (k == null)
+			return;
+		int bit = Math.toIntExact(productId);
+		all.clear(bit);
+		clear(byCategory, k.category(), bit);
+		clear(byEcoRating, k.ecoRating(), bit);
+		clear(byPriceBand, k.band(), bit);
+		clear(byStockStatus, k.stock(), bit);
+	}
+
+	private static <K> void clear(Map<K, BitSet> values, K key, int bit) {
+		if (key == null)
+			return;
+		BitSet b = values.get(key);
+		if (b != null) {
+			b.clear(bit);
+			if (b.isEmpty())
+				values.remove(key);
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package com.cdac.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.cdac.dto.ProductSearchHitDto;
+import com.cdac.entities.Product;
+
+/*
+ * in-memory inverted index over Product name + description , ranked with BM25 .
+ * name terms are counted twice so a hit in the name outranks a hit in the description.
+ * kept in sync by CatalogIndexListener , rebuilt on start up by CatalogIndexLoader
+ */
+@Component
+public class ProductSearchIndex {
+
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+	private static final int NAME_BOOST = 2;
+
+	private static class Doc {
+		Long id;
+		String name;
+		String description;
+		double price;
+		String image;
+		Map<String, Integer> termFreqs;
+		int length;
+	}
+
+	// term -> (product id -> weighted term frequency)
+	private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+	private final Map<Long, Doc> docs = new HashMap<>();
+	private long totalLength;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	public void rebuild(Collection<Product> products) {
+		lock.writeLock().lock();
+		try {
+			postings.clear();
+			docs.clear();
+			totalLength = 0;
+			for (Product p : products)
+				addInternal(p);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void index(Product product) {
+		lock.writeLock().lock();
+		try {
+			removeInternal(product.getId());
+			addInternal(product);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Long productId) {
+		lock.writeLock().lock();
+		try {
+			removeInternal(productId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return docs.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public List<ProductSearchHitDto> search(String query, int limit) {
+		List<String> terms = TextAnalyzer.analyze(query);
+		if (terms.isEmpty() || limit <= 0)
+			return List.of();
+		lock.readLock().lock();
+		try {
+			int n = docs.size();
+			if (n == 0)
+				return List.of();
+			double avgLength = (double) totalLength / n;
+			Map<Long, Double> scores = new HashMap<>();
+			for (String term : terms) {
+				Map<Long, Integer> list = postings.get(term);
+				if (list == null)
+					continue;
+				double idf = Math.log(1 + (n - list.size() + 0.5) / (list.size() + 0.5));
+				for (Map.Entry<Long, Integer> e : list.entrySet()) {
+					int tf = e.getValue();
+					int dl = docs.get(e.getKey()).length;
+					double s = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * dl / avgLength));
+					scores.merge(e.getKey(), s, Double::sum);
+				}
+			}
+			// bounded min-heap keeps only the top "limit" hits
+			PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(
+					(a, b) -> a.getValue().equals(b.getValue()) ? Long.compare(b.getKey(), a.getKey())
+							: Double.compare(a.getValue(), b.getValue()));
+			for (Map.Entry<Long, Double> e : scores.entrySet()) {
+				top.offer(e);
+				if (top.size() > limit)
+					top.poll();
+			}
+			List<ProductSearchHitDto> hits = new ArrayList<>(top.size());
+			while (!top.isEmpty()) {
+				Map.Entry<Long, Double> e = top.poll();
+				Doc d = docs.get(e.getKey());
+				hits.add(new ProductSearchHitDto(d.id, d.name, d.description, d.price, d.image, e.getValue()));
+			}
+			Collections.reverse(hits);
+			return hits;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void addInternal(Product p) {
+		if (p.getId() == null || !p.isActive())
+			return;
+		Doc d = new Doc();
+		d.id = p.getId();
+		d.name = p.getName();
+		d.description = p.getDescription();
+		d.price = p.getPrice();
+		d.image = p.getImage();
+		d.termFreqs = new HashMap<>();
+		for (String t : TextAnalyzer.analyze(p.getName()))
+			d.termFreqs.merge(t, NAME_BOOST, Integer::sum);
+		for (String t : TextAnalyzer.analyze(p.getDescription()))
+			d.termFreqs.merge(t, 1, Integer::sum);
+		for (Map.Entry<String, Integer> e : d.termFreqs.entrySet()) {
+			postings.computeIfAbsent(e.getKey(), k -> new HashMap<>()).put(d.id, e.getValue());
+			d.length += e.getValue();
+		}
+		docs.put(d.id, d);
+		totalLength += d.length;
+	}
+
+	private void removeInternal(Long productId) {
+		Doc d = docs.remove(productId);
+		if (d == null)
+			return;
+		for (String term : d.termFreqs.keySet()) {
+			Map<Long, Integer> list = postings.get(term);
+			if (list != null) {
+				list.remove(productId);
+				if (list.isEmpty())
+					postings.remove(term);
+			}
+		}
+		totalLength -= d.length;
+	}
+}
@@ -0,0 +1,220 @@
+package com.cdac.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.cdac.dto.SuggestionDto;
+import com.cdac.entities.Product;
+
+/*
+ * typeahead over active product names .
+ * every trie node caches the top MAX_K completions below it (by popularity) ,
+ * so a lookup is a walk down the prefix + copy of at most K entries - no subtree scan.
+ * a mutation only recomputes the cached lists on the path of the changed name.
+ */
+@Component
+public class ProductSuggestTrie {
+
+	public static final int MAX_K = 10;
+
+	private static final Entry[] NO_ENTRIES = new Entry[0];
+	private static final Comparator<Entry> BY_POPULARITY = Comparator.comparingLong((Entry e) -> -e.popularity)
+			.thenComparing(e -> e.name).thenComparingLong(e -> e.productId);
+
+	private static class Entry {
+		final long productId;
+		final String name;
+		final String key;
+		final long popularity;
+
+		Entry(long productId, String name, long popularity) {
+			this.productId = productId;
+			this.name = name;
+			this.key = normalize(name);
+			this.popularity = popularity;
+		}
+	}
+
+	private static class Node {
+		// children kept in parallel arrays sorted by label - smaller than a map per node
+		char[] labels = new char[0];
+		Node[] children = new Node[0];
+		Entry[] terminals = NO_ENTRIES;
+		Entry[] top = NO_ENTRIES;
+
+		Node child(char c) {
+			int i = Arrays.binarySearch(labels, c);
+			return i >= 0 ? children[i] : null;
+		}
+
+		Node childOrCreate(char c) {
+			int i = Arrays.binarySearch(labels, c);
+			if (i >= 0)
+				return children[i];
+			int at = -i - 1;
+			Node n = new Node();
+			char[] l = new char[labels.length + 1];
+			Node[] ch = new Node[children.length + 1];
+			System.arraycopy(labels, 0, l, 0, at);
+			System.arraycopy(children, 0, ch, 0, at);
+			l[at] = c;
+			ch[at] = n;
+			System.arraycopy(labels, at, l, at + 1, labels.length - at);
+			System.arraycopy(children, at, ch, at + 1, children.length - at);
+			labels = l;
+			children = ch;
+			return n;
+		}
+
+		void removeChild(char c) {
+			int i = Arrays.binarySearch(labels, c);
+			if (i < 0)
+				return;
+			char[] l = new char[labels.length - 1];
+			Node[] ch = new Node[children.length - 1];
+			System.arraycopy(labels, 0, l, 0, i);
+			System.arraycopy(children, 0, ch, 0, i);
+			System.arraycopy(labels, i + 1, l, i, labels.length - i - 1);
+			System.arraycopy(children, i + 1, ch, i, children.length - i - 1);
+			labels = l;
+			children = ch;
+		}
+
+		boolean isEmpty() {
+			return labels.length == 0 && terminals.length == 0;
+		}
+
+		void recomputeTop() {
+			List<Entry> all = new ArrayList<>(Arrays.asList(terminals));
+			for (Node c : children)
+				all.addAll(Arrays.asList(c.top));
+			all.sort(BY_POPULARITY);
+			top = all.subList(0, Math.min(MAX_K, all.size())).toArray(NO_ENTRIES);
+		}
+	}
+
+	private Node root = new Node();
+	private final Map<Long, Entry> byProduct = new HashMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	static String normalize(String s) {
+		return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+	}
+
+	public void rebuild(Collection<Product> products, Map<Long, Long> popularity) {
+		lock.writeLock().lock();
+		try {
+			root = new Node();
+			byProduct.clear();
+			for (Product p : products) {
+				if (p.getId() != null && p.isActive() && !normalize(p.getName()).isEmpty())
+					insert(new Entry(p.getId(), p.getName(), popularity.getOrDefault(p.getId(), 0L)));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// add or rename a product , keeping its current popularity
+	public void index(Product product) {
+		lock.writeLock().lock();
+		try {
+			Entry old = removeInternal(product.getId());
+			if (product.isActive() && !normalize(product.getName()).isEmpty())
+				insert(new Entry(product.getId(), product.getName(), old == null ? 0 : old.popularity));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Long productId) {
+		lock.writeLock().lock();
+		try {
+			removeInternal(productId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void addPopularity(Long productId, long delta) {
+		lock.writeLock().lock();
+		try {
+			Entry old = removeInternal(productId);
+			if (old != null)
+				insert(new Entry(old.productId, old.name, old.popularity + delta));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public List<SuggestionDto> suggest(String prefix, int limit) {
+		String key = normalize(prefix);
+		if (key.isEmpty() || limit <= 0)
+			return List.of();
+		lock.readLock().lock();
+		try {
+			Node n = root;
+			for (int i = 0; i < key.length() && n != null; i++)
+				n = n.child(key.charAt(i));
+			if (n == null)
+				return List.of();
+			int k = Math.min(Math.min(limit, MAX_K), n.top.length);
+			List<SuggestionDto> list = new ArrayList<>(k);
+			for (int i = 0; i < k; i++) {
+				Entry e = n.top[i];
+				list.add(new SuggestionDto(e.productId, e.name, e.popularity));
+			}
+			return list;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void insert(Entry e) {
+		Node[] path = new Node[e.key.length() + 1];
+		Node n = root;
+		path[0] = n;
+		for (int i = 0; i < e.key.length(); i++) {
+			n = n.childOrCreate(e.key.charAt(i));
+			path[i + 1] = n;
+		}
+		Entry[] t = Arrays.copyOf(n.terminals, n.terminals.length + 1);
+		t[t.length - 1] = e;
+		n.terminals = t;
+		byProduct.put(e.productId, e);
+		for (int i = path.length - 1; i >= 0; i--)
+			path[i].recomputeTop();
+	}
+
+	private Entry removeInternal(Long productId) {
+		Entry e = byProduct.remove(productId);
+		if (e == null)
+			return null;
+		Node[] path = new Node[e.key.length() + 1];
+		Node n = root;
+		path[0] = n;
+		for (int i = 0; i < e.key.length(); i++) {
+			n = n.child(e.key.charAt(i));
+			path[i + 1] = n;
+		}
+		n.terminals = Arrays.stream(n.terminals).filter(x -> x.productId != e.productId).toArray(Entry[]::new);
+		for (int i = path.length - 1; i >= 0; i--) {
+			// prune branches that no longer lead to any name
+			if (i > 0 && path[i].isEmpty())
+				path[i - 1].removeChild(e.key.charAt(i - 1));
+			else
+				path[i].recomputeTop();
+		}
+		return e;
+	}
+}
@@ -0,0 +1,67 @@
+package com.cdac.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/*
+ * tokenizer used by the search index :
+ * split on non alphanumerics -> lower case -> drop stop words -> light stemming
+ */
+public final class TextAnalyzer {
+
+	private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "by", "for",
+			"from", "in", "is", "it", "of", "on", "or", "the", "to", "with");
+
+	private TextAnalyzer() {
+	}
+
+	public static List<String> analyze(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null || text.isEmpty())
+			return tokens;
+		String lower = text.toLowerCase(Locale.ROOT);
+		int start = -1;
+		for (int i = 0; i <= lower.length(); i++) {
+			boolean word = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+			if (word && start < 0) {
+				start = i;
+			} else if (!word && start >= 0) {
+				String token = lower.substring(start, i);
+				if (!STOP_WORDS.contains(token))
+					tokens.add(stem(token));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	// light english suffix stripping (plurals , -ing , -ed , -ly) - good enough for product names
+	static String stem(String w) {
+		if (w.length() <= 3 || !Character.isLetter(w.charAt(w.length() - 1)))
+			return w;
+		if (w.endsWith("ies") && w.length() > 4)
+			return w.substring(0, w.length() - 3) + "y";
+		if (w.endsWith("sses"))
+			return w.substring(0, w.length() - 2);
+		if (w.endsWith("ing") && w.length() > 5)
+			return undouble(w.substring(0, w.length() - 3));
+		if (w.endsWith("ed") && w.length() > 4)
+			return undouble(w.substring(0, w.length() - 2));
+		if (w.endsWith("ly") && w.length() > 4)
+			return w.substring(0, w.length() - 2);
+		if (w.endsWith("es") && w.length() > 4 && (w.endsWith("shes") || w.endsWith("ches") || w.endsWith("xes")))
+			return w.substring(0, w.length() - 2);
+		if (w.endsWith("s") && !w.endsWith("ss") && !w.endsWith("us"))
+			return w.substring(0, w.length() - 1);
+		return w;
+	}
+
+	private static String undouble(String w) {
+		int n = w.length();
+		if (n > 2 && w.charAt(n - 1) == w.charAt(n - 2) && "lsz".indexOf(w.charAt(n - 1)) < 0)
+			return w.substring(0, n - 1);
+		return w;
+	}
+}
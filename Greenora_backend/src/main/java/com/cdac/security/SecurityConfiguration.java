@@ -16,6 +16,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
 import lombok.AllArgsConstructor;
 
 import java.util.Arrays;
@@ -30,6 +31,7 @@ public class SecurityConfiguration {
 	private final PasswordEncoder encoder;
 	private final CustomJwtFilter customJwtFilter;
 	private final  JwtAuthEntryPoint jwtAuthEntryPoint;
+	private final VendorAccess vendorAccess;
 
 	// CORS Configuration Bean
 	@Bean
@@ -49,7 +51,7 @@ public class SecurityConfiguration {
 		configuration.setAllowCredentials(true);
 		
 		// Expose Authorization header to frontend
-		configuration.setExposedHeaders(Arrays.asList("Authorization"));
+		configuration.setExposedHeaders(Arrays.asList("Authorization", "Idempotent-Replayed"));
 		
 		// Apply CORS configuration to all paths
 		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -75,7 +77,9 @@ public class SecurityConfiguration {
 		//3. Authenticate any request 
 		http.authorizeHttpRequests(request -> 
 		//5.permit all - swagger ,  user signin , sign up....
-		request.requestMatchers("/swagger-ui/**","/v**/api-docs/**",
+		//async dispatch of streamed exports - the original request was already authorized
+		request.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+		.requestMatchers("/swagger-ui/**","/v**/api-docs/**",
 				"/users/login","/users/signup","/users/password").permitAll()
 		// User endpoints
         .requestMatchers(HttpMethod.POST, "/users/signup").permitAll()
@@ -90,15 +94,21 @@ public class SecurityConfiguration {
         
         // Cart endpoints - Only USERs can manage cart
         .requestMatchers(HttpMethod.GET, "/cart/{userId}").hasAnyRole("USER", "ADMIN")
+        .requestMatchers(HttpMethod.GET, "/cart/{userId}/totals").hasAnyRole("USER", "ADMIN")
+        .requestMatchers(HttpMethod.POST, "/cart/{userId}/reprice").hasRole("USER")
         .requestMatchers(HttpMethod.POST, "/cart/{userId}").hasRole("USER")
         .requestMatchers(HttpMethod.PUT, "/cart/{userId}").hasRole("USER")
+        .requestMatchers(HttpMethod.PATCH, "/cart/{userId}").hasRole("USER")
         .requestMatchers(HttpMethod.DELETE, "/cart/{userId}/product/{productId}").hasRole("USER")
         .requestMatchers(HttpMethod.DELETE, "/cart/{userId}").hasRole("USER")
         
         // Order endpoints
         .requestMatchers(HttpMethod.POST, "/orders/user/{userId}/address/{addressId}/coupon/{couponId}").hasRole("USER")
         .requestMatchers(HttpMethod.GET, "/orders/user/{userId}").hasAnyRole("USER", "ADMIN") // Users can view their own orders
+        .requestMatchers(HttpMethod.GET, "/orders/search").hasRole("ADMIN") // Admin order search
+        .requestMatchers(HttpMethod.GET, "/orders/export").hasRole("ADMIN") // Finance export of all orders
         .requestMatchers(HttpMethod.GET, "/orders/{orderId}").hasAnyRole("USER", "ADMIN", "VENDOR") // All roles can view order details
+        .requestMatchers(HttpMethod.GET, "/orders/{orderId}/payment").hasAnyRole("USER", "ADMIN") // Checkout polls for the gateway order id
         
         // Category endpoints
         .requestMatchers(HttpMethod.GET, "/categories").permitAll() // Public - anyone can view categories
@@ -115,13 +125,40 @@ public class SecurityConfiguration {
         
         // Payment endpoints
         .requestMatchers(HttpMethod.POST, "/payment").hasRole("USER") // Only USERs can make payments
+        .requestMatchers(HttpMethod.GET, "/payment/export").hasRole("ADMIN") // Finance export of all payments
         .requestMatchers(HttpMethod.GET, "/payment/order/{orderId}").hasAnyRole("USER", "ADMIN", "VENDOR") // All can view payment details
         
+        // Review endpoints
+        .requestMatchers(HttpMethod.GET, "/reviews/product/**").permitAll() // Public - reviews and rating summary
+        .requestMatchers(HttpMethod.POST, "/reviews/user/{userId}/product/{productId}").hasRole("USER") // Buyers review products
+        .requestMatchers(HttpMethod.DELETE, "/reviews/{reviewId}/user/{userId}").hasRole("USER") // Buyers delete their review
+        
+        // Sales dashboard endpoints
+        .requestMatchers(HttpMethod.GET, "/sales/daily", "/sales/category/{categoryId}").hasRole("ADMIN") // Admin sales figures
+        .requestMatchers(HttpMethod.GET, "/sales/vendor/{vendorId}").access(vendorAccess.ownerOrAdmin("vendorId")) // Vendors see only their own sales
+        .requestMatchers(HttpMethod.POST, "/sales/rebuild").hasRole("ADMIN") // Backfill rollups
+        
+        // Wishlist endpoints - before the product rules , /products/{productId} would match /products/wishlist
+        .requestMatchers("/products/wishlist", "/products/wishlist/**").hasRole("USER") // Users manage their wishlist
+        
         // Product endpoints
         .requestMatchers(HttpMethod.GET, "/products").permitAll() // Public - anyone can view all products
+        .requestMatchers(HttpMethod.GET, "/products/page").permitAll() // Public - paginated catalog listing
         .requestMatchers(HttpMethod.GET, "/products/{productId}").permitAll() // Public - anyone can view product details
         .requestMatchers(HttpMethod.GET, "/products/category/{categoryId}").permitAll() // Public - anyone can view products by category
         .requestMatchers(HttpMethod.GET, "/products/name/{productName}").permitAll() // Public - anyone can search products
+        .requestMatchers(HttpMethod.GET, "/products/search").permitAll() // Public - full text search
+        .requestMatchers(HttpMethod.GET, "/products/suggest").permitAll() // Public - typeahead
+        .requestMatchers(HttpMethod.GET, "/products/facets").permitAll() // Public - faceted filtering
+        .requestMatchers(HttpMethod.GET, "/products/trending", "/products/top-sellers").permitAll() // Public - popularity lists
+        .requestMatchers(HttpMethod.GET, "/products/related", "/products/{productId}/related").permitAll() // Public - frequently bought together
+        .requestMatchers(HttpMethod.GET, "/products/vendor/{id}/views").access(vendorAccess.ownerOrAdmin("id")) // Vendors see only their own view counts
+        .requestMatchers(HttpMethod.POST, "/products/import").hasAnyRole("ADMIN", "VENDOR") // Admin and vendors can bulk import products
+        .requestMatchers(HttpMethod.POST, "/products/{productId}/image").hasAnyRole("ADMIN", "VENDOR") // Admin and vendors can upload product images
+        
+        // Image endpoints
+        .requestMatchers(HttpMethod.GET, "/images/**").permitAll() // Public - static product images
+        .requestMatchers(HttpMethod.POST, "/images").hasAnyRole("ADMIN", "VENDOR") // Admin and vendors can upload images
         .requestMatchers(HttpMethod.POST, "/products/{categoryId}").hasAnyRole("ADMIN", "VENDOR") // Admin and vendors can add products
         .requestMatchers(HttpMethod.PUT, "/products/{productId}").hasAnyRole("ADMIN", "VENDOR") // Admin and vendors can update products
         .requestMatchers(HttpMethod.DELETE, "/products/{productId}").hasAnyRole("ADMIN", "VENDOR") // Admin and vendors can delete products
@@ -0,0 +1,44 @@
+package com.cdac.security;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+import com.cdac.dao.UserDao;
+
+import lombok.AllArgsConstructor;
+
+//vendor scoped endpoints : an admin may read any vendor , a vendor only the id of its own account
+@Component
+@AllArgsConstructor
+public class VendorAccess {
+	private final UserDao userdao;
+
+	public AuthorizationManager<RequestAuthorizationContext> ownerOrAdmin(String pathVariable) {
+		return (authentication, context) -> {
+			Authentication auth = authentication.get();
+			if (auth == null || !auth.isAuthenticated())
+				return new AuthorizationDecision(false);
+			if (hasRole(auth, "ROLE_ADMIN"))
+				return new AuthorizationDecision(true);
+			if (!hasRole(auth, "ROLE_VENDOR"))
+				return new AuthorizationDecision(false);
+			String requested = context.getVariables().get(pathVariable);
+			// the JWT filter sets the email as the principal
+			boolean own = requested != null && userdao.findIdByEmail(auth.getName())
+					.map(id -> id.toString().equals(requested))
+					.orElse(false);
+			return new AuthorizationDecision(own);
+		};
+	}
+
+	private static boolean hasRole(Authentication auth, String role) {
+		for (GrantedAuthority authority : auth.getAuthorities())
+			if (role.equals(authority.getAuthority()))
+				return true;
+		return false;
+	}
+}
@@ -1,7 +1,11 @@
 package com.cdac.service;
 
+import java.util.List;
+
 import com.cdac.dto.ApiResponse;
+import com.cdac.dto.CartOpDto;
 import com.cdac.dto.CartResDto;
+import com.cdac.dto.CartTotalsDto;
 import com.cdac.entities.Cart;
 
 public interface CartService {
@@ -10,4 +14,7 @@ public interface CartService {
     Cart updateCartItem(Long userId, Long productId, int quantity);
     ApiResponse removeFromCart(Long cartItemId, Long productId);
     ApiResponse clearCart(Long userId);
+    Cart applyCartOps(Long userId, List<CartOpDto> ops);
+    CartTotalsDto getCartTotals(Long userId, String couponCode);
+    Cart acceptCurrentPrices(Long userId);
 }
@@ -1,114 +1,175 @@
 package com.cdac.service;
 
-import java.util.Optional;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
+import com.cdac.cart.CartLine;
+import com.cdac.cart.CartPricing;
+import com.cdac.cart.CartSnapshot;
+import com.cdac.cart.CartStore;
+import com.cdac.custom_exception.InvalidInputException;
 import com.cdac.custom_exception.ResourseNotFoundException;
-import com.cdac.dao.CartDao;
-import com.cdac.dao.CartItemDao;
+import com.cdac.dao.CouponDao;
 import com.cdac.dao.ProductDao;
-import com.cdac.dao.UserDao;
 import com.cdac.dto.ApiResponse;
+import com.cdac.dto.CartOpDto;
 import com.cdac.dto.CartResDto;
+import com.cdac.dto.CartTotalsDto;
 import com.cdac.entities.Cart;
 import com.cdac.entities.CartItem;
+import com.cdac.entities.Coupon;
 import com.cdac.entities.Product;
-import com.cdac.entities.User;
 
-import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 
 
-
+//edits go to the in-memory CartStore , it writes them behind - no transaction here
 @Service
-@Transactional
 @AllArgsConstructor
 public class CartServiceimpl implements CartService {
+	private static final int MAX_OPS = 200;
 	
-	private final ModelMapper modalmapper;
-	private final UserDao userdao;
-	private final CartDao cartdao;
-	private final CartItemDao cartitemdao;
+	private final CartStore cartstore;
+	private final CartPricing cartpricing;
+	private final ProductService productservice;
 	private final ProductDao productdao;
+	private final CouponDao coupondao;
 	
 
 	@Override
 	public Cart getCartByUserId(Long userId) {
-		   User user = userdao.findById(userId).orElseThrow(
-				   ()-> new ResourseNotFoundException("invalid user id!!!"));
-		   Cart cart = cartdao.findByUser(user).orElseGet(
-				   ()->cartdao.save(new Cart(user)));
-		return cart;
+		return toCart(cartstore.get(userId));
 	}
 
 	@Override
 	public CartResDto addToCart(Long userId, Long productId, int quantity) {
-		User user = userdao.findById(userId).orElseThrow(
-				   ()-> new ResourseNotFoundException("invalid user id!!!"));
-		Cart cart=getCartByUserId(userId);
-		
-		Product product = productdao.findById(productId).orElseThrow(
-				   ()-> new ResourseNotFoundException("invalid product id!!!"));
-		 CartItem cartItem =null;
-		 Optional<CartItem> optional = cartitemdao.findByCartIdAndProductId(cart.getId(), productId);
-		
+		//cached read , cart item only needs the product reference and its price
+		Product product = productservice.getProductById(productId);
+		CartSnapshot cart = cartstore.update(userId, lines -> lines.merge(productId,
+				new CartLine(productId, quantity, product.getPrice()),
+				(line, added) -> new CartLine(productId, line.quantity() + quantity, product.getPrice())));
 		
-		if(optional.isPresent()) {
-			cartItem=optional.get();
-			cartItem.setQuantity(cartItem.getQuantity() +quantity);
-			}
-		else {
-			cartItem= new CartItem();
-			cartItem.setCart(cart);
-			cartItem.setProduct(product);
-			cartItem.setQuantity(quantity);
-		}
-		cartItem.setPrice(product.getPrice());
-		
-		cartitemdao.save(cartItem);
 		CartResDto dto= new CartResDto();
 		dto.setQuantity(quantity);
 		dto.setProductId(productId);
-		dto.setItems(cart.getItems());
+		dto.setItems(toCart(cart).getItems());
 		return dto;
 	}
 
 	@Override
 	public Cart updateCartItem(Long userId, Long productId, int quantity) {
-		Cart cart=getCartByUserId(userId);
-		CartItem cartItem = cartitemdao.findByCartIdAndProductId(cart.getId(), productId).orElseThrow(
-				   ()-> new ResourseNotFoundException("invalid cart and product  id!!!"));
-		
-         cartItem.setQuantity(quantity);
-         
- 		cartitemdao.save(cartItem);
-
-		return cart;
+		return toCart(cartstore.update(userId, lines -> {
+			CartLine line = lines.get(productId);
+			if (line == null)
+				throw new ResourseNotFoundException("invalid cart and product  id!!!");
+			lines.put(productId, new CartLine(productId, quantity, line.price()));
+		}));
 	}
 
 	@Override
 	public ApiResponse removeFromCart(Long userId, Long productId) {
-		User user = userdao.findById(userId).orElseThrow(
-				   ()-> new ResourseNotFoundException("invalid user id!!!"));
-		
-		Product product = productdao.findById(productId).orElseThrow(
-				   ()-> new ResourseNotFoundException("invalid product id!!!")); 
-		
-		Cart cart=getCartByUserId(userId);
-		if(cart==null) throw new ResourseNotFoundException("cart not found");
-          
-		cartitemdao.deleteByCartIdAndProductId(cart.getId(), productId);
+		//a line of a product since deleted from the catalog can still be removed
+		if (!cartstore.get(userId).lines().containsKey(productId) && !productdao.existsById(productId))
+			throw new ResourseNotFoundException("invalid product id!!!");
+		cartstore.update(userId, lines -> lines.remove(productId));
 		return new ApiResponse("deleted!!");
 	}
 
 	@Override
 	public ApiResponse clearCart(Long userId) {
-		Cart cart=getCartByUserId(userId);
+		cartstore.update(userId, lines -> lines.clear());
+		return new ApiResponse("cart cleared!!!");
+	}
 
-      cartitemdao.deleteByCartId(cart.getId());
-      return new ApiResponse("cart cleared!!!");
+	/*
+	 * all products in one select , every op applied in one store edit (all or nothing) and the
+	 * cart returned once - the write-behind turns the edit into one batched write
+	 */
+	@Override
+	public Cart applyCartOps(Long userId, List<CartOpDto> ops) {
+		if (ops.isEmpty() || ops.size() > MAX_OPS)
+			throw new InvalidInputException("between 1 and " + MAX_OPS + " cart operations allowed!!");
+		Set<Long> ids = new HashSet<>();
+		for (CartOpDto op : ops) {
+			if ((op.getQuantity() == null) == (op.getDelta() == null))
+				throw new InvalidInputException("set either quantity or delta for product " + op.getProductId() + "!!");
+			ids.add(op.getProductId());
+		}
+		Map<Long, Product> products = productdao.findAllById(ids).stream()
+				.collect(Collectors.toMap(Product::getId, Function.identity()));
+		if (products.size() != ids.size())
+			throw new ResourseNotFoundException("invalid product id!!!");
+
+		CartSnapshot cart = cartstore.update(userId, lines -> {
+			for (CartOpDto op : ops) {
+				long productId = op.getProductId();
+				CartLine line = lines.get(productId);
+				int quantity = op.getQuantity() != null ? op.getQuantity()
+						: (line == null ? 0 : line.quantity()) + op.getDelta();
+				if (quantity <= 0)
+					lines.remove(productId);
+				else
+					lines.put(productId, new CartLine(productId, quantity, products.get(productId).getPrice()));
+			}
+		});
+		return toCart(cart, products);
+	}
+
+	//no line is read - subtotal is cached on the snapshot and price drift is tracked by CartPricing
+	@Override
+	public CartTotalsDto getCartTotals(Long userId, String couponCode) {
+		Coupon coupon = null;
+		if (couponCode != null && !couponCode.isBlank())
+			coupon = coupondao.findByCouponCodeIgnoreCase(couponCode.trim()).orElseThrow(
+					()-> new InvalidInputException("invalid code!"));
+		return cartpricing.totals(cartstore.get(userId), coupon);
+	}
+
+	//moves lines with a changed catalog price to the current price
+	@Override
+	public Cart acceptCurrentPrices(Long userId) {
+		CartSnapshot cart = cartstore.get(userId);
+		if (cart.stale().isEmpty())
+			return toCart(cart);
+		Map<Long, Product> products = productdao.findAllById(cart.stale()).stream()
+				.collect(Collectors.toMap(Product::getId, Function.identity()));
+		cart = cartstore.update(userId, lines -> products.values().forEach(product -> lines.computeIfPresent(
+				product.getId(), (id, line) -> new CartLine(id, line.quantity(), product.getPrice()))));
+		return toCart(cart, products);
+	}
+
+	private Cart toCart(CartSnapshot snapshot) {
+		return toCart(snapshot, Map.of());
+	}
+
+	/*
+	 * response keeps the Cart shape the storefront reads . products not already loaded come from
+	 * the product cache , all cache misses in one select - not one per line. lines of products
+	 * deleted since they were added are left out of the response , they stay in the cart
+	 */
+	private Cart toCart(CartSnapshot snapshot, Map<Long, Product> loaded) {
+		Cart cart = new Cart();
+		cart.setId(snapshot.cartId());
+		Map<Long, Product> products = loaded.keySet().containsAll(snapshot.lines().keySet()) ? loaded
+				: productservice.getProductsByIds(snapshot.lines().keySet());
+		for (CartLine line : snapshot.lines().values()) {
+			Product product = products.get(line.productId());
+			if (product == null)
+				continue;
+			CartItem item = new CartItem();
+			item.setCart(cart);
+			item.setProduct(product);
+			item.setQuantity(line.quantity());
+			item.setPrice(line.price());
+			cart.getItems().add(item);
+		}
+		return cart;
 	}
 
 }
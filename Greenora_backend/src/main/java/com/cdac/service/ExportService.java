@@ -0,0 +1,12 @@
+package com.cdac.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.cdac.dto.ExportFormat;
+
+//finance exports , rows are written as they are read - returns the number of rows
+public interface ExportService {
+	long exportOrders(ExportFormat format, boolean gzip, OutputStream out) throws IOException;
+	long exportPayments(ExportFormat format, boolean gzip, OutputStream out) throws IOException;
+}
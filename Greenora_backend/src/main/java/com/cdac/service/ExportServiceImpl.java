@@ -0,0 +1,103 @@
+package com.cdac.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Service;
+
+import com.cdac.dao.OrderDao;
+import com.cdac.dao.PaymentDao;
+import com.cdac.dto.ExportFormat;
+import com.cdac.dto.OrderListItemDto;
+import com.cdac.dto.PaymentExportDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+
+/*
+ * streams DTO rows from a DB cursor straight into the response - heap use does not depend on row count.
+ * the transaction keeps the cursor open for the whole write
+ */
+@Service
+@Transactional
+@AllArgsConstructor
+public class ExportServiceImpl implements ExportService {
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final String[] ORDER_COLUMNS = { "id", "orderDate", "deliveryStatus", "totalAmt", "deliveryDate",
+			"userId", "userName", "userEmail" };
+	private static final String[] PAYMENT_COLUMNS = { "id", "orderId", "method", "status", "transactionId", "amount",
+			"datetime" };
+
+	private final OrderDao orderdao;
+	private final PaymentDao paymentdao;
+	private final ObjectMapper objectMapper;
+
+	@Override
+	public long exportOrders(ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+		try (Stream<OrderListItemDto> rows = orderdao.streamExportRows()) {
+			return write(rows, format, gzip, out, ORDER_COLUMNS,
+					o -> new Object[] { o.getId(), o.getOrderDate(), o.getDeliveryStatus(), o.getTotalAmt(),
+							o.getDeliveryDate(), o.getUserId(), o.getUserName(), o.getUserEmail() });
+		}
+	}
+
+	@Override
+	public long exportPayments(ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+		try (Stream<PaymentExportDto> rows = paymentdao.streamExportRows()) {
+			return write(rows, format, gzip, out, PAYMENT_COLUMNS,
+					p -> new Object[] { p.getId(), p.getOrderId(), p.getMethod(), p.getStatus(), p.getTransactionId(),
+							p.getAmount(), p.getDatetime() });
+		}
+	}
+
+	private <T> long write(Stream<T> rows, ExportFormat format, boolean gzip, OutputStream out, String[] columns,
+			Function<T, Object[]> csvRow) throws IOException {
+		GZIPOutputStream zip = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+		Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? zip : out, StandardCharsets.UTF_8),
+				BUFFER_SIZE);
+		if (format == ExportFormat.CSV)
+			writeCsvLine(writer, columns);
+
+		long count = 0;
+		for (Iterator<T> it = rows.iterator(); it.hasNext();) {
+			T row = it.next();
+			if (format == ExportFormat.CSV) {
+				writeCsvLine(writer, csvRow.apply(row));
+			} else {
+				writer.write(objectMapper.writeValueAsString(row));
+				writer.write('\n');
+			}
+			count++;
+		}
+		// the servlet container owns out , flush + finish but do not close it
+		writer.flush();
+		if (zip != null)
+			zip.finish();
+		return count;
+	}
+
+	private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0)
+				writer.write(',');
+			if (values[i] != null)
+				writer.write(csvEscape(values[i].toString()));
+		}
+		writer.write('\n');
+	}
+
+	private static String csvEscape(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+			return value;
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
@@ -0,0 +1,15 @@
+package com.cdac.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+
+public interface IdempotencyService {
+	String HEADER = "Idempotency-Key";
+
+	/*
+	 * runs action once per (scope , key) - retries get the stored response back.
+	 * a null key just runs the action
+	 */
+	ResponseEntity<?> execute(String key, String scope, Object request, Supplier<ResponseEntity<?>> action);
+}
@@ -0,0 +1,203 @@
+package com.cdac.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.dao.IdempotencyRecordDao;
+import com.cdac.dto.ApiResponse;
+import com.cdac.entities.IdempotencyRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/*
+ * three layers : a caffeine cache of finished responses (cheap retries) ,
+ * a map of in-flight futures (concurrent duplicates on this node wait for the first one)
+ * and the idempotency_record table (survives restarts , guards against other nodes via the unique key)
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+	private static final int MAX_KEY_LENGTH = 100;
+	private static final int WAIT_SECONDS = 30;
+	public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+	private record StoredResponse(int status, String fingerprint, byte[] body) {
+	}
+
+	private final IdempotencyRecordDao recorddao;
+	private final ObjectMapper objectMapper;
+	private final TransactionTemplate tx;
+	private final Duration ttl;
+	private final Duration lease;
+	private final Cache<String, StoredResponse> responses;
+	private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+	public IdempotencyServiceImpl(IdempotencyRecordDao recorddao, ObjectMapper objectMapper,
+			PlatformTransactionManager transactionManager,
+			@Value("${greenora.idempotency.ttl-hours}") long ttlHours,
+			@Value("${greenora.idempotency.cache-size}") long cacheSize,
+			@Value("${greenora.idempotency.lease-seconds}") long leaseSeconds) {
+		this.recorddao = recorddao;
+		this.objectMapper = objectMapper;
+		this.tx = new TransactionTemplate(transactionManager);
+		this.ttl = Duration.ofHours(ttlHours);
+		this.lease = Duration.ofSeconds(leaseSeconds);
+		this.responses = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(ttl).build();
+	}
+
+	@Override
+	public ResponseEntity<?> execute(String key, String scope, Object request, Supplier<ResponseEntity<?>> action) {
+		if (key == null || key.isBlank())
+			return action.get();
+		if (key.length() > MAX_KEY_LENGTH)
+			throw new InvalidInputException("Idempotency-Key too long!!");
+
+		String id = scope + ":" + key;
+		String fingerprint = fingerprint(request);
+
+		StoredResponse hit = responses.getIfPresent(id);
+		if (hit != null)
+			return replay(hit, fingerprint);
+
+		CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+		CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, mine);
+		if (running != null)
+			return awaitDuplicate(running, fingerprint);
+
+		boolean claimed = false;
+		try {
+			Optional<IdempotencyRecord> existing = recorddao.findByIdemKey(id);
+			LocalDateTime now = LocalDateTime.now();
+			if (existing.isPresent() && isStale(existing.get(), now)) {
+				// the key is free again - conditional delete , a concurrent reclaim just loses the insert below
+				tx.executeWithoutResult(s -> recorddao.deleteStale(id, now, now.minus(lease)));
+				existing = Optional.empty();
+			}
+			if (existing.isPresent()) {
+				IdempotencyRecord record = existing.get();
+				if (record.getStatus() == IdempotencyRecord.IN_PROGRESS) {
+					mine.complete(null);
+					return inProgress();
+				}
+				StoredResponse stored = new StoredResponse(record.getStatus(), record.getFingerprint(),
+						record.getBody().getBytes(StandardCharsets.UTF_8));
+				responses.put(id, stored);
+				mine.complete(stored);
+				return replay(stored, fingerprint);
+			}
+
+			try {
+				tx.executeWithoutResult(s -> recorddao.saveAndFlush(
+						new IdempotencyRecord(id, fingerprint, LocalDateTime.now().plus(ttl))));
+			} catch (DataIntegrityViolationException e) {
+				// another node inserted the key first
+				mine.complete(null);
+				return inProgress();
+			}
+			claimed = true;
+
+			ResponseEntity<?> response = action.get();
+			StoredResponse stored = new StoredResponse(response.getStatusCode().value(), fingerprint,
+					toJson(response.getBody()));
+			tx.executeWithoutResult(s -> recorddao.findByIdemKey(id).ifPresent(r -> {
+				r.setStatus(stored.status());
+				r.setBody(new String(stored.body(), StandardCharsets.UTF_8));
+			}));
+			responses.put(id, stored);
+			mine.complete(stored);
+			return response;
+		} catch (RuntimeException e) {
+			// failures are not remembered , the client may retry with the same key
+			if (claimed)
+				tx.executeWithoutResult(s -> recorddao.deleteInProgress(id));
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(id, mine);
+		}
+	}
+
+	/*
+	 * past its ttl , or still IN_PROGRESS after the lease - the node running the first request
+	 * died before it could store the response or release the key
+	 */
+	private boolean isStale(IdempotencyRecord record, LocalDateTime now) {
+		if (record.getExpiresAt().isBefore(now))
+			return true;
+		return record.getStatus() == IdempotencyRecord.IN_PROGRESS && record.getUpdatedOn() != null
+				&& record.getUpdatedOn().isBefore(now.minus(lease));
+	}
+
+	@Scheduled(fixedDelayString = "${greenora.idempotency.cleanup-interval-ms}")
+	public void purgeExpired() {
+		tx.executeWithoutResult(s -> recorddao.deleteExpired(LocalDateTime.now()));
+	}
+
+	private ResponseEntity<?> awaitDuplicate(CompletableFuture<StoredResponse> running, String fingerprint) {
+		try {
+			StoredResponse stored = running.get(WAIT_SECONDS, TimeUnit.SECONDS);
+			return stored == null ? inProgress() : replay(stored, fingerprint);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause)
+				throw cause;
+			throw new IllegalStateException(e.getCause());
+		} catch (TimeoutException e) {
+			return inProgress();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return inProgress();
+		}
+	}
+
+	private static ResponseEntity<?> replay(StoredResponse stored, String fingerprint) {
+		if (!stored.fingerprint().equals(fingerprint))
+			return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+					.body(new ApiResponse("Idempotency-Key was already used for a different request"));
+		return ResponseEntity.status(stored.status()).contentType(MediaType.APPLICATION_JSON)
+				.header(REPLAYED_HEADER, "true").body(new String(stored.body(), StandardCharsets.UTF_8));
+	}
+
+	private static ResponseEntity<?> inProgress() {
+		return ResponseEntity.status(HttpStatus.CONFLICT)
+				.body(new ApiResponse("a request with this Idempotency-Key is still in progress"));
+	}
+
+	private String fingerprint(Object request) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(toJson(request)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private byte[] toJson(Object value) {
+		try {
+			return objectMapper.writeValueAsBytes(value);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package com.cdac.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.cdac.dto.ImageUploadDto;
+
+public interface ImageService {
+	ImageUploadDto store(MultipartFile file) throws IOException;
+	Path resolve(String fileName);
+	String contentType(String fileName);
+}
@@ -0,0 +1,173 @@
+package com.cdac.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.custom_exception.ResourseNotFoundException;
+import com.cdac.dto.ImageUploadDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * content addressed image store : a file is stored once under the SHA-256 of its bytes
+ * ( <dir>/ab/cd/<sha256>.<ext> ) so identical uploads dedupe and a URL never changes content.
+ * thumbnails are rendered on the bounded thumbnailExecutor (see Application)
+ */
+@Service
+@Slf4j
+public class ImageServiceImpl implements ImageService {
+
+	private static final Map<String, String> CONTENT_TYPES = Map.of("jpg", "image/jpeg", "png", "image/png",
+			"gif", "image/gif");
+	private static final Pattern FILE_NAME = Pattern.compile("^[0-9a-f]{64}(_thumb)?\\.(jpg|png|gif)$");
+	public static final String URL_PREFIX = "/images/";
+
+	private final Path root;
+	private final int thumbnailWidth;
+	private final TaskExecutor thumbnailExecutor;
+
+	public ImageServiceImpl(@Value("${greenora.images.dir}") String dir,
+			@Value("${greenora.images.thumbnail-width}") int thumbnailWidth,
+			@Qualifier("thumbnailExecutor") TaskExecutor thumbnailExecutor) throws IOException {
+		this.root = Paths.get(dir).toAbsolutePath().normalize();
+		this.thumbnailWidth = thumbnailWidth;
+		this.thumbnailExecutor = thumbnailExecutor;
+		Files.createDirectories(root);
+	}
+
+	@Override
+	public ImageUploadDto store(MultipartFile file) throws IOException {
+		if (file.isEmpty())
+			throw new InvalidInputException("empty file!!");
+
+		// hash while streaming to a temp file , then move into place under the hash
+		Path tmp = Files.createTempFile(root, "upload", ".tmp");
+		String hash;
+		String ext;
+		try (DigestInputStream in = new DigestInputStream(file.getInputStream(), sha256())) {
+			Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+			hash = HexFormat.of().formatHex(in.getMessageDigest().digest());
+			ext = sniffExtension(tmp);
+		} catch (IOException e) {
+			Files.deleteIfExists(tmp);
+			throw e;
+		}
+		if (ext == null) {
+			Files.delete(tmp);
+			throw new InvalidInputException("only jpeg , png or gif images are allowed!!");
+		}
+		String fileName = hash + "." + ext;
+		Path target = pathOf(fileName);
+		if (Files.exists(target)) {
+			Files.delete(tmp);
+		} else {
+			Files.createDirectories(target.getParent());
+			Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+		}
+
+		String thumbName = hash + "_thumb." + thumbnailExtension(ext);
+		if (!Files.exists(pathOf(thumbName)))
+			thumbnailExecutor.execute(() -> renderThumbnail(target, pathOf(thumbName)));
+
+		return new ImageUploadDto(hash, CONTENT_TYPES.get(ext), Files.size(target), URL_PREFIX + fileName,
+				URL_PREFIX + thumbName);
+	}
+
+	@Override
+	public Path resolve(String fileName) {
+		if (!FILE_NAME.matcher(fileName).matches())
+			throw new ResourseNotFoundException("image not found!!");
+		Path path = pathOf(fileName);
+		if (!Files.isRegularFile(path))
+			throw new ResourseNotFoundException("image not found!!");
+		return path;
+	}
+
+	@Override
+	public String contentType(String fileName) {
+		return CONTENT_TYPES.get(fileName.substring(fileName.lastIndexOf('.') + 1));
+	}
+
+	private Path pathOf(String fileName) {
+		return root.resolve(fileName.substring(0, 2)).resolve(fileName.substring(2, 4)).resolve(fileName);
+	}
+
+	// type comes from the magic bytes , not from the client supplied content type
+	private static String sniffExtension(Path file) throws IOException {
+		byte[] head = new byte[4];
+		int n;
+		try (InputStream in = Files.newInputStream(file)) {
+			n = in.readNBytes(head, 0, head.length);
+		}
+		if (n >= 3 && (head[0] & 0xff) == 0xFF && (head[1] & 0xff) == 0xD8 && (head[2] & 0xff) == 0xFF)
+			return "jpg";
+		if (n == 4 && (head[0] & 0xff) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G')
+			return "png";
+		if (n == 4 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8')
+			return "gif";
+		return null;
+	}
+
+	// gif thumbnails are written as png , ImageIO has no animated gif writer
+	private static String thumbnailExtension(String ext) {
+		return "gif".equals(ext) ? "png" : ext;
+	}
+
+	private void renderThumbnail(Path source, Path target) {
+		try {
+			BufferedImage image = ImageIO.read(source.toFile());
+			if (image == null) {
+				log.warn("can not decode image {}", source);
+				return;
+			}
+			int width = Math.min(thumbnailWidth, image.getWidth());
+			int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+			String ext = target.getFileName().toString().endsWith(".jpg") ? "jpg" : "png";
+			BufferedImage thumb = new BufferedImage(width, height,
+					"jpg".equals(ext) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = thumb.createGraphics();
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(image, 0, 0, width, height, null);
+			g.dispose();
+
+			Path tmp = Files.createTempFile(root, "thumb", ".tmp");
+			try (OutputStream out = Files.newOutputStream(tmp)) {
+				ImageIO.write(thumb, ext, out);
+			}
+			Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException | RuntimeException e) {
+			log.warn("thumbnail failed for {}", source, e);
+		}
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
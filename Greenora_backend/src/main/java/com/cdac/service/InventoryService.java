@@ -0,0 +1,7 @@
+package com.cdac.service;
+
+import java.util.Map;
+
+public interface InventoryService {
+	void reserve(Map<Long, Integer> quantitiesByProduct);
+}
@@ -0,0 +1,54 @@
+package com.cdac.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.dao.ProductDao;
+import com.cdac.entities.Product;
+import com.cdac.events.ProductChangedEvent;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+
+/*
+ * reserves stock with one conditional UPDATE per product instead of read - modify - save ,
+ * a failed line throws and rolls the caller's transaction (and every earlier decrement) back
+ */
+@Service
+@Transactional
+@AllArgsConstructor
+public class InventoryServiceImpl implements InventoryService {
+
+	private final ProductDao productdao;
+	private final EntityManager entityManager;
+	private final ApplicationEventPublisher publisher;
+
+	@Override
+	public void reserve(Map<Long, Integer> quantitiesByProduct) {
+		// ascending id order so two carts sharing products lock rows in the same order (no deadlock)
+		Map<Long, Integer> lines = new TreeMap<>(quantitiesByProduct);
+		for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+			if (line.getValue() <= 0)
+				throw new InvalidInputException("invalid quantity for product " + line.getKey() + "!!");
+			if (productdao.reserveStock(line.getKey(), line.getValue()) == 0)
+				throw new InvalidInputException("insufficient stock for product " + line.getKey() + "!!");
+		}
+
+		List<Long> soldOut = productdao.findSoldOutIds(lines.keySet());
+		if (soldOut.isEmpty())
+			return;
+		productdao.markOutOfStock(soldOut);
+		// bulk updates bypass the persistence context , reload so the index listeners see the new state
+		for (Long id : soldOut) {
+			Product product = entityManager.find(Product.class, id);
+			entityManager.refresh(product);
+			publisher.publishEvent(new ProductChangedEvent(product, false));
+		}
+	}
+}
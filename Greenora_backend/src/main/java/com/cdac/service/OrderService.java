@@ -3,7 +3,11 @@ package com.cdac.service;
 import java.util.List;
 
 import com.cdac.dto.ApiResponse;
+import com.cdac.dto.GatewayOrderDto;
+import com.cdac.dto.KeysetPageDto;
+import com.cdac.dto.OrderListItemDto;
 import com.cdac.dto.OrderResDto;
+import com.cdac.dto.OrderSearchDto;
 import com.cdac.dto.OrderSummaryDto;
 import com.cdac.dto.PaymentResDto;
 import com.cdac.entities.Order;
@@ -13,6 +17,8 @@ public interface OrderService {
     List<OrderResDto> getOrdersByUser(Long userId);
     OrderSummaryDto getOrderById(Long orderId);
     List<Order> getAlllOrders();
+    KeysetPageDto<OrderListItemDto> searchOrders(OrderSearchDto query);
     ApiResponse orderUpdate(Long Id,String deliverStatus);
+    GatewayOrderDto getGatewayOrder(Long orderId);
     
 }
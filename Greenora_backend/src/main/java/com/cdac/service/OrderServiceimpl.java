@@ -1,40 +1,49 @@
 package com.cdac.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.json.JSONObject;
 import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.cdac.cart.CartLine;
+import com.cdac.cart.CartPricing;
+import com.cdac.cart.CartSnapshot;
+import com.cdac.cart.CartStore;
+import com.cdac.custom_exception.InvalidInputException;
 import com.cdac.custom_exception.ResourseNotFoundException;
-import com.cdac.dao.CartDao;
 import com.cdac.dao.CartItemDao;
 import com.cdac.dao.CouponDao;
 import com.cdac.dao.OrderDao;
 import com.cdac.dao.OrderItemDao;
-import com.cdac.dao.PaymentDao;
+import com.cdac.dao.PaymentOutboxDao;
 import com.cdac.dao.ProductDao;
 import com.cdac.dao.UserDao;
 import com.cdac.dto.ApiResponse;
+import com.cdac.dto.CartTotalsDto;
+import com.cdac.dto.GatewayOrderDto;
+import com.cdac.dto.KeysetPageDto;
+import com.cdac.dto.OrderListItemDto;
 import com.cdac.dto.OrderResDto;
+import com.cdac.dto.OrderSearchDto;
 import com.cdac.dto.OrderSummaryDto;
 import com.cdac.dto.PaymentResDto;
-import com.cdac.entities.Cart;
-import com.cdac.entities.CartItem;
 import com.cdac.entities.Coupon;
 import com.cdac.entities.DeliveryStatus;
 import com.cdac.entities.Order;
 import com.cdac.entities.OrderItem;
-import com.cdac.entities.Payment;
-import com.cdac.entities.PaymentMethod;
-import com.cdac.entities.PaymentStatus;
-import com.cdac.entities.Product;
+import com.cdac.entities.PaymentOutbox;
 import com.cdac.entities.User;
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
+import com.cdac.events.CartCheckedOutEvent;
+import com.cdac.events.OrderPlacedEvent;
+import com.cdac.events.OrderStatusChangedEvent;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -44,91 +53,75 @@ import lombok.RequiredArgsConstructor;
 @Transactional
 @RequiredArgsConstructor
 public class OrderServiceimpl implements OrderService {
+	private static final String CURRENCY = "INR";
+	private static final int DEFAULT_PAGE_SIZE = 20;
+	private static final int MAX_PAGE_SIZE = 100;
     
 	private final ModelMapper modalmapper;
 	private final OrderDao orderdao;
 	private final OrderItemDao orderItemdao;
 	private final UserDao userdao;
-	private final CartDao cartdao;
+	private final CartStore cartstore;
+	private final CartPricing cartpricing;
 	private final CartItemDao cartitemdao;
 	private final ProductDao productdao;
 	private final  CouponDao coupondao;
-	private  final PaymentDao paymentdao;
-	
-	@Value("${razorpay.key_id}")
-	private String razorpayKeyId;
-	
-	@Value("${razorpay.key_secret}")
-	private String razorpayKeySecret;
+	private final PaymentOutboxDao outboxdao;
+	private final ApplicationEventPublisher publisher;
+	private final InventoryService inventoryservice;
 	
 	@Override
 	public PaymentResDto placeOrder(Long userId, Long addressId, Long couponId) {
 		User user = userdao.findById(userId).orElseThrow(
 				   ()-> new ResourseNotFoundException("invalid user id!!!"));
-		   Cart cart = cartdao.findByUser(user).orElseGet(
-				   ()->cartdao.save(new Cart(user)));
-		   
-		   List<CartItem> list = cartitemdao.findByCartId(cart.getId());
-		     if(list.isEmpty()) throw new ResourseNotFoundException("cart is empty");
-		     
-		     System.out.println(list.toString());
+		   //consistent snapshot of the cart , includes edits not yet written behind
+		   CartSnapshot cart = cartstore.get(userId);
+		     if(cart.isEmpty()) throw new ResourseNotFoundException("cart is empty");
+		     if(!cart.stale().isEmpty())
+		    	 throw new InvalidInputException("prices changed for products " + cart.stale() + " , review the cart!!");
 		     
-		     double total = list.stream()
-		                .mapToDouble(item -> item.getQuantity() * item.getPrice())
-		                .sum();
+		     //reserve stock first - throws (and rolls back) when any line can not be filled
+		     Map<Long, Integer> quantities = new HashMap<>();
+		     for(CartLine line : cart.lines().values())
+		    	 quantities.merge(line.productId(), line.quantity(), Integer::sum);
+		     inventoryservice.reserve(quantities);
 		     
+		     //subtotal is cached on the snapshot , a coupon that does not apply is ignored
+		     Coupon coupon = null;
 		     if (couponId != null) {
-		            Coupon coupon = coupondao.findById(couponId)
+		            coupon = coupondao.findById(couponId)
 		                    .orElseThrow(() -> new ResourseNotFoundException("Invalid coupon"));
-		            if (total >= coupon.getMinOrderAmt() && coupon.isActive()) {
-		                total -= coupon.getDiscountValue();
-		            }
 		        }
+		     CartTotalsDto totals = cartpricing.totals(cart, coupon);
 		   
-		     Order order= new Order(total,LocalDate.now(),DeliveryStatus.PROCESSING, user);
+		     Order order= new Order(totals.getTotalPaise() / 100.0,LocalDate.now(),DeliveryStatus.PROCESSING, user);
 		     Order order2 = orderdao.save(order);
-		     com.razorpay.Order razorpayOrder=null;
-		     try {
-		    	 // Create Razorpay order for test
-		    	 RazorpayClient razorpayClient = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-		    	 
-		    	 JSONObject orderRequest = new JSONObject();
-		    	 orderRequest.put("amount", (int)(total * 100)); // Amount in paise
-		    	 orderRequest.put("currency", "INR");
-		    	 orderRequest.put("receipt", "order_" + order2.getId());
-		    	 
-		    	 razorpayOrder= razorpayClient.orders.create(orderRequest);
-		    	 
-		    	 // Create Payment record
-		    	 Payment payment = new Payment();
-		    	 payment.setOrderId(order2); // Set order relationship
-		    	 payment.setMethod(PaymentMethod.CREDIT_CARD); // Test payment method
-		    	 payment.setStatus(PaymentStatus.COMPLETED); // Initial status
-		    	 payment.setTransactionId(razorpayOrder.get("id")); // Razorpay order ID
-		    	 payment.setAmount(total);
-		    	 payment.setDatetime(LocalDateTime.now());
-		    	 
-		    	 paymentdao.save(payment);
-		    	 
-		    	 System.out.println("Razorpay Order Created: " + razorpayOrder.get("id"));
-		    	 
-		     } catch (RazorpayException e) {
-		    	 System.out.println("Razorpay error (test mode): " + e.getMessage());
-		    	 // Continue with order creation even if Razorpay fails in test mode
-		     }
+		     // gateway order is created by PaymentOutboxDispatcher after commit , no HTTPS call while holding the connection
+		     outboxdao.save(new PaymentOutbox(order2.getId(), totals.getTotalPaise(), CURRENCY));
 		     
 		     
-		     for(CartItem item :  list) {
-		    	 orderItemdao.save(new OrderItem(item.getQuantity(), 
-		    			 item.getPrice(),item.getProduct(), order2));
-		    	Product product = item.getProduct();
-		    	product.setQuantity(product.getQuantity()-item.getQuantity());
-		    	productdao.save(product);
+		     //pooled ids => the item inserts go out as JDBC batches at flush
+		     List<OrderItem> orderItems = new ArrayList<>();
+		     for(CartLine line : cart.lines().values()) {
+		    	 orderItems.add(new OrderItem(line.quantity(), 
+		    			 line.price(),productdao.getReferenceById(line.productId()), order2));
 		     }
+		     orderItems = orderItemdao.saveAll(orderItems);
 		     
-		     cartitemdao.deleteAll(list);
+		     if(cart.cartId() != null) cartitemdao.deleteByCartId(cart.cartId());
+		     publisher.publishEvent(new CartCheckedOutEvent(userId, cart));
+		     publisher.publishEvent(new OrderPlacedEvent(order2, orderItems));
 		     
-		return new PaymentResDto(razorpayOrder.get("id"),order2.getTotalAmt(),"INR",order2.getId());
+		//razorpayOrderId is filled in asynchronously , poll getGatewayOrder
+		return new PaymentResDto(null,order2.getTotalAmt(),CURRENCY,order2.getId());
+	}
+
+	@Override
+	public GatewayOrderDto getGatewayOrder(Long orderId) {
+		PaymentOutbox row = outboxdao.findByOrderId(orderId).orElseThrow(
+				   ()-> new ResourseNotFoundException("invalid order id!!!"));
+		return new GatewayOrderDto(orderId, row.getStatus(), row.getGatewayOrderId(),
+				row.getAmountPaise() / 100.0, row.getCurrency());
 	}
 
 	@Override
@@ -153,11 +146,44 @@ public class OrderServiceimpl implements OrderService {
 		return orderdao.findAll();
 	}
 
+	@Override
+	public KeysetPageDto<OrderListItemDto> searchOrders(OrderSearchDto query) {
+		int size = query.getSize() <= 0 ? DEFAULT_PAGE_SIZE : Math.min(query.getSize(), MAX_PAGE_SIZE);
+		if (query.getFrom() != null && query.getTo() != null && query.getFrom().isAfter(query.getTo()))
+			throw new InvalidInputException("from date is after to date!!");
+		
+		LocalDate afterDate = null;
+		Long afterId = null;
+		if (query.getToken() != null && !query.getToken().isBlank()) {
+			try {
+				String[] cursor = new String(Base64.getUrlDecoder().decode(query.getToken()), StandardCharsets.UTF_8).split(":");
+				afterDate = LocalDate.parse(cursor[0]);
+				afterId = Long.parseLong(cursor[1]);
+			} catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+				throw new InvalidInputException("invalid page token!!");
+			}
+		}
+		
+		//one extra row tells if there is a next page
+		List<OrderListItemDto> list = orderdao.searchOrders(query, afterDate, afterId, size + 1);
+		boolean hasMore = list.size() > size;
+		if (hasMore) list = list.subList(0, size);
+		String next = null;
+		if (hasMore) {
+			OrderListItemDto last = list.get(list.size() - 1);
+			next = Base64.getUrlEncoder().withoutPadding().encodeToString(
+					(last.getOrderDate() + ":" + last.getId()).getBytes(StandardCharsets.UTF_8));
+		}
+		return new KeysetPageDto<>(list, next, hasMore);
+	}
+
 	@Override
 	public ApiResponse orderUpdate(Long Id, String deliverStatus) {
 		Order order = orderdao.findById(Id).orElseThrow(
 				   ()-> new ResourseNotFoundException("invalid order id!!!"));
+		DeliveryStatus previous = order.getDeliveryStatus();
 		order.setDeliveryStatus(DeliveryStatus.valueOf(deliverStatus));
+		publisher.publishEvent(new OrderStatusChangedEvent(Id, previous, order.getDeliveryStatus()));
 		return new ApiResponse("status updated!!!");
 		
 	}
@@ -0,0 +1,21 @@
+package com.cdac.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cdac.events.OrderPlacedEvent;
+
+import lombok.AllArgsConstructor;
+
+//feeds committed orders into the top seller / trending counters
+@Component
+@AllArgsConstructor
+public class ProductAnalyticsListener {
+	private final ProductAnalyticsService analyticsservice;
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onOrderPlaced(OrderPlacedEvent event) {
+		analyticsservice.recordOrder(event.getOrder().getId(), event.getItems());
+	}
+}
@@ -0,0 +1,19 @@
+package com.cdac.service;
+
+import java.util.List;
+
+import com.cdac.dto.ProductViewsDto;
+import com.cdac.dto.RankedProductDto;
+import com.cdac.entities.OrderItem;
+
+public interface ProductAnalyticsService {
+	void recordView(Long productId);
+	void recordOrder(Long orderId, List<OrderItem> items);
+	List<RankedProductDto> getTrending(int limit);
+	// window like 1h , 24h , 7d
+	List<RankedProductDto> getTopSellers(String window, int limit);
+	List<ProductViewsDto> getVendorViews(Long vendorId);
+	// frequently bought together with any of the given products
+	List<RankedProductDto> getRelated(List<Long> productIds, int limit);
+	int rebuildRelated();
+}
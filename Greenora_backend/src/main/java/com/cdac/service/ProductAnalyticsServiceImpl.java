@@ -0,0 +1,262 @@
+package com.cdac.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.analytics.CoOccurrenceMatrix;
+import com.cdac.analytics.HeavyHitters;
+import com.cdac.analytics.ProductViewCounter;
+import com.cdac.analytics.RelatedProductsIndex;
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.dao.OrderItemDao;
+import com.cdac.dao.ProductDao;
+import com.cdac.dao.ProductViewCountDao;
+import com.cdac.dto.ProductSummaryDto;
+import com.cdac.dto.ProductViewsDto;
+import com.cdac.dto.RankedProductDto;
+import com.cdac.entities.OrderItem;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * popularity lists served from memory .
+ * sales : units sold , hourly buckets over 7 days - top sellers for any window up to that.
+ * activity : views (batched by the view flush) + weighted purchases , short buckets over the trending window.
+ * both are snapshotted to disk so a restart does not empty the lists.
+ * related : products bought in the same orders , rebuilt from order_item on start up.
+ */
+@Service
+@Slf4j
+public class ProductAnalyticsServiceImpl implements ProductAnalyticsService {
+	private static final int MAX_LIMIT = 50;
+	private static final int SALES_BUCKETS = 7 * 24;
+	private static final Pattern WINDOW = Pattern.compile("(\\d{1,3})([hd])");
+	private static final int SNAPSHOT_VERSION = 1;
+
+	private final ProductDao productdao;
+	private final ProductViewCountDao viewdao;
+	private final ProductViewCounter viewCounter;
+	private final OrderItemDao orderItemdao;
+	private final RelatedProductsIndex relatedIndex;
+	private final TransactionTemplate readTx;
+	private final HeavyHitters sales;
+	private final HeavyHitters activity;
+	private final int purchaseWeight;
+	private final Path snapshotFile;
+
+	public ProductAnalyticsServiceImpl(ProductDao productdao, ProductViewCountDao viewdao, ProductViewCounter viewCounter,
+			OrderItemDao orderItemdao, RelatedProductsIndex relatedIndex, PlatformTransactionManager transactionManager,
+			@Value("${greenora.analytics.sketch-width}") int width,
+			@Value("${greenora.analytics.candidates}") int candidates,
+			@Value("${greenora.analytics.trending-hours}") int trendingHours,
+			@Value("${greenora.analytics.purchase-weight}") int purchaseWeight,
+			@Value("${greenora.analytics.snapshot-dir}") String snapshotDir) {
+		this.productdao = productdao;
+		this.viewdao = viewdao;
+		this.viewCounter = viewCounter;
+		this.orderItemdao = orderItemdao;
+		this.relatedIndex = relatedIndex;
+		this.readTx = new TransactionTemplate(transactionManager);
+		this.readTx.setReadOnly(true);
+		this.sales = new HeavyHitters(TimeUnit.HOURS.toMillis(1), SALES_BUCKETS, width, candidates);
+		// 15 minute buckets so old activity drops out of trending smoothly
+		this.activity = new HeavyHitters(TimeUnit.MINUTES.toMillis(15), trendingHours * 4, width, candidates);
+		this.purchaseWeight = purchaseWeight;
+		// views reach trending in one batch per view flush , a view itself is just a counter increment
+		viewCounter.onFlush((productId, views) -> activity.add(productId, views, System.currentTimeMillis()));
+		this.snapshotFile = Path.of(snapshotDir, "heavy-hitters.bin");
+	}
+
+	@Override
+	public void recordView(Long productId) {
+		viewCounter.record(productId);
+	}
+
+	@Override
+	public void recordOrder(Long orderId, List<OrderItem> items) {
+		long now = System.currentTimeMillis();
+		long[] basket = new long[items.size()];
+		int size = 0;
+		for (OrderItem item : items) {
+			long id = item.getProduct().getId();
+			sales.add(id, item.getQuantity(), now);
+			activity.add(id, (long) item.getQuantity() * purchaseWeight, now);
+			basket[size++] = id;
+		}
+		relatedIndex.add(orderId, basket(basket, size));
+	}
+
+	@Override
+	public List<RankedProductDto> getRelated(List<Long> productIds, int limit) {
+		if (productIds == null || productIds.isEmpty())
+			return List.of();
+		long[] ids = productIds.stream().mapToLong(Long::longValue).toArray();
+		return ranked(relatedIndex.related(ids, clamp(limit)), CoOccurrenceMatrix.Neighbour::id,
+				CoOccurrenceMatrix.Neighbour::count);
+	}
+
+	//off the startup thread , related lists stay empty / incremental until it is done
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildRelatedOnStartup() {
+		Thread thread = new Thread(() -> {
+			try {
+				rebuildRelated();
+			} catch (RuntimeException e) {
+				log.warn("related products rebuild on start up failed", e);
+			}
+		}, "related-rebuild");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	//streams every order line once , baskets are counted chunk by chunk on the fork/join pool
+	@Override
+	@Scheduled(cron = "${greenora.related.rebuild-cron}")
+	public synchronized int rebuildRelated() {
+		long start = System.currentTimeMillis();
+		RelatedProductsIndex.Rebuild rebuild = relatedIndex.beginRebuild();
+		readTx.executeWithoutResult(s -> {
+			long[] buffer = new long[RelatedProductsIndex.MAX_BASKET];
+			long current = Long.MIN_VALUE;
+			int size = 0;
+			try (Stream<Object[]> lines = orderItemdao.streamOrderLines()) {
+				for (Object[] line : (Iterable<Object[]>) lines::iterator) {
+					long orderId = (Long) line[0];
+					if (orderId != current) {
+						if (size > 0)
+							rebuild.add(current, basket(buffer, size));
+						current = orderId;
+						size = 0;
+					}
+					if (size < buffer.length)
+						buffer[size++] = (Long) line[1];
+				}
+			}
+			if (size > 0)
+				rebuild.add(current, basket(buffer, size));
+		});
+		rebuild.finish();
+		log.info("related products rebuilt from {} orders in {} ms , {} products", rebuild.orders(),
+				System.currentTimeMillis() - start, relatedIndex.size());
+		return rebuild.orders();
+	}
+
+	//sorted distinct copy , capped at MAX_BASKET
+	private static long[] basket(long[] ids, int size) {
+		long[] sorted = Arrays.copyOf(ids, Math.min(size, RelatedProductsIndex.MAX_BASKET));
+		Arrays.sort(sorted);
+		int distinct = 0;
+		for (int i = 0; i < sorted.length; i++)
+			if (i == 0 || sorted[i] != sorted[i - 1])
+				sorted[distinct++] = sorted[i];
+		return Arrays.copyOf(sorted, distinct);
+	}
+
+	@Override
+	public List<RankedProductDto> getTrending(int limit) {
+		return ranked(activity.top(clamp(limit), activity.buckets(), System.currentTimeMillis()), HeavyHitters.Hit::id,
+				HeavyHitters.Hit::count);
+	}
+
+	@Override
+	public List<RankedProductDto> getTopSellers(String window, int limit) {
+		return ranked(sales.top(clamp(limit), windowHours(window), System.currentTimeMillis()), HeavyHitters.Hit::id,
+				HeavyHitters.Hit::count);
+	}
+
+	//flushed count plus what this node has not written yet
+	@Override
+	public List<ProductViewsDto> getVendorViews(Long vendorId) {
+		List<ProductViewsDto> list = viewdao.findVendorViews(vendorId);
+		for (ProductViewsDto dto : list)
+			dto.setViews(dto.getViews() + viewCounter.pending(dto.getProductId()));
+		return list;
+	}
+
+	// one select for at most MAX_LIMIT summaries , inactive / deleted products are dropped
+	private <T> List<RankedProductDto> ranked(List<T> hits, ToLongFunction<T> id, ToLongFunction<T> score) {
+		if (hits.isEmpty())
+			return List.of();
+		Map<Long, ProductSummaryDto> byId = productdao
+				.findSummariesByIdIn(hits.stream().map(h -> id.applyAsLong(h)).toList()).stream()
+				.collect(Collectors.toMap(ProductSummaryDto::getId, p -> p));
+		return hits.stream().map(h -> {
+			ProductSummaryDto p = byId.get(id.applyAsLong(h));
+			return p == null || !p.isActive() ? null : new RankedProductDto(p, score.applyAsLong(h));
+		}).filter(Objects::nonNull).toList();
+	}
+
+	private static int clamp(int limit) {
+		return limit <= 0 ? 10 : Math.min(limit, MAX_LIMIT);
+	}
+
+	private static int windowHours(String window) {
+		Matcher m = WINDOW.matcher(window == null ? "" : window.trim().toLowerCase());
+		if (!m.matches())
+			throw new InvalidInputException("window must look like 6h or 7d!!");
+		int hours = Integer.parseInt(m.group(1)) * ("d".equals(m.group(2)) ? 24 : 1);
+		if (hours < 1 || hours > SALES_BUCKETS)
+			throw new InvalidInputException("window must be between 1h and 7d!!");
+		return hours;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void restore() {
+		if (!Files.exists(snapshotFile))
+			return;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+			if (in.readInt() != SNAPSHOT_VERSION || !sales.read(in) || !activity.read(in)) {
+				log.warn("ignoring heavy hitter snapshot with a different layout");
+				return;
+			}
+			log.info("restored heavy hitter snapshot {}", snapshotFile);
+		} catch (IOException e) {
+			log.warn("could not restore heavy hitter snapshot", e);
+		}
+	}
+
+	//write to a temp file then move , a crash mid write keeps the previous snapshot
+	@Scheduled(fixedDelayString = "${greenora.analytics.snapshot-interval-ms}",
+			initialDelayString = "${greenora.analytics.snapshot-interval-ms}")
+	@PreDestroy
+	public void snapshot() {
+		try {
+			Files.createDirectories(snapshotFile.getParent());
+			Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+			long now = System.currentTimeMillis();
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				out.writeInt(SNAPSHOT_VERSION);
+				sales.write(out, now);
+				activity.write(out, now);
+			}
+			Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.warn("could not write heavy hitter snapshot", e);
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.cdac.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cdac.entities.OrderItem;
+import com.cdac.events.OrderPlacedEvent;
+import com.cdac.events.ProductChangedEvent;
+
+import lombok.AllArgsConstructor;
+
+/*
+ * evicts cached products only after the writing transaction committed ,
+ * so a concurrent read can not re-populate the cache with the old row
+ */
+@Component
+@AllArgsConstructor
+public class ProductCacheListener {
+	public static final String PRODUCTS_CACHE = "products";
+	public static final String PRODUCT_JSON_CACHE = "productJson";
+
+	private final CacheManager cacheManager;
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onProductChanged(ProductChangedEvent event) {
+		evict(event.getProduct().getId());
+	}
+
+	//placeOrder decrements stock of every ordered product
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onOrderPlaced(OrderPlacedEvent event) {
+		for (OrderItem item : event.getItems())
+			evict(item.getProduct().getId());
+	}
+
+	private void evict(Long productId) {
+		if (productId == null)
+			return;
+		for (String name : new String[] { PRODUCTS_CACHE, PRODUCT_JSON_CACHE }) {
+			Cache cache = cacheManager.getCache(name);
+			if (cache != null)
+				cache.evict(productId);
+		}
+	}
+}
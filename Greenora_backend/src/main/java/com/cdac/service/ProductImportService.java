@@ -0,0 +1,11 @@
+package com.cdac.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.cdac.dto.ImportReportDto;
+
+public interface ProductImportService {
+	ImportReportDto importCsv(InputStream in) throws IOException;
+	ImportReportDto importJsonLines(InputStream in) throws IOException;
+}
@@ -0,0 +1,302 @@
+package com.cdac.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.dao.CategoryDao;
+import com.cdac.dao.ProductDao;
+import com.cdac.dao.UserDao;
+import com.cdac.dto.ImportReportDto;
+import com.cdac.dto.ProductDto;
+import com.cdac.entities.PooledBaseEntity;
+import com.cdac.entities.Product;
+import com.cdac.entities.StockStatus;
+import com.cdac.events.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+
+/*
+ * bulk product import - reads the request body line by line , never the whole file .
+ * valid rows are buffered up to one JDBC batch and inserted in a short transaction of their own ,
+ * invalid rows are reported with their line number and skipped
+ */
+@Service
+@AllArgsConstructor
+public class ProductImportServiceImpl implements ProductImportService {
+
+	static final int BATCH_SIZE = PooledBaseEntity.ALLOCATION_SIZE;
+	static final int MAX_REPORTED_ERRORS = 1000;
+	// product table column lengths
+	static final int MAX_NAME_LENGTH = 30;
+	static final int MAX_DESCRIPTION_LENGTH = 250;
+
+	private final ProductDao productdao;
+	private final CategoryDao categorydao;
+	private final UserDao userdao;
+	private final Validator validator;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher publisher;
+	private final ObjectMapper objectMapper;
+
+	@Override
+	public ImportReportDto importCsv(InputStream in) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		String header = reader.readLine();
+		if (header == null)
+			throw new InvalidInputException("empty file!!");
+		Map<String, Integer> columns = new HashMap<>();
+		List<String> names = splitCsv(header);
+		for (int i = 0; i < names.size(); i++)
+			columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+
+		ImportSession session = new ImportSession();
+		String line;
+		long lineNo = 1;
+		while ((line = reader.readLine()) != null) {
+			lineNo++;
+			if (line.isBlank())
+				continue;
+			try {
+				session.accept(lineNo, toDto(splitCsv(line), columns));
+			} catch (IllegalArgumentException e) {
+				session.reject(lineNo, e.getMessage());
+			}
+		}
+		return session.finish();
+	}
+
+	@Override
+	public ImportReportDto importJsonLines(InputStream in) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		ImportSession session = new ImportSession();
+		String line;
+		long lineNo = 0;
+		while ((line = reader.readLine()) != null) {
+			lineNo++;
+			if (line.isBlank())
+				continue;
+			try {
+				ProductDto dto = objectMapper.readValue(line, ProductDto.class);
+				// a json null literal reads as no object at all
+				if (dto == null)
+					session.reject(lineNo, "expected a json object");
+				else
+					session.accept(lineNo, dto);
+			} catch (JsonProcessingException e) {
+				session.reject(lineNo, "malformed json : " + e.getOriginalMessage());
+			}
+		}
+		return session.finish();
+	}
+
+	private class ImportSession {
+		private record Row(long lineNo, Product product, Long categoryId, Long vendorId) {
+		}
+
+		private final ImportReportDto report = new ImportReportDto();
+		private final List<Row> pending = new ArrayList<>(BATCH_SIZE);
+		// lower cased names already present per category - file rows are added as they are accepted
+		private final Map<Long, Set<String>> namesByCategory = new HashMap<>();
+		private final Map<Long, Boolean> categoryExists = new HashMap<>();
+		private final Map<Long, Boolean> vendorExists = new HashMap<>();
+
+		void accept(long lineNo, ProductDto dto) {
+			Set<ConstraintViolation<ProductDto>> violations = validator.validate(dto);
+			if (!violations.isEmpty()) {
+				reject(lineNo, violations.stream().map(ConstraintViolation::getMessage).sorted()
+						.collect(Collectors.joining(", ")));
+				return;
+			}
+			if (dto.getName().length() > MAX_NAME_LENGTH) {
+				reject(lineNo, "name must not exceed " + MAX_NAME_LENGTH + " characters");
+				return;
+			}
+			if (dto.getDescription() != null && dto.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+				reject(lineNo, "description must not exceed " + MAX_DESCRIPTION_LENGTH + " characters");
+				return;
+			}
+			Long categoryId = dto.getCategoryId();
+			if (categoryId == null || !categoryExists.computeIfAbsent(categoryId, categorydao::existsById)) {
+				reject(lineNo, "invalid category id " + categoryId);
+				return;
+			}
+			if (!vendorExists.computeIfAbsent(dto.getVendorId(), userdao::existsById)) {
+				reject(lineNo, "wrong vendor id " + dto.getVendorId());
+				return;
+			}
+			Set<String> names = namesByCategory.computeIfAbsent(categoryId,
+					id -> productdao.findNamesByCategoryId(id).stream().map(ProductImportServiceImpl::key)
+							.collect(Collectors.toCollection(HashSet::new)));
+			if (!names.add(key(dto.getName()))) {
+				reject(lineNo, "same category and product name already exist");
+				return;
+			}
+
+			Product product = new Product();
+			product.setName(dto.getName());
+			product.setDescription(dto.getDescription());
+			product.setQuantity(dto.getQuantity());
+			product.setPrice(dto.getPrice());
+			product.setImage(dto.getImage());
+			product.setEcoRating(dto.getEcoRating());
+			product.setActive(true);
+			product.setStockStatus(dto.getQuantity() > 0 ? StockStatus.IN_STOCK : StockStatus.OUT_OF_STOCK);
+			pending.add(new Row(lineNo, product, categoryId, dto.getVendorId()));
+			report.setTotalRows(report.getTotalRows() + 1);
+			if (pending.size() >= BATCH_SIZE)
+				flush();
+		}
+
+		void reject(long lineNo, String message) {
+			report.setTotalRows(report.getTotalRows() + 1);
+			report.setFailed(report.getFailed() + 1);
+			if (report.getErrors().size() < MAX_REPORTED_ERRORS)
+				report.getErrors().add(new ImportReportDto.RowError(lineNo, message));
+		}
+
+		void flush() {
+			if (pending.isEmpty())
+				return;
+			try {
+				insert(pending);
+				report.setImported(report.getImported() + pending.size());
+			} catch (RuntimeException e) {
+				// one bad row rolled back the whole batch - retried row by row , only the bad rows are reported
+				for (Row row : pending) {
+					try {
+						insert(List.of(row));
+						report.setImported(report.getImported() + 1);
+					} catch (RuntimeException ex) {
+						report.setTotalRows(report.getTotalRows() - 1);
+						reject(row.lineNo(), "insert failed : " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+						// not in the DB , a later row may still use the name
+						namesByCategory.get(row.categoryId()).remove(key(row.product().getName()));
+					}
+				}
+			}
+			pending.clear();
+		}
+
+		private void insert(List<Row> rows) {
+			transactionTemplate.executeWithoutResult(status -> {
+				List<Product> batch = new ArrayList<>(rows.size());
+				for (Row row : rows) {
+					// id handed out by a rolled back attempt
+					row.product().setId(null);
+					row.product().setCategory(categorydao.getReferenceById(row.categoryId()));
+					row.product().setVendor(userdao.getReferenceById(row.vendorId()));
+					batch.add(row.product());
+				}
+				productdao.saveAll(batch);
+				batch.forEach(p -> publisher.publishEvent(new ProductChangedEvent(p, false)));
+			});
+		}
+
+		ImportReportDto finish() {
+			flush();
+			return report;
+		}
+	}
+
+	private static String key(String name) {
+		return name.trim().toLowerCase(Locale.ROOT);
+	}
+
+	private static ProductDto toDto(List<String> fields, Map<String, Integer> columns) {
+		ProductDto dto = new ProductDto();
+		dto.setName(field(fields, columns, "name"));
+		dto.setDescription(field(fields, columns, "description"));
+		dto.setImage(field(fields, columns, "image"));
+		dto.setQuantity(parseInt(field(fields, columns, "quantity"), "quantity"));
+		dto.setEcoRating(parseInt(field(fields, columns, "ecorating"), "ecoRating"));
+		String price = field(fields, columns, "price");
+		try {
+			dto.setPrice(price == null ? 0 : Double.parseDouble(price));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("invalid price " + price);
+		}
+		String category = field(fields, columns, "categoryid");
+		String vendor = field(fields, columns, "vendorid");
+		dto.setCategoryId(category == null ? null : parseLong(category, "categoryId"));
+		dto.setVendorId(vendor == null ? null : parseLong(vendor, "vendorId"));
+		return dto;
+	}
+
+	private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+		Integer i = columns.get(name);
+		if (i == null || i >= fields.size())
+			return null;
+		String v = fields.get(i).trim();
+		return v.isEmpty() ? null : v;
+	}
+
+	private static int parseInt(String value, String name) {
+		if (value == null)
+			return 0;
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("invalid " + name + " " + value);
+		}
+	}
+
+	private static long parseLong(String value, String name) {
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("invalid " + name + " " + value);
+		}
+	}
+
+	// RFC 4180 style fields on a single line - quoted fields may contain commas and "" escapes
+	static List<String> splitCsv(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder sb = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					sb.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					sb.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(sb.toString());
+				sb.setLength(0);
+			} else {
+				sb.append(c);
+			}
+		}
+		if (quoted)
+			throw new IllegalArgumentException("unterminated quoted field");
+		fields.add(sb.toString());
+		return fields;
+	}
+}
@@ -1,11 +1,19 @@
 package com.cdac.service;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.web.multipart.MultipartFile;
 
 import com.cdac.dto.ApiResponse;
+import com.cdac.dto.FacetQueryDto;
+import com.cdac.dto.FacetResultDto;
+import com.cdac.dto.KeysetPageDto;
+import com.cdac.dto.ProductSearchHitDto;
+import com.cdac.dto.ProductSummaryDto;
+import com.cdac.dto.SuggestionDto;
 import com.cdac.dto.ProductDto;
 import com.cdac.entities.Product;
 
@@ -14,8 +22,15 @@ public interface ProductService {
     Product updateProduct(Long id, ProductDto dto) ;
      ApiResponse deleteProduct(Long id);
     Product getProductById(Long id);
-    List<Product> getAllProducts();
-    List<Product> getProductsByCategoryId(Long categoryId);
-    List<Product> searchProducts(String productName);
-    List<Product> getByVendorId(Long id);
+    byte[] getProductJson(Long id);
+    Map<Long, Product> getProductsByIds(Collection<Long> ids);
+    List<ProductSummaryDto> getAllProducts();
+    List<ProductSummaryDto> getProductsByCategoryId(Long categoryId);
+    List<ProductSummaryDto> searchProducts(String productName);
+    List<ProductSearchHitDto> searchCatalog(String query, int limit);
+    List<SuggestionDto> suggest(String prefix, int limit);
+    FacetResultDto<ProductSummaryDto> filterProducts(FacetQueryDto query);
+    List<ProductSummaryDto> getByVendorId(Long id);
+    KeysetPageDto<ProductSummaryDto> getProductPage(String sortBy, int size, String token);
+    Product uploadImage(Long productId, MultipartFile file) throws IOException;
 }
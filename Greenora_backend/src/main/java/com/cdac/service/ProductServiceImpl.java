@@ -1,9 +1,22 @@
 package com.cdac.service;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.BeanUtils;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -13,11 +26,24 @@ import com.cdac.dao.CategoryDao;
 import com.cdac.dao.ProductDao;
 import com.cdac.dao.UserDao;
 import com.cdac.dto.ApiResponse;
+import com.cdac.dto.FacetQueryDto;
+import com.cdac.dto.FacetResultDto;
+import com.cdac.dto.KeysetPageDto;
+import com.cdac.dto.ProductSearchHitDto;
+import com.cdac.dto.ProductSummaryDto;
+import com.cdac.dto.SuggestionDto;
 import com.cdac.dto.ProductDto;
 import com.cdac.entities.Category;
 import com.cdac.entities.Product;
 import com.cdac.entities.StockStatus;
 import com.cdac.entities.User;
+import com.cdac.events.ProductChangedEvent;
+import com.cdac.events.ProductPriceChangedEvent;
+import com.cdac.search.ProductFacetIndex;
+import com.cdac.search.ProductSearchIndex;
+import com.cdac.search.ProductSuggestTrie;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
@@ -28,10 +54,20 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+	private static final int DEFAULT_PAGE_SIZE = 20;
+	private static final int MAX_PAGE_SIZE = 100;
+
 	private final ModelMapper modalmapper;
     private final ProductDao productdao;
     private final CategoryDao categorydao;
     private final UserDao userdao;
+    private final ProductSearchIndex searchIndex;
+    private final ProductSuggestTrie suggestTrie;
+    private final ProductFacetIndex facetIndex;
+    private final ApplicationEventPublisher publisher;
+    private final ImageService imageservice;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
     
 	
 	@Override
@@ -55,6 +91,7 @@ public class ProductServiceImpl implements ProductService {
 		
 		product.setVendor(user);
 		category.addProduct(product);
+		publisher.publishEvent(new ProductChangedEvent(product, false));
 		return product;
 		
 	}
@@ -78,7 +115,11 @@ public class ProductServiceImpl implements ProductService {
 		dto.setCategoryId(product.getCategory().getId());
 		dto.setActive(true);
 
+		 double oldPrice = product.getPrice();
 		 modalmapper.map(dto,product);
+		 publisher.publishEvent(new ProductChangedEvent(product, false));
+		 if (product.getPrice() != oldPrice)
+			 publisher.publishEvent(new ProductPriceChangedEvent(id, oldPrice, product.getPrice()));
 		return product;
 	}
 
@@ -88,31 +129,91 @@ public class ProductServiceImpl implements ProductService {
 	     new ResourseNotFoundException("invalid product id!!!") );
 		
 		productdao.delete(product);
+		publisher.publishEvent(new ProductChangedEvent(product, true));
 		return new  ApiResponse("deleted!!!");
 		}
 
+	/*
+	 * read through cache , evicted by ProductCacheListener after commit.
+	 * the cache holds a detached copy and every read gets its own copy - a caller changing the
+	 * product it got can neither corrupt the cache nor write to the DB
+	 */
 	@Override
 	public Product getProductById(Long id) {
-		return productdao.findById(id).orElseThrow(()->
-	     new ResourseNotFoundException("invalid category!!!") );
+		Cache cache = cacheManager.getCache(ProductCacheListener.PRODUCTS_CACHE);
+		Product cached = cache == null ? null : cache.get(id, Product.class);
+		if (cached == null) {
+			cached = detachedCopy(productdao.findById(id).orElseThrow(()->
+		     new ResourseNotFoundException("invalid product id!!!") ));
+			if (cache != null)
+				cache.put(id, cached);
+		}
+		return detachedCopy(cached);
+	}
+
+	/*
+	 * the GET /products/{id} body , rendered once per cache entry and served as is -
+	 * a hit neither copies the product nor serializes it again. evicted with the product
+	 */
+	@Override
+	public byte[] getProductJson(Long id) {
+		Cache cache = cacheManager.getCache(ProductCacheListener.PRODUCT_JSON_CACHE);
+		byte[] json = cache == null ? null : cache.get(id, byte[].class);
+		if (json != null)
+			return json;
+		try {
+			json = objectMapper.writeValueAsBytes(getProductById(id));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("product " + id + " could not be rendered", e);
+		}
+		if (cache != null)
+			cache.put(id, json);
+		return json;
+	}
+
+	//same cache as getProductById , the misses are loaded in one select and cached
+	@Override
+	public Map<Long, Product> getProductsByIds(Collection<Long> ids) {
+		Map<Long, Product> products = new HashMap<>();
+		Cache cache = cacheManager.getCache(ProductCacheListener.PRODUCTS_CACHE);
+		List<Long> missing = new ArrayList<>();
+		for (Long id : ids) {
+			Product product = cache == null ? null : cache.get(id, Product.class);
+			if (product != null)
+				products.put(id, detachedCopy(product));
+			else
+				missing.add(id);
+		}
+		if (missing.isEmpty())
+			return products;
+		for (Product product : productdao.findAllById(missing)) {
+			Product cached = detachedCopy(product);
+			products.put(product.getId(), detachedCopy(cached));
+			if (cache != null)
+				cache.put(product.getId(), cached);
+		}
+		return products;
 	}
 
 	@Override
-	public List<Product> getAllProducts() {
-		List<Product> list = productdao.findAll();
+	public List<ProductSummaryDto> getAllProducts() {
+		List<ProductSummaryDto> list = productdao.findAllSummaries();
 		return list;
 	}
 
 	@Override
-	public List<Product> getProductsByCategoryId(Long categoryId) {
-		List<Product> list = productdao.findByCategoryId(categoryId);
+	public List<ProductSummaryDto> getProductsByCategoryId(Long categoryId) {
+		List<ProductSummaryDto> list = productdao.findSummariesByCategoryId(categoryId);
 		return list;
 	}
 
 	@Override
-	public List<Product> searchProducts(String productName) {
+	public List<ProductSummaryDto> searchProducts(String productName) {
 		
-		 List<Product> list = productdao.findByName(productName);
+		 //ranked ids come from the in-memory index , one select for the summaries
+		 List<Long> ids = searchIndex.search(productName, MAX_PAGE_SIZE).stream()
+				 .map(ProductSearchHitDto::getId).toList();
+		 List<ProductSummaryDto> list = summariesInOrder(ids);
 		 if(list.isEmpty()) {
 			 throw new ResourseNotFoundException("list is empty");
 		 }
@@ -120,12 +221,121 @@ public class ProductServiceImpl implements ProductService {
 	}
 
 	@Override
-	public List<Product> getByVendorId(Long id) {
-		List<Product> list = productdao.findByVendorId(id);
+	public List<ProductSearchHitDto> searchCatalog(String query, int limit) {
+		return searchIndex.search(query, Math.min(limit <= 0 ? DEFAULT_PAGE_SIZE : limit, MAX_PAGE_SIZE));
+	}
+
+	@Override
+	public List<SuggestionDto> suggest(String prefix, int limit) {
+		return suggestTrie.suggest(prefix, limit);
+	}
+
+	@Override
+	public FacetResultDto<ProductSummaryDto> filterProducts(FacetQueryDto query) {
+		int size = query.getSize() <= 0 ? DEFAULT_PAGE_SIZE : Math.min(query.getSize(), MAX_PAGE_SIZE);
+		ProductFacetIndex.Result result = facetIndex.query(query, size + 1);
+		
+		List<Long> ids = result.ids();
+		boolean hasMore = ids.size() > size;
+		if (hasMore) ids = ids.subList(0, size);
+		
+		List<ProductSummaryDto> list = summariesInOrder(ids);
+		return new FacetResultDto<>(result.total(), list, result.facets(),
+				hasMore ? ids.get(ids.size() - 1) : null);
+	}
+
+	@Override
+	public Product uploadImage(Long productId, MultipartFile file) throws IOException {
+		Product product = productdao.findById(productId).orElseThrow(()->
+	     new ResourseNotFoundException("invalid product id!!!") );
+		product.setImage(imageservice.store(file).getUrl());
+		publisher.publishEvent(new ProductChangedEvent(product, false));
+		return product;
+	}
+
+	@Override
+	public List<ProductSummaryDto> getByVendorId(Long id) {
+		List<ProductSummaryDto> list = productdao.findSummariesByVendorId(id);
 		if(list.isEmpty()) {
 			 throw new ResourseNotFoundException("list is empty");
 		 }
 		 return list;
 	}
 
+	@Override
+	public KeysetPageDto<ProductSummaryDto> getProductPage(String sortBy, int size, String token) {
+		if (size <= 0) size = DEFAULT_PAGE_SIZE;
+		size = Math.min(size, MAX_PAGE_SIZE);
+		boolean byPrice = "price".equalsIgnoreCase(sortBy);
+		
+		String[] cursor = decodeCursor(token);
+		if (cursor != null && byPrice != "p".equals(cursor[0])) {
+			throw new InvalidInputException("token does not match sort order!!");
+		}
+		
+		//fetch one extra row to know if there is a next page
+		Limit limit = Limit.of(size + 1);
+		List<ProductSummaryDto> list;
+		try {
+			if (byPrice) {
+				list = cursor == null
+						? productdao.findPageAfterPrice(-1, 0L, limit)
+						: productdao.findPageAfterPrice(Double.parseDouble(cursor[1]), Long.parseLong(cursor[2]), limit);
+			} else {
+				list = productdao.findPageAfterId(cursor == null ? 0L : Long.parseLong(cursor[1]), limit);
+			}
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			throw new InvalidInputException("invalid page token!!");
+		}
+		
+		boolean hasMore = list.size() > size;
+		if (hasMore) list = list.subList(0, size);
+		String next = null;
+		if (hasMore) {
+			ProductSummaryDto last = list.get(list.size() - 1);
+			next = byPrice ? encodeCursor("p:" + last.getPrice() + ":" + last.getId())
+					: encodeCursor("i:" + last.getId());
+		}
+		return new KeysetPageDto<>(list, next, hasMore);
+	}
+	
+	//plain objects with the JSON shape of the entity , category and vendor included (fetched by the graph)
+	private static Product detachedCopy(Product product) {
+		Product copy = new Product();
+		BeanUtils.copyProperties(product, copy, "category", "vendor");
+		if (product.getCategory() != null) {
+			Category category = new Category();
+			BeanUtils.copyProperties(product.getCategory(), category, "products");
+			copy.setCategory(category);
+		}
+		if (product.getVendor() != null) {
+			User vendor = new User();
+			BeanUtils.copyProperties(product.getVendor(), vendor, "myAddress");
+			copy.setVendor(vendor);
+		}
+		return copy;
+	}
+
+	private List<ProductSummaryDto> summariesInOrder(List<Long> ids) {
+		if (ids.isEmpty()) return List.of();
+		Map<Long, ProductSummaryDto> byId = productdao.findSummariesByIdIn(ids).stream()
+				 .collect(Collectors.toMap(ProductSummaryDto::getId, p -> p));
+		return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+	}
+	
+	private static String encodeCursor(String raw) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private static String[] decodeCursor(String token) {
+		if (token == null || token.isBlank()) return null;
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			return raw.split(":");
+		} catch (IllegalArgumentException e) {
+			throw new InvalidInputException("invalid page token!!");
+		}
+	}
+
 }
@@ -0,0 +1,14 @@
+package com.cdac.service;
+
+import com.cdac.dto.ApiResponse;
+import com.cdac.dto.KeysetPageDto;
+import com.cdac.dto.RatingSummaryDto;
+import com.cdac.dto.ReviewDto;
+import com.cdac.dto.ReviewResDto;
+
+public interface ReviewService {
+	ReviewResDto addReview(Long userId, Long productId, ReviewDto dto);
+	ApiResponse deleteReview(Long reviewId, Long userId);
+	KeysetPageDto<ReviewResDto> getReviews(Long productId, int size, String token);
+	RatingSummaryDto getRatingSummary(Long productId);
+}
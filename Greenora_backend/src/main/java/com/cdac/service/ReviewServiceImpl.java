@@ -0,0 +1,129 @@
+package com.cdac.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.custom_exception.ResourseNotFoundException;
+import com.cdac.dao.OrderDao;
+import com.cdac.dao.OrderItemDao;
+import com.cdac.dao.ProductDao;
+import com.cdac.dao.ReviewDao;
+import com.cdac.dao.UserDao;
+import com.cdac.dto.ApiResponse;
+import com.cdac.dto.KeysetPageDto;
+import com.cdac.dto.RatingSummaryDto;
+import com.cdac.dto.ReviewDto;
+import com.cdac.dto.ReviewResDto;
+import com.cdac.entities.Product;
+import com.cdac.entities.Review;
+import com.cdac.events.ProductChangedEvent;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+
+/*
+ * reviews + the rating aggregates on the product row .
+ * insert / delete and the counter update run in one transaction , the counter update is a single
+ * relative UPDATE so concurrent reviews of one product never lose a count
+ */
+@Service
+@Transactional
+@AllArgsConstructor
+public class ReviewServiceImpl implements ReviewService {
+	private static final int DEFAULT_PAGE_SIZE = 10;
+	private static final int MAX_PAGE_SIZE = 50;
+
+	private final ReviewDao reviewdao;
+	private final ProductDao productdao;
+	private final UserDao userdao;
+	private final OrderDao orderdao;
+	private final OrderItemDao orderItemdao;
+	private final EntityManager entityManager;
+	private final ApplicationEventPublisher publisher;
+
+	@Override
+	public ReviewResDto addReview(Long userId, Long productId, ReviewDto dto) {
+		Product product = productdao.findById(productId).orElseThrow(() ->
+				new ResourseNotFoundException("invalid product id!!!"));
+		if (!orderItemdao.existsByOrderIdAndProductIdAndOrderUserId(dto.getOrderId(), productId, userId))
+			throw new InvalidInputException("product was not bought in this order!!");
+		if (reviewdao.existsByUserIdAndProductId(userId, productId))
+			throw new InvalidInputException("product already reviewed!!");
+
+		Review review = new Review();
+		review.setProduct(product);
+		review.setUser(userdao.getReferenceById(userId));
+		review.setOrderId(orderdao.getReferenceById(dto.getOrderId()));
+		review.setRating(dto.getRating());
+		review.setReviewText(dto.getReviewText());
+		review.setDatetime(LocalDateTime.now());
+		try {
+			// unique (user , product) catches a racing duplicate before the counters move
+			reviewdao.saveAndFlush(review);
+		} catch (DataIntegrityViolationException e) {
+			throw new InvalidInputException("product already reviewed!!");
+		}
+		applyRating(product, dto.getRating(), 1);
+		return reviewdao.findResById(review.getId()).orElseThrow();
+	}
+
+	@Override
+	public ApiResponse deleteReview(Long reviewId, Long userId) {
+		ReviewResDto review = reviewdao.findResById(reviewId).orElseThrow(() ->
+				new ResourseNotFoundException("invalid review id!!!"));
+		if (!review.getUserId().equals(userId))
+			throw new InvalidInputException("review belongs to another user!!");
+		if (reviewdao.deleteReturningCount(reviewId) == 1)
+			applyRating(entityManager.find(Product.class, review.getProductId()), review.getRating(), -1);
+		return new ApiResponse("review deleted!!!");
+	}
+
+	@Override
+	public KeysetPageDto<ReviewResDto> getReviews(Long productId, int size, String token) {
+		if (size <= 0) size = DEFAULT_PAGE_SIZE;
+		size = Math.min(size, MAX_PAGE_SIZE);
+		long before = Long.MAX_VALUE;
+		if (token != null && !token.isBlank()) {
+			try {
+				String[] cursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+				if (!"r".equals(cursor[0]))
+					throw new InvalidInputException("invalid page token!!");
+				before = Long.parseLong(cursor[1]);
+			} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+				throw new InvalidInputException("invalid page token!!");
+			}
+		}
+		//one extra row tells if there is a next page
+		List<ReviewResDto> list = reviewdao.findPageBefore(productId, before, Limit.of(size + 1));
+		boolean hasMore = list.size() > size;
+		if (hasMore) list = list.subList(0, size);
+		String next = hasMore ? Base64.getUrlEncoder().withoutPadding().encodeToString(
+				("r:" + list.get(list.size() - 1).getId()).getBytes(StandardCharsets.UTF_8)) : null;
+		return new KeysetPageDto<>(list, next, hasMore);
+	}
+
+	@Override
+	public RatingSummaryDto getRatingSummary(Long productId) {
+		Product p = productdao.findById(productId).orElseThrow(() ->
+				new ResourseNotFoundException("invalid product id!!!"));
+		return new RatingSummaryDto(p.getId(), p.getRatingCount(),
+				p.getRatingCount() == 0 ? 0 : (double) p.getRatingSum() / p.getRatingCount(),
+				new int[] { p.getRating1(), p.getRating2(), p.getRating3(), p.getRating4(), p.getRating5() });
+	}
+
+	// bulk update bypasses the persistence context , refresh so caches / indexes see the new counts
+	private void applyRating(Product product, int rating, int delta) {
+		productdao.applyRating(product.getId(), rating, delta);
+		entityManager.refresh(product);
+		publisher.publishEvent(new ProductChangedEvent(product, false));
+	}
+}
@@ -0,0 +1,31 @@
+package com.cdac.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cdac.events.OrderPlacedEvent;
+import com.cdac.events.OrderStatusChangedEvent;
+
+import lombok.AllArgsConstructor;
+
+//keeps the sales rollups in step with committed orders
+@Component
+@AllArgsConstructor
+public class SalesRollupListener {
+	private final SalesRollupService rollupservice;
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onOrderPlaced(OrderPlacedEvent event) {
+		rollupservice.applyOrder(event.getOrder().getId(), 1);
+	}
+
+	// cancelling / returning takes the order out of the sales , reverting puts it back
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onStatusChanged(OrderStatusChangedEvent event) {
+		boolean before = !SalesRollupServiceImpl.EXCLUDED.contains(event.getPrevious());
+		boolean after = !SalesRollupServiceImpl.EXCLUDED.contains(event.getCurrent());
+		if (before != after)
+			rollupservice.applyOrder(event.getOrderId(), after ? 1 : -1);
+	}
+}
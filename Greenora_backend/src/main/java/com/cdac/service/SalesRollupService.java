@@ -0,0 +1,14 @@
+package com.cdac.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.cdac.dto.SalesDayDto;
+import com.cdac.entities.RollupDimension;
+
+public interface SalesRollupService {
+	// sign +1 counts the order in , -1 takes it back out (cancel / return)
+	void applyOrder(Long orderId, int sign);
+	int rebuild(LocalDate from, LocalDate to);
+	List<SalesDayDto> getDaily(RollupDimension dimension, long dimensionId, LocalDate from, LocalDate to);
+}
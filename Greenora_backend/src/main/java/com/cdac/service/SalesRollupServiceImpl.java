@@ -0,0 +1,154 @@
+package com.cdac.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.dao.OrderDao;
+import com.cdac.dao.SalesRollupDao;
+import com.cdac.dto.RollupRow;
+import com.cdac.dto.SalesDayDto;
+import com.cdac.entities.DeliveryStatus;
+import com.cdac.entities.Order;
+import com.cdac.entities.RollupDimension;
+import com.cdac.entities.SalesRollup;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * daily aggregates per TOTAL / VENDOR / CATEGORY.
+ * increments are atomic upserts in their own short transaction so concurrent checkouts
+ * only meet on the day row for a moment , rebuild recomputes a date range from the orders
+ */
+@Service
+@Slf4j
+public class SalesRollupServiceImpl implements SalesRollupService {
+	//orders in these states do not count as sales
+	public static final Set<DeliveryStatus> EXCLUDED = EnumSet.of(DeliveryStatus.CANCELLED, DeliveryStatus.RETURNED);
+	private static final int MAX_RANGE_DAYS = 3660;
+
+	private static final String UPSERT = "insert into sales_rollup (dimension, dimension_id, sales_day, order_count, units, revenue_paise) "
+			+ "values (?, ?, ?, ?, ?, ?) on duplicate key update order_count = order_count + values(order_count), "
+			+ "units = units + values(units), revenue_paise = revenue_paise + values(revenue_paise)";
+
+	private final SalesRollupDao rollupdao;
+	private final OrderDao orderdao;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate tx;
+	private final int repairDays;
+
+	public SalesRollupServiceImpl(SalesRollupDao rollupdao, OrderDao orderdao, JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager, @Value("${greenora.rollup.repair-days}") int repairDays) {
+		this.rollupdao = rollupdao;
+		this.orderdao = orderdao;
+		this.jdbcTemplate = jdbcTemplate;
+		// callers are after-commit listeners - the finished order transaction must not be joined
+		this.tx = new TransactionTemplate(transactionManager);
+		this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.repairDays = repairDays;
+	}
+
+	@Override
+	public void applyOrder(Long orderId, int sign) {
+		tx.executeWithoutResult(s -> {
+			Order order = orderdao.findById(orderId).orElse(null);
+			if (order == null)
+				return;
+			List<RollupRow> vendors = rollupdao.vendorLinesOfOrder(orderId);
+			List<RollupRow> categories = rollupdao.categoryLinesOfOrder(orderId);
+			long units = vendors.stream().mapToLong(RollupRow::getUnits).sum();
+
+			List<Object[]> deltas = new ArrayList<>();
+			deltas.add(delta(RollupDimension.TOTAL, 0, order.getOrderDate(), sign, sign * units,
+					sign * paise(order.getTotalAmt())));
+			for (RollupRow r : vendors)
+				if (r.getKey() != null)
+					deltas.add(delta(RollupDimension.VENDOR, r.getKey(), order.getOrderDate(), sign,
+							sign * r.getUnits(), sign * paise(r.getRevenue())));
+			for (RollupRow r : categories)
+				if (r.getKey() != null)
+					deltas.add(delta(RollupDimension.CATEGORY, r.getKey(), order.getOrderDate(), sign,
+							sign * r.getUnits(), sign * paise(r.getRevenue())));
+			jdbcTemplate.batchUpdate(UPSERT, deltas);
+		});
+	}
+
+	/*
+	 * completed days only - an order the rebuild already counted could still have its live upsert
+	 * land after the rebuild commits , counting it twice
+	 */
+	@Override
+	public int rebuild(LocalDate from, LocalDate to) {
+		if (from == null || to == null || from.isAfter(to) || from.plusDays(MAX_RANGE_DAYS).isBefore(to))
+			throw new InvalidInputException("invalid rebuild range!!");
+		if (!to.isBefore(LocalDate.now()))
+			throw new InvalidInputException("rebuild must end before today!!");
+		Integer rows = tx.execute(s -> {
+			rollupdao.deleteDays(from, to);
+			Map<LocalDate, Long> unitsByDay = new HashMap<>();
+			for (RollupRow r : rollupdao.unitsBetween(from, to, EXCLUDED))
+				unitsByDay.put(r.getDay(), r.getUnits());
+
+			List<SalesRollup> list = new ArrayList<>();
+			for (RollupRow r : rollupdao.totalsBetween(from, to, EXCLUDED))
+				list.add(new SalesRollup(RollupDimension.TOTAL, 0, r.getDay(), r.getOrderCount(),
+						unitsByDay.getOrDefault(r.getDay(), 0L), paise(r.getRevenue())));
+			for (RollupRow r : rollupdao.vendorsBetween(from, to, EXCLUDED))
+				if (r.getKey() != null)
+					list.add(rollup(RollupDimension.VENDOR, r));
+			for (RollupRow r : rollupdao.categoriesBetween(from, to, EXCLUDED))
+				if (r.getKey() != null)
+					list.add(rollup(RollupDimension.CATEGORY, r));
+			rollupdao.saveAll(list);
+			return list.size();
+		});
+		log.info("rebuilt sales rollups {} .. {} : {} rows", from, to, rows);
+		return rows;
+	}
+
+	//repairs increments lost to a crash between order commit and rollup update.
+	//stops at yesterday , today's rows are still being upserted by the listener and a delete + reinsert would race it
+	@Scheduled(cron = "${greenora.rollup.repair-cron}")
+	public void repairRecentDays() {
+		LocalDate yesterday = LocalDate.now().minusDays(1);
+		rebuild(yesterday.minusDays(repairDays - 1), yesterday);
+	}
+
+	@Override
+	public List<SalesDayDto> getDaily(RollupDimension dimension, long dimensionId, LocalDate from, LocalDate to) {
+		if (from == null || to == null || from.isAfter(to))
+			throw new InvalidInputException("invalid date range!!");
+		return rollupdao.findByDimensionAndDimensionIdAndDayBetweenOrderByDay(dimension, dimensionId, from, to)
+				.stream()
+				.map(r -> new SalesDayDto(r.getDay(), r.getOrderCount(), r.getUnits(), r.getRevenuePaise() / 100.0,
+						r.getOrderCount() == 0 ? 0 : r.getRevenuePaise() / 100.0 / r.getOrderCount()))
+				.toList();
+	}
+
+	private static Object[] delta(RollupDimension dimension, long id, LocalDate day, long orders, long units,
+			long revenuePaise) {
+		return new Object[] { dimension.name(), id, day, orders, units, revenuePaise };
+	}
+
+	private static SalesRollup rollup(RollupDimension dimension, RollupRow r) {
+		return new SalesRollup(dimension, r.getKey(), r.getDay(), r.getOrderCount(), r.getUnits(),
+				paise(r.getRevenue()));
+	}
+
+	private static long paise(Double amount) {
+		return amount == null ? 0 : Math.round(amount * 100);
+	}
+}
@@ -0,0 +1,70 @@
+package com.cdac.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cdac.dao.WishListItemDao;
+import com.cdac.events.WishListChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/*
+ * per user sorted long[] of hearted product ids , loaded with one query on first access.
+ * a membership check is a binary search , a whole product grid is checked against one array.
+ * committed changes are applied as idempotent insert / remove on the cached array -
+ * applying one twice , or to an array loaded after the commit , gives the same result
+ */
+@Component
+public class WishListMembershipCache {
+	private static final long[] EMPTY = new long[0];
+
+	private final WishListItemDao itemdao;
+	private final Cache<Long, long[]> memberships;
+
+	public WishListMembershipCache(WishListItemDao itemdao,
+			@Value("${greenora.wishlist.cache-size}") long cacheSize) {
+		this.itemdao = itemdao;
+		this.memberships = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterAccess(Duration.ofHours(1))
+				.build();
+	}
+
+	public long[] productIds(Long userId) {
+		return memberships.get(userId,
+				id -> itemdao.findProductIdsByUserId(id).stream().mapToLong(Long::longValue).toArray());
+	}
+
+	public boolean contains(Long userId, long productId) {
+		return Arrays.binarySearch(productIds(userId), productId) >= 0;
+	}
+
+	// copy on write , readers keep whatever array they already hold
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onChanged(WishListChangedEvent event) {
+		long productId = event.getProductId();
+		memberships.asMap().computeIfPresent(event.getUserId(), (id, ids) -> {
+			int i = Arrays.binarySearch(ids, productId);
+			if (event.isAdded() && i < 0) {
+				int at = -i - 1;
+				long[] copy = new long[ids.length + 1];
+				System.arraycopy(ids, 0, copy, 0, at);
+				copy[at] = productId;
+				System.arraycopy(ids, at, copy, at + 1, ids.length - at);
+				return copy;
+			}
+			if (!event.isAdded() && i >= 0) {
+				if (ids.length == 1)
+					return EMPTY;
+				long[] copy = new long[ids.length - 1];
+				System.arraycopy(ids, 0, copy, 0, i);
+				System.arraycopy(ids, i + 1, copy, i, ids.length - i - 1);
+				return copy;
+			}
+			return ids;
+		});
+	}
+}
@@ -0,0 +1,16 @@
+package com.cdac.service;
+
+import java.util.List;
+
+import com.cdac.dto.ApiResponse;
+import com.cdac.dto.ProductSummaryDto;
+
+//the user is the authenticated principal (email) , not a path variable
+public interface WishListService {
+	ApiResponse addToWishlist(String email, Long productId);
+	ApiResponse removeFromWishlist(String email, Long productId);
+	List<ProductSummaryDto> getWishlist(String email);
+	boolean isInWishlist(String email, Long productId);
+	// subset of productIds that are hearted - one call for a whole product grid
+	List<Long> filterInWishlist(String email, List<Long> productIds);
+}
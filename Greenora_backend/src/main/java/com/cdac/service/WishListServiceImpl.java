@@ -0,0 +1,79 @@
+package com.cdac.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.cdac.custom_exception.ResourseNotFoundException;
+import com.cdac.dao.ProductDao;
+import com.cdac.dao.UserDao;
+import com.cdac.dao.WishListItemDao;
+import com.cdac.dto.ApiResponse;
+import com.cdac.dto.ProductSummaryDto;
+import com.cdac.events.WishListChangedEvent;
+
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+
+@Service
+@Transactional
+@AllArgsConstructor
+public class WishListServiceImpl implements WishListService {
+	private final WishListItemDao itemdao;
+	private final UserDao userdao;
+	private final ProductDao productdao;
+	private final WishListMembershipCache membershipCache;
+	private final ApplicationEventPublisher publisher;
+
+	@Override
+	public ApiResponse addToWishlist(String email, Long productId) {
+		Long userId = userId(email);
+		if (membershipCache.contains(userId, productId))
+			return new ApiResponse("already in wishlist!!!");
+		if (!productdao.existsById(productId))
+			throw new ResourseNotFoundException("invalid product id!!!");
+		itemdao.insertIgnoringDuplicate(userId, productId);
+		publisher.publishEvent(new WishListChangedEvent(userId, productId, true));
+		return new ApiResponse("added to wishlist!!!");
+	}
+
+	@Override
+	public ApiResponse removeFromWishlist(String email, Long productId) {
+		Long userId = userId(email);
+		if (itemdao.deleteByUserIdAndProductId(userId, productId) == 0)
+			throw new ResourseNotFoundException("product not in wishlist!!!");
+		publisher.publishEvent(new WishListChangedEvent(userId, productId, false));
+		return new ApiResponse("removed from wishlist!!!");
+	}
+
+	@Override
+	public List<ProductSummaryDto> getWishlist(String email) {
+		long[] ids = membershipCache.productIds(userId(email));
+		if (ids.length == 0)
+			return List.of();
+		Map<Long, ProductSummaryDto> byId = productdao
+				.findSummariesByIdIn(Arrays.stream(ids).boxed().toList()).stream()
+				.collect(Collectors.toMap(ProductSummaryDto::getId, p -> p));
+		return Arrays.stream(ids).mapToObj(byId::get).filter(Objects::nonNull).toList();
+	}
+
+	@Override
+	public boolean isInWishlist(String email, Long productId) {
+		return membershipCache.contains(userId(email), productId);
+	}
+
+	@Override
+	public List<Long> filterInWishlist(String email, List<Long> productIds) {
+		long[] ids = membershipCache.productIds(userId(email));
+		return productIds.stream().filter(id -> Arrays.binarySearch(ids, id) >= 0).toList();
+	}
+
+	private Long userId(String email) {
+		return userdao.findIdByEmail(email).orElseThrow(() -> new ResourseNotFoundException("invalid user!!!"));
+	}
+}
@@ -0,0 +1,72 @@
+package com.cdac;
+
+import org.springframework.stereotype.Component;
+
+import com.cdac.dao.CategoryDao;
+import com.cdac.dao.ProductDao;
+import com.cdac.dao.UserDao;
+import com.cdac.dto.ProductDto;
+import com.cdac.entities.Category;
+import com.cdac.entities.Product;
+import com.cdac.entities.StockStatus;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+
+import lombok.AllArgsConstructor;
+
+/*
+ * saved users , categories and products for the spring tests. names and emails are unique ,
+ * the test contexts share one database. a test sets only what its scenario is about
+ */
+@Component
+@AllArgsConstructor
+public class TestFixtures {
+	private final UserDao userdao;
+	private final CategoryDao categorydao;
+	private final ProductDao productdao;
+
+	public User user(UserRole role) {
+		return user("fixture" + System.nanoTime() + "@x.in", role);
+	}
+
+	public User user(String email, UserRole role) {
+		User user = new User();
+		user.setName(email.substring(0, email.indexOf('@')));
+		user.setEmail(email);
+		user.setPassword("secret");
+		user.setRole(role);
+		return userdao.save(user);
+	}
+
+	public Category category() {
+		Category category = new Category();
+		category.setName("fixture-" + System.nanoTime());
+		category.setDescription("fixture");
+		return categorydao.save(category);
+	}
+
+	public Product product(double price, int quantity) {
+		return productdao.save(newProduct(price, quantity));
+	}
+
+	//in stock and inactive , not saved yet - for a vendor , category or active flag
+	public Product newProduct(double price, int quantity) {
+		Product product = new Product();
+		product.setName("fixture-" + System.nanoTime());
+		product.setQuantity(quantity);
+		product.setPrice(price);
+		product.setStockStatus(StockStatus.IN_STOCK);
+		return product;
+	}
+
+	public ProductDto dto(User vendor, double price, int quantity) {
+		ProductDto dto = new ProductDto();
+		dto.setName("fixture-" + System.nanoTime());
+		dto.setDescription("fixture");
+		dto.setQuantity(quantity);
+		dto.setPrice(price);
+		dto.setEcoRating(3);
+		dto.setVendorId(vendor.getId());
+		return dto;
+	}
+}
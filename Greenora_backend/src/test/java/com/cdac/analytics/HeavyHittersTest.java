@@ -0,0 +1,66 @@
+package com.cdac.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class HeavyHittersTest {
+	private static final long HOUR = 3_600_000L;
+
+	@Test
+	void findsHeavyIdsAmongLongTail() {
+		HeavyHitters hh = new HeavyHitters(HOUR, 24, 1024, 32);
+		Random random = new Random(7);
+		long now = 100 * HOUR;
+		for (int i = 0; i < 200_000; i++)
+			hh.add(1000 + random.nextInt(50_000), 1, now);
+		for (long id = 1; id <= 5; id++)
+			hh.add(id, 2000 * id, now);
+
+		List<HeavyHitters.Hit> top = hh.top(5, 24, now);
+		assertEquals(List.of(5L, 4L, 3L, 2L, 1L), top.stream().map(HeavyHitters.Hit::id).toList());
+		// count-min never under counts , error bounded by total / width
+		assertTrue(top.get(0).count() >= 10_000 && top.get(0).count() < 10_000 + 230_000 / 1024 * 4);
+	}
+
+	@Test
+	void oldBucketsLeaveTheWindow() {
+		HeavyHitters hh = new HeavyHitters(HOUR, 24, 256, 8);
+		long now = 100 * HOUR;
+		hh.add(1, 50, now - 30 * HOUR);
+		hh.add(2, 10, now - 5 * HOUR);
+		hh.add(3, 20, now);
+
+		assertEquals(List.of(3L, 2L), hh.top(10, 24, now).stream().map(HeavyHitters.Hit::id).toList());
+		assertEquals(List.of(3L), hh.top(10, 1, now).stream().map(HeavyHitters.Hit::id).toList());
+		assertEquals(List.of(3L), hh.top(10, 24, now + 20 * HOUR).stream().map(HeavyHitters.Hit::id).toList());
+		assertTrue(hh.top(10, 24, now + 24 * HOUR).isEmpty());
+	}
+
+	@Test
+	void snapshotRoundTrip() throws IOException {
+		HeavyHitters hh = new HeavyHitters(HOUR, 24, 256, 8);
+		long now = 100 * HOUR;
+		hh.add(1, 7, now - HOUR);
+		hh.add(2, 9, now);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		hh.write(new DataOutputStream(bytes), now);
+
+		HeavyHitters restored = new HeavyHitters(HOUR, 24, 256, 8);
+		assertTrue(restored.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+		assertEquals(hh.top(10, 24, now), restored.top(10, 24, now));
+
+		HeavyHitters other = new HeavyHitters(HOUR, 12, 256, 8);
+		assertFalse(other.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+	}
+}
@@ -0,0 +1,98 @@
+package com.cdac.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.dao.ProductDao;
+import com.cdac.dto.ProductViewsDto;
+import com.cdac.entities.Product;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+import com.cdac.service.ProductAnalyticsService;
+
+//own snapshot dir : a restored snapshot may rank product ids this run reuses
+@SpringBootTest(properties = { "greenora.views.flush-interval-ms=3600000",
+		"greenora.analytics.snapshot-dir=${java.io.tmpdir}/greenora-views-test-${random.uuid}" })
+@ActiveProfiles("test")
+class ProductViewCounterTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private ProductViewCounter counter;
+	@Autowired
+	private ProductAnalyticsService analyticsservice;
+	@Autowired
+	private ProductDao productdao;
+
+	@Test
+	void concurrentViewsAreFlushedOnceInOneBatch() throws InterruptedException {
+		User vendor = fixtures.user(UserRole.ROLE_VENDOR);
+		Product a = product(vendor);
+		Product b = product(vendor);
+
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 1000; i++) {
+					analyticsservice.recordView(a.getId());
+					if (i % 4 == 0)
+						analyticsservice.recordView(b.getId());
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(8000, views(vendor.getId(), a.getId()));
+		counter.flush();
+		assertEquals(0, counter.pending(a.getId()));
+		counter.record(a.getId());
+		counter.flush();
+		assertEquals(0, counter.flush());
+
+		assertEquals(8001, views(vendor.getId(), a.getId()));
+		assertEquals(2000, views(vendor.getId(), b.getId()));
+	}
+
+	@Test
+	void viewsReachTrendingWithTheFlush() {
+		Product p = fixtures.newProduct(10, 1);
+		p.setVendor(fixtures.user(UserRole.ROLE_VENDOR));
+		p.setActive(true);
+		Long id = productdao.save(p).getId();
+
+		for (int i = 0; i < 5; i++)
+			analyticsservice.recordView(id);
+		assertFalse(trending(id));
+		counter.flush();
+		assertTrue(trending(id));
+	}
+
+	private boolean trending(Long productId) {
+		return analyticsservice.getTrending(50).stream().anyMatch(r -> r.getProduct().getId().equals(productId));
+	}
+
+	private long views(Long vendorId, Long productId) {
+		return analyticsservice.getVendorViews(vendorId).stream().filter(v -> v.getProductId().equals(productId))
+				.mapToLong(ProductViewsDto::getViews).sum();
+	}
+
+	private Product product(User vendor) {
+		Product p = fixtures.newProduct(10, 1);
+		p.setVendor(vendor);
+		return productdao.save(p);
+	}
+}
@@ -0,0 +1,86 @@
+package com.cdac.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RelatedProductsIndexTest {
+
+	private static List<Long> ids(List<CoOccurrenceMatrix.Neighbour> list) {
+		return list.stream().map(CoOccurrenceMatrix.Neighbour::id).toList();
+	}
+
+	@Test
+	void longIntMapMatchesHashMap() {
+		LongIntHashMap map = new LongIntHashMap();
+		Map<Long, Integer> expected = new HashMap<>();
+		Random random = new Random(3);
+		for (int i = 0; i < 100_000; i++) {
+			long key = random.nextInt(5000) - 2500;
+			map.addTo(key, 1);
+			expected.merge(key, 1, Integer::sum);
+		}
+		assertEquals(expected.size(), map.size());
+		expected.forEach((k, v) -> assertEquals(v, map.get(k)));
+
+		map.retainTop(10);
+		assertEquals(10, map.size());
+		int tenth = expected.values().stream().sorted((a, b) -> b - a).skip(9).findFirst().orElseThrow();
+		map.forEach((k, v) -> assertTrue(v >= tenth));
+	}
+
+	@Test
+	void incrementalAndRebuildAgree() {
+		List<long[]> baskets = List.of(new long[] { 1, 2, 3 }, new long[] { 1, 2 }, new long[] { 2, 4 },
+				new long[] { 1, 2, 4 }, new long[] { 3, 5 });
+		RelatedProductsIndex incremental = new RelatedProductsIndex(20);
+		for (int i = 0; i < baskets.size(); i++)
+			incremental.add(i + 1, baskets.get(i));
+		RelatedProductsIndex rebuilt = new RelatedProductsIndex(20);
+		RelatedProductsIndex.Rebuild rebuild = rebuilt.beginRebuild();
+		rebuilt.add(100, new long[] { 5, 6 });
+		// committed before the history read , seen both live and in history
+		rebuilt.add(5, baskets.get(4));
+		for (int i = 0; i < baskets.size(); i++)
+			rebuild.add(i + 1, baskets.get(i));
+		rebuild.finish();
+
+		assertEquals(List.of(2L, 3L, 4L), ids(incremental.related(new long[] { 1 }, 5)));
+		assertEquals(3, incremental.related(new long[] { 1 }, 1).get(0).count());
+		assertEquals(ids(incremental.related(new long[] { 2 }, 5)), ids(rebuilt.related(new long[] { 2 }, 5)));
+		// basket added during the rebuild survives the swap , the one history already had is counted once
+		assertEquals(List.of(3L, 6L), ids(rebuilt.related(new long[] { 5 }, 5)));
+		assertEquals(1, rebuilt.related(new long[] { 5 }, 5).get(0).count());
+		// cart view : neighbours of 1 and 3 summed , inputs excluded
+		assertEquals(List.of(2L, 4L, 5L), ids(incremental.related(new long[] { 1, 3 }, 5)));
+	}
+
+	@Test
+	void rebuildsMillionsOfLinesAndPrunes() {
+		Random random = new Random(11);
+		RelatedProductsIndex index = new RelatedProductsIndex(5);
+		RelatedProductsIndex.Rebuild rebuild = index.beginRebuild();
+		for (int i = 0; i < 400_000; i++) {
+			long[] basket = new long[5];
+			// product 7 and 8 sell together in every tenth order
+			basket[0] = i % 10 == 0 ? 7 : 100 + random.nextInt(20_000);
+			basket[1] = i % 10 == 0 ? 8 : 100 + random.nextInt(20_000);
+			for (int j = 2; j < 5; j++)
+				basket[j] = 100 + random.nextInt(20_000) + j * 20_000;
+			rebuild.add(i, basket);
+		}
+		rebuild.finish();
+		assertEquals(400_000, rebuild.orders());
+
+		List<CoOccurrenceMatrix.Neighbour> related = index.related(new long[] { 7 }, 5);
+		assertEquals(8L, related.get(0).id());
+		assertEquals(40_000, related.get(0).count());
+		assertTrue(related.size() <= 5);
+	}
+}
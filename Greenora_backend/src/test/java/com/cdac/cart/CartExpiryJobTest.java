@@ -0,0 +1,115 @@
+package com.cdac.cart;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.dao.CartDao;
+import com.cdac.entities.Product;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+import com.cdac.service.CartService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// batches of 2 so one run spans several transactions
+@SpringBootTest(properties = { "greenora.cart.flush-interval-ms=3600000", "greenora.cart.expiry-batch-size=2" })
+@ActiveProfiles("test")
+class CartExpiryJobTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private CartExpiryJob job;
+	@Autowired
+	private CartStore cartstore;
+	@Autowired
+	private CartService cartservice;
+	@Autowired
+	private CartDao cartdao;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private MeterRegistry registry;
+
+	@Test
+	void idleCartsAreDeletedAndEvicted() {
+		Product a = fixtures.product(7, 10);
+		Product b = fixtures.product(7, 10);
+		List<User> idle = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			User user = fixtures.user(UserRole.ROLE_USER);
+			cartservice.addToCart(user.getId(), a.getId(), 1);
+			cartservice.addToCart(user.getId(), b.getId(), 2);
+			idle.add(user);
+		}
+		User active = fixtures.user(UserRole.ROLE_USER);
+		cartservice.addToCart(active.getId(), a.getId(), 1);
+		User editing = fixtures.user(UserRole.ROLE_USER);
+		cartservice.addToCart(editing.getId(), a.getId(), 1);
+		cartstore.flush();
+
+		for (User user : idle)
+			backdate(user, 31);
+		backdate(active, 29);
+		backdate(editing, 31);
+		// edited in memory after the last write - the row looks idle but must survive
+		cartservice.addToCart(editing.getId(), b.getId(), 4);
+
+		double carts = expired("cart");
+		double items = expired("cart_item");
+		assertEquals(5, job.expire());
+		assertEquals(5, expired("cart") - carts);
+		assertEquals(10, expired("cart_item") - items);
+
+		for (User user : idle) {
+			assertTrue(cartdao.findLinesByUserId(user.getId()).isEmpty());
+			// evicted , not served from the in-memory copy
+			assertTrue(cartstore.get(user.getId()).isEmpty());
+		}
+		assertFalse(cartdao.findLinesByUserId(active.getId()).isEmpty());
+
+		cartstore.flush();
+		assertEquals(2, cartdao.findLinesByUserId(editing.getId()).size());
+		assertEquals(0, job.expire());
+	}
+
+	@Test
+	void aCartDeletedUnderAnEditIsWrittenIntoANewRow() {
+		Product a = fixtures.product(7, 10);
+		User user = fixtures.user(UserRole.ROLE_USER);
+		cartservice.addToCart(user.getId(), a.getId(), 1);
+		cartstore.flush();
+		Long cartId = cartstore.get(user.getId()).cartId();
+
+		// the store still holds the old cart id when its rows go
+		jdbcTemplate.update("delete from cart_item where cart_id = ?", cartId);
+		jdbcTemplate.update("delete from cart where id = ?", cartId);
+		cartservice.addToCart(user.getId(), a.getId(), 2);
+		cartstore.flush();
+
+		List<Object[]> lines = cartdao.findLinesByUserId(user.getId());
+		assertEquals(1, lines.size());
+		assertEquals(3, lines.get(0)[2]);
+	}
+
+	private double expired(String table) {
+		return registry.get("greenora.cart.expired").tag("table", table).counter().count();
+	}
+
+	private void backdate(User user, int days) {
+		jdbcTemplate.update("update cart set updated_on = ? where user_id = ?",
+				LocalDateTime.now().minusDays(days), user.getId());
+	}
+}
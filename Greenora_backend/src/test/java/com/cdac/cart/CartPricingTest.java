@@ -0,0 +1,109 @@
+package com.cdac.cart;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.dao.CouponDao;
+import com.cdac.dao.PaymentOutboxDao;
+import com.cdac.dto.CartTotalsDto;
+import com.cdac.dto.PaymentResDto;
+import com.cdac.dto.ProductDto;
+import com.cdac.entities.Category;
+import com.cdac.entities.Coupon;
+import com.cdac.entities.Product;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+import com.cdac.service.CartService;
+import com.cdac.service.OrderService;
+import com.cdac.service.ProductService;
+
+@SpringBootTest(properties = "greenora.cart.flush-interval-ms=3600000")
+@ActiveProfiles("test")
+class CartPricingTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private CartService cartservice;
+	@Autowired
+	private CartStore cartstore;
+	@Autowired
+	private CartPersister persister;
+	@Autowired
+	private CartPricing pricing;
+	@Autowired
+	private ProductService productservice;
+	@Autowired
+	private OrderService orderservice;
+	@Autowired
+	private CouponDao coupondao;
+	@Autowired
+	private PaymentOutboxDao outboxdao;
+
+	@Test
+	void totalsFollowEditsAndPriceChangesBlockCheckout() {
+		User vendor = fixtures.user(UserRole.ROLE_VENDOR);
+		User buyer = fixtures.user(UserRole.ROLE_USER);
+		Category category = fixtures.category();
+		Product a = productservice.addProduct(category.getId(), fixtures.dto(vendor, 10.10, 50));
+		Product b = productservice.addProduct(category.getId(), fixtures.dto(vendor, 20, 50));
+		Coupon coupon = coupondao.save(new Coupon("SAVE5" + System.nanoTime() % 1000, 5, 30, true,
+				LocalDate.now().minusDays(1), LocalDate.now().plusDays(1)));
+
+		cartservice.addToCart(buyer.getId(), a.getId(), 2);
+		cartservice.addToCart(buyer.getId(), b.getId(), 1);
+		CartTotalsDto totals = cartservice.getCartTotals(buyer.getId(), coupon.getCouponCode());
+		assertEquals(3, totals.getItemCount());
+		assertEquals(4020, totals.getSubtotalPaise());
+		assertEquals(500, totals.getDiscountPaise());
+		assertEquals(3520, totals.getTotalPaise());
+		assertTrue(totals.getPriceChanged().isEmpty());
+
+		// below the coupon minimum once a line is removed
+		cartservice.removeFromCart(buyer.getId(), b.getId());
+		assertEquals(0, cartservice.getCartTotals(buyer.getId(), coupon.getCouponCode()).getDiscountPaise());
+		cartservice.addToCart(buyer.getId(), b.getId(), 1);
+
+		ProductDto repriced = fixtures.dto(vendor, 12, 50);
+		repriced.setName(a.getName());
+		productservice.updateProduct(a.getId(), repriced);
+		totals = cartservice.getCartTotals(buyer.getId(), null);
+		assertEquals(List.of(a.getId()), totals.getPriceChanged());
+		assertEquals(4020, totals.getSubtotalPaise());
+		assertThrows(InvalidInputException.class, () -> orderservice.placeOrder(buyer.getId(), null, coupon.getId()));
+
+		// a quantity change keeps the captured price , the line is still flagged and checkout still refused
+		cartservice.updateCartItem(buyer.getId(), a.getId(), 3);
+		totals = cartservice.getCartTotals(buyer.getId(), null);
+		assertEquals(List.of(a.getId()), totals.getPriceChanged());
+		assertEquals(5030, totals.getSubtotalPaise());
+		assertThrows(InvalidInputException.class, () -> orderservice.placeOrder(buyer.getId(), null, coupon.getId()));
+		cartservice.updateCartItem(buyer.getId(), a.getId(), 2);
+
+		// a cart read back from the DB compares against the catalog price in the same query
+		cartstore.flush();
+		CartSnapshot cold = new CartStore(persister, pricing, 64, 1000).get(buyer.getId());
+		assertEquals(Set.of(a.getId()), cold.stale());
+
+		cartservice.acceptCurrentPrices(buyer.getId());
+		totals = cartservice.getCartTotals(buyer.getId(), null);
+		assertTrue(totals.getPriceChanged().isEmpty());
+		assertEquals(4400, totals.getSubtotalPaise());
+
+		PaymentResDto order = orderservice.placeOrder(buyer.getId(), null, coupon.getId());
+		assertEquals(39.0, order.getAmount());
+		assertEquals(3900, outboxdao.findByOrderId(order.getId()).get().getAmountPaise());
+	}
+}
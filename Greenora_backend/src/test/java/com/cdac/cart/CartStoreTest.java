@@ -0,0 +1,175 @@
+package com.cdac.cart;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.dao.CartDao;
+import com.cdac.dao.OrderItemDao;
+import com.cdac.entities.Product;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+import com.cdac.service.CartService;
+import com.cdac.service.OrderService;
+
+@SpringBootTest(properties = "greenora.cart.flush-interval-ms=3600000")
+@ActiveProfiles("test")
+class CartStoreTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private CartStore cartstore;
+	@Autowired
+	private CartPersister persister;
+	@Autowired
+	private CartPricing pricing;
+	@Autowired
+	private CartService cartservice;
+	@Autowired
+	private OrderService orderservice;
+	@Autowired
+	private CartDao cartdao;
+	@Autowired
+	private OrderItemDao orderItemdao;
+
+	@Test
+	void concurrentEditsAreWrittenBehindOnce() throws InterruptedException {
+		User user = fixtures.user(UserRole.ROLE_USER);
+		Product a = fixtures.product(7, 500);
+		Product b = fixtures.product(7, 500);
+
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 50; i++)
+					cartservice.addToCart(user.getId(), a.getId(), 1);
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread thread : threads)
+			thread.join();
+		cartservice.addToCart(user.getId(), b.getId(), 3);
+
+		// nothing reaches the DB before the flush
+		assertTrue(cartdao.findLinesByUserId(user.getId()).isEmpty());
+		assertEquals(400, cartservice.getCartByUserId(user.getId()).getItems().get(0).getQuantity());
+		cartstore.flush();
+		assertEquals(0, cartstore.unsavedCount());
+		assertEquals(List.of(400, 3), quantities(user));
+
+		cartservice.updateCartItem(user.getId(), a.getId(), 5);
+		cartservice.removeFromCart(user.getId(), b.getId());
+		cartstore.flush();
+		assertEquals(List.of(5), quantities(user));
+	}
+
+	@Test
+	void evictedCartsAreReadBackWithTheirUnsavedEdits() {
+		// 64 stripes of one cart each - 80 users must evict some of them
+		CartStore small = new CartStore(persister, pricing, 64, 1000);
+		Product p = fixtures.product(7, 500);
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < 80; i++) {
+			User user = fixtures.user(UserRole.ROLE_USER);
+			users.add(user);
+			int quantity = i + 1;
+			small.update(user.getId(), lines -> lines.put(p.getId(), new CartLine(p.getId(), quantity, 7)));
+		}
+		for (int i = 0; i < users.size(); i++)
+			assertEquals(i + 1, small.get(users.get(i).getId()).lines().get(p.getId()).quantity());
+
+		assertEquals(80, small.flush());
+		// a fresh store has nothing in memory , every cart is read through from the DB
+		CartStore cold = new CartStore(persister, pricing, 64, 1000);
+		for (int i = 0; i < users.size(); i++) {
+			CartSnapshot cart = cold.get(users.get(i).getId());
+			assertNotNull(cart.cartId());
+			assertEquals(i + 1, cart.lines().get(p.getId()).quantity());
+		}
+	}
+
+	@Test
+	void newCartsFlushTheBacklogOnceItIsFull() {
+		CartStore capped = new CartStore(persister, pricing, 64, 10);
+		Product p = fixtures.product(7, 500);
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			User user = fixtures.user(UserRole.ROLE_USER);
+			users.add(user);
+			capped.update(user.getId(), lines -> lines.put(p.getId(), new CartLine(p.getId(), 1, 7)));
+			assertTrue(capped.unsavedCount() <= 10);
+		}
+		// an unsaved cart is edited in place , it does not add to the backlog
+		int before = capped.unsavedCount();
+		capped.update(users.get(24).getId(), lines -> lines.put(p.getId(), new CartLine(p.getId(), 2, 7)));
+		assertEquals(before, capped.unsavedCount());
+
+		capped.flush();
+		for (User user : users)
+			assertEquals(1, cartdao.findLinesByUserId(user.getId()).size());
+	}
+
+	@Test
+	void checkoutOrdersTheSnapshotAndEmptiesTheCart() {
+		User user = fixtures.user(UserRole.ROLE_USER);
+		Product a = fixtures.product(7, 10);
+		Product b = fixtures.product(7, 10);
+		cartservice.addToCart(user.getId(), a.getId(), 2);
+		cartstore.flush();
+		// b is only in memory when the order is placed
+		cartservice.addToCart(user.getId(), b.getId(), 1);
+
+		Long orderId = orderservice.placeOrder(user.getId(), null, null).getId();
+		assertEquals(2, orderItemdao.findAll().stream().filter(i -> i.getOrder().getId().equals(orderId)).count());
+		assertTrue(cartstore.get(user.getId()).isEmpty());
+		cartstore.flush();
+		assertTrue(quantities(user).isEmpty());
+	}
+
+	@Test
+	void totalsMoveByTheChangedLinesOnly() {
+		CartStore store = new CartStore(persister, pricing, 64, 1000);
+		long userId = fixtures.user(UserRole.ROLE_USER).getId();
+		assertTotals(store.update(userId, lines -> {
+			lines.put(1L, new CartLine(1L, 2, 10.10));
+			lines.put(2L, new CartLine(2L, 1, 20));
+			lines.put(3L, new CartLine(3L, 4, 0.99));
+		}));
+		assertTotals(store.update(userId, lines -> lines.merge(1L, new CartLine(1L, 3, 12),
+				(was, added) -> new CartLine(1L, was.quantity() + added.quantity(), added.price()))));
+		assertTotals(store.update(userId, lines -> lines.computeIfPresent(3L, (id, line) -> new CartLine(id, 1, 0.99))));
+		// changed and changed back within one edit
+		CartSnapshot before = store.update(userId, lines -> {
+			lines.remove(2L);
+			lines.put(2L, new CartLine(2L, 1, 20));
+		});
+		assertSame(before, store.update(userId, lines -> lines.put(3L, lines.get(3L))));
+		assertTotals(store.update(userId, lines -> lines.remove(2L)));
+		CartSnapshot cleared = store.update(userId, lines -> lines.clear());
+		assertEquals(0, cleared.subtotalPaise());
+		assertEquals(0, cleared.itemCount());
+	}
+
+	//carried forward totals must equal a full re-sum
+	private static void assertTotals(CartSnapshot cart) {
+		assertEquals(cart.lines().values().stream().mapToLong(CartLine::totalPaise).sum(), cart.subtotalPaise());
+		assertEquals(cart.lines().values().stream().mapToInt(CartLine::quantity).sum(), cart.itemCount());
+	}
+
+	private List<Integer> quantities(User user) {
+		return cartdao.findLinesByUserId(user.getId()).stream().filter(r -> r[1] != null)
+				.map(r -> (Integer) r[2]).toList();
+	}
+}
@@ -0,0 +1,98 @@
+package com.cdac.payment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.cdac.dao.PaymentDao;
+import com.cdac.dao.PaymentOutboxDao;
+import com.cdac.entities.OutboxStatus;
+import com.cdac.entities.PaymentOutbox;
+
+// the sweeper stays out of the way , rows are processed by hand
+@SpringBootTest(properties = "greenora.payment.sweep-interval-ms=3600000")
+@ActiveProfiles("test")
+class PaymentOutboxDispatcherTest {
+
+	@MockitoBean
+	private PaymentGateway gateway;
+
+	@Autowired
+	private PaymentOutboxDispatcher dispatcher;
+	@Autowired
+	private PaymentOutboxDao outboxdao;
+	@Autowired
+	private PaymentDao paymentdao;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void aSlowWorkerThatLostItsLeaseRecordsNothing() {
+		Long orderId = outbox();
+		long payments = paymentdao.count();
+		when(gateway.createOrder(anyLong(), anyString(), anyString())).thenAnswer(inv -> {
+			reclaim(orderId);
+			return "order_late";
+		});
+
+		dispatcher.process(orderId);
+
+		PaymentOutbox row = outboxdao.findByOrderId(orderId).orElseThrow();
+		assertEquals(OutboxStatus.IN_FLIGHT, row.getStatus());
+		assertNull(row.getGatewayOrderId());
+		assertEquals(0, row.getAttempts());
+		assertEquals(payments, paymentdao.count());
+	}
+
+	@Test
+	void aFailureAfterTheLeaseWasLostIsNotRecorded() {
+		Long orderId = outbox();
+		when(gateway.createOrder(anyLong(), anyString(), anyString())).thenAnswer(inv -> {
+			reclaim(orderId);
+			throw new IllegalStateException("gateway timeout");
+		});
+
+		dispatcher.process(orderId);
+
+		PaymentOutbox row = outboxdao.findByOrderId(orderId).orElseThrow();
+		assertEquals(OutboxStatus.IN_FLIGHT, row.getStatus());
+		assertEquals(0, row.getAttempts());
+		assertNull(row.getLastError());
+	}
+
+	@Test
+	void aFailureWithinTheLeaseIsRetriedLater() {
+		Long orderId = outbox();
+		when(gateway.createOrder(anyLong(), anyString(), anyString())).thenThrow(new IllegalStateException("down"));
+
+		dispatcher.process(orderId);
+
+		PaymentOutbox row = outboxdao.findByOrderId(orderId).orElseThrow();
+		assertEquals(OutboxStatus.PENDING, row.getStatus());
+		assertEquals(1, row.getAttempts());
+		assertEquals("down", row.getLastError());
+	}
+
+	// what another worker's claim does once the lease ran out
+	private void reclaim(Long orderId) {
+		jdbcTemplate.update("update payment_outbox set next_attempt_at = ? where order_id = ?",
+				LocalDateTime.now().plusMinutes(10), orderId);
+	}
+
+	private Long outbox() {
+		Long orderId = System.nanoTime();
+		outboxdao.save(new PaymentOutbox(orderId, 1000, "INR"));
+		return orderId;
+	}
+}
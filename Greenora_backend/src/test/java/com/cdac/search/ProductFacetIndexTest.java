@@ -0,0 +1,101 @@
+package com.cdac.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.dto.FacetQueryDto;
+import com.cdac.entities.Category;
+import com.cdac.entities.Product;
+import com.cdac.entities.StockStatus;
+
+class ProductFacetIndexTest {
+
+	private static Product product(long id, long categoryId, int eco, double price, StockStatus stock) {
+		Category c = new Category();
+		c.setId(categoryId);
+		Product p = new Product();
+		p.setId(id);
+		p.setCategory(c);
+		p.setEcoRating(eco);
+		p.setPrice(price);
+		p.setStockStatus(stock);
+		p.setActive(true);
+		return p;
+	}
+
+	@Test
+	void intersectsFacetsAndCountsOtherFacets() {
+		ProductFacetIndex index = new ProductFacetIndex();
+		index.rebuild(List.of(product(1, 10, 5, 50, StockStatus.IN_STOCK),
+				product(2, 10, 3, 250, StockStatus.IN_STOCK),
+				product(3, 20, 5, 80, StockStatus.OUT_OF_STOCK),
+				product(4, 20, 5, 90, StockStatus.IN_STOCK)));
+
+		FacetQueryDto q = new FacetQueryDto();
+		q.setEcoRating(List.of(5));
+		q.setStockStatus(List.of(StockStatus.IN_STOCK));
+		ProductFacetIndex.Result r = index.query(q, 10);
+
+		assertEquals(List.of(1L, 4L), r.ids());
+		assertEquals(2, r.total());
+		assertEquals(Map.of("10", 1, "20", 1), r.facets().get(ProductFacetIndex.CATEGORY));
+		// eco rating counts ignore the eco rating selection itself
+		assertEquals(Map.of("5", 2, "3", 1), r.facets().get(ProductFacetIndex.ECO_RATING));
+	}
+
+	@Test
+	void movesBitsOnUpdate() {
+		ProductFacetIndex index = new ProductFacetIndex();
+		index.rebuild(List.of(product(1, 10, 5, 50, StockStatus.IN_STOCK)));
+		index.index(product(1, 10, 5, 50, StockStatus.OUT_OF_STOCK));
+
+		FacetQueryDto q = new FacetQueryDto();
+		q.setStockStatus(List.of(StockStatus.IN_STOCK));
+		assertEquals(0, index.query(q, 10).total());
+
+		index.remove(1L);
+		assertEquals(0, index.query(new FacetQueryDto(), 10).total());
+	}
+
+	@Test
+	void pricesOutsideEveryBandGetNoPriceFacet() {
+		ProductFacetIndex index = new ProductFacetIndex();
+		index.rebuild(List.of(product(1, 10, 5, 50, StockStatus.IN_STOCK),
+				product(2, 10, 5, -1, StockStatus.IN_STOCK),
+				product(3, 10, 5, Double.NaN, StockStatus.IN_STOCK),
+				product(4, 10, 5, 9000, StockStatus.IN_STOCK)));
+
+		ProductFacetIndex.Result r = index.query(new FacetQueryDto(), 10);
+		assertEquals(List.of(1L, 2L, 3L, 4L), r.ids());
+		assertEquals(Map.of("UNDER_100", 1, "ABOVE_5000", 1), r.facets().get(ProductFacetIndex.PRICE_BAND));
+
+		FacetQueryDto q = new FacetQueryDto();
+		q.setPriceBand(List.of(PriceBand.ABOVE_5000));
+		assertEquals(List.of(4L), index.query(q, 10).ids());
+		index.remove(2L);
+		assertEquals(3, index.query(new FacetQueryDto(), 10).total());
+	}
+
+	@Test
+	void pagesAfterIdAndRejectsIdsOutsideTheBitRange() {
+		ProductFacetIndex index = new ProductFacetIndex();
+		index.rebuild(List.of(product(1, 10, 5, 50, StockStatus.IN_STOCK),
+				product(2, 10, 5, 50, StockStatus.IN_STOCK),
+				product(3, 10, 5, 50, StockStatus.IN_STOCK)));
+
+		FacetQueryDto q = new FacetQueryDto();
+		q.setAfterId(1L);
+		assertEquals(List.of(2L, 3L), index.query(q, 10).ids());
+
+		for (long bad : new long[] { -1, -5, Integer.MAX_VALUE, Integer.MAX_VALUE + 1L, Long.MAX_VALUE }) {
+			q.setAfterId(bad);
+			assertThrows(InvalidInputException.class, () -> index.query(q, 10));
+		}
+	}
+}
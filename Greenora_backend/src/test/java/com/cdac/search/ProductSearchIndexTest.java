@@ -0,0 +1,55 @@
+package com.cdac.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.cdac.dto.ProductSearchHitDto;
+import com.cdac.entities.Product;
+
+class ProductSearchIndexTest {
+
+	private static Product product(long id, String name, String description) {
+		Product p = new Product();
+		p.setId(id);
+		p.setName(name);
+		p.setDescription(description);
+		p.setActive(true);
+		return p;
+	}
+
+	@Test
+	void analyzerFoldsCaseAndStems() {
+		assertEquals(List.of("bamboo", "toothbrush", "bag"), TextAnalyzer.analyze("Bamboo TOOTHBRUSHES, the Bags"));
+	}
+
+	@Test
+	void ranksNameHitsAboveDescriptionHits() {
+		ProductSearchIndex index = new ProductSearchIndex();
+		index.rebuild(List.of(product(1, "Cotton Tote", "reusable bag made from bamboo fibre"),
+				product(2, "Bamboo Toothbrush", "biodegradable handle"),
+				product(3, "Steel Bottle", "keeps water cold")));
+
+		List<ProductSearchHitDto> hits = index.search("bamboo", 10);
+		assertEquals(2, hits.size());
+		assertEquals(2L, hits.get(0).getId());
+		assertEquals(1L, hits.get(1).getId());
+	}
+
+	@Test
+	void appliesIncrementalUpdatesAndDeletes() {
+		ProductSearchIndex index = new ProductSearchIndex();
+		index.rebuild(List.of(product(1, "Steel Bottle", "keeps water cold")));
+
+		index.index(product(1, "Glass Jar", "airtight"));
+		assertTrue(index.search("bottle", 10).isEmpty());
+		assertEquals(1, index.search("jars", 10).size());
+
+		index.remove(1L);
+		assertTrue(index.search("jar", 10).isEmpty());
+		assertEquals(0, index.size());
+	}
+}
@@ -0,0 +1,51 @@
+package com.cdac.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.cdac.dto.SuggestionDto;
+import com.cdac.entities.Product;
+
+class ProductSuggestTrieTest {
+
+	private static Product product(long id, String name) {
+		Product p = new Product();
+		p.setId(id);
+		p.setName(name);
+		p.setActive(true);
+		return p;
+	}
+
+	@Test
+	void returnsCompletionsByPopularity() {
+		ProductSuggestTrie trie = new ProductSuggestTrie();
+		trie.rebuild(List.of(product(1, "Bamboo Brush"), product(2, "Bamboo Straw"), product(3, "Bag")),
+				Map.of(2L, 5L, 3L, 1L));
+
+		List<String> names = trie.suggest("BA", 10).stream().map(SuggestionDto::getName).toList();
+		assertEquals(List.of("Bamboo Straw", "Bag", "Bamboo Brush"), names);
+		assertEquals(1, trie.suggest("bamboo s", 10).size());
+		assertTrue(trie.suggest("x", 10).isEmpty());
+	}
+
+	@Test
+	void updatesOnRenameRemoveAndOrders() {
+		ProductSuggestTrie trie = new ProductSuggestTrie();
+		trie.rebuild(List.of(product(1, "Bamboo Brush"), product(2, "Bamboo Straw")), Map.of());
+
+		trie.addPopularity(1L, 3);
+		assertEquals(1L, trie.suggest("bam", 1).get(0).getProductId());
+
+		trie.index(product(1, "Cotton Bag"));
+		assertEquals(3, trie.suggest("cot", 1).get(0).getPopularity());
+		assertEquals(1, trie.suggest("bam", 10).size());
+
+		trie.remove(2L);
+		assertTrue(trie.suggest("b", 10).isEmpty());
+	}
+}
@@ -0,0 +1,62 @@
+package com.cdac.security;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.cdac.TestFixtures;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class VendorAccessTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void vendorsReadOnlyTheirOwnSales() throws Exception {
+		User vendor = fixtures.user(UserRole.ROLE_VENDOR);
+		User other = fixtures.user(UserRole.ROLE_VENDOR);
+		String own = "/sales/vendor/" + vendor.getId() + "?from=2026-01-01&to=2026-01-31";
+		String others = "/sales/vendor/" + other.getId() + "?from=2026-01-01&to=2026-01-31";
+
+		mvc.perform(as(get(own), vendor)).andExpect(status().isOk());
+		mvc.perform(as(get(others), vendor)).andExpect(status().isForbidden());
+		mvc.perform(as(get(others), fixtures.user(UserRole.ROLE_USER))).andExpect(status().isForbidden());
+		mvc.perform(as(get(others), fixtures.user(UserRole.ROLE_ADMIN))).andExpect(status().isOk());
+	}
+
+	@Test
+	void vendorsReadOnlyTheirOwnViewCounts() throws Exception {
+		User vendor = fixtures.user(UserRole.ROLE_VENDOR);
+		User other = fixtures.user(UserRole.ROLE_VENDOR);
+
+		mvc.perform(as(get("/products/vendor/" + vendor.getId() + "/views"), vendor)).andExpect(status().isOk());
+		mvc.perform(as(get("/products/vendor/" + other.getId() + "/views"), vendor)).andExpect(status().isForbidden());
+		mvc.perform(as(get("/products/vendor/" + other.getId() + "/views"), fixtures.user(UserRole.ROLE_ADMIN)))
+				.andExpect(status().isOk());
+	}
+
+	// what the JWT filter puts in the context : the email and the role
+	private static MockHttpServletRequestBuilder as(MockHttpServletRequestBuilder request, User user) {
+		return request.with(authentication(new UsernamePasswordAuthenticationToken(user.getEmail(), null,
+				List.of(new SimpleGrantedAuthority(user.getRole().name())))));
+	}
+}
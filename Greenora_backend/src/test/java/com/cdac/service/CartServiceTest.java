@@ -0,0 +1,96 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.cart.CartLine;
+import com.cdac.cart.CartStore;
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.custom_exception.ResourseNotFoundException;
+import com.cdac.dao.ProductDao;
+import com.cdac.dto.CartOpDto;
+import com.cdac.entities.Cart;
+import com.cdac.entities.Product;
+import com.cdac.entities.UserRole;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = { "spring.jpa.properties.hibernate.generate_statistics=true",
+		"greenora.cart.flush-interval-ms=3600000" })
+@ActiveProfiles("test")
+class CartServiceTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private CartService cartservice;
+	@Autowired
+	private CartStore cartstore;
+	@Autowired
+	private ProductDao productdao;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void batchOpsAreAppliedTogether() {
+		Long userId = fixtures.user(UserRole.ROLE_USER).getId();
+		Product a = fixtures.product(10, 10);
+		Product b = fixtures.product(20, 10);
+		Product c = fixtures.product(30, 10);
+		cartservice.addToCart(userId, a.getId(), 1);
+
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+		Cart cart = cartservice.applyCartOps(userId, List.of(new CartOpDto(a.getId(), null, 2),
+				new CartOpDto(b.getId(), 4, null), new CartOpDto(c.getId(), null, 1), new CartOpDto(c.getId(), 0, null)));
+		// the products of every op in one select
+		assertEquals(1, stats.getPrepareStatementCount());
+		assertEquals(List.of(a.getId() + ":3", b.getId() + ":4"), lines(cart));
+
+		// one bad op rejects the whole batch
+		assertThrows(ResourseNotFoundException.class, () -> cartservice.applyCartOps(userId,
+				List.of(new CartOpDto(a.getId(), null, 1), new CartOpDto(-1L, 1, null))));
+		assertThrows(InvalidInputException.class,
+				() -> cartservice.applyCartOps(userId, List.of(new CartOpDto(a.getId(), 1, 1))));
+		assertEquals(List.of(a.getId() + ":3", b.getId() + ":4"), lines(cartservice.getCartByUserId(userId)));
+
+		cart = cartservice.applyCartOps(userId, List.of(new CartOpDto(a.getId(), null, -3)));
+		assertEquals(List.of(b.getId() + ":4"), lines(cart));
+	}
+
+	@Test
+	void linesOfDeletedProductsAreSkippedAndCanBeRemoved() {
+		Long userId = fixtures.user(UserRole.ROLE_USER).getId();
+		Product kept = fixtures.product(10, 10);
+		Product gone = fixtures.product(20, 10);
+		cartservice.addToCart(userId, kept.getId(), 1);
+		// added before the product was deleted , never read through the product cache
+		cartstore.update(userId, lines -> lines.put(gone.getId(), new CartLine(gone.getId(), 2, 20)));
+		productdao.delete(gone);
+
+		assertEquals(List.of(kept.getId() + ":1"), lines(cartservice.getCartByUserId(userId)));
+		cartservice.removeFromCart(userId, gone.getId());
+		assertFalse(cartstore.get(userId).lines().containsKey(gone.getId()));
+		// neither in the cart nor in the catalog
+		assertThrows(ResourseNotFoundException.class, () -> cartservice.removeFromCart(userId, gone.getId()));
+		assertThrows(ResourseNotFoundException.class, () -> cartservice.removeFromCart(userId, -1L));
+		// in the catalog , just not in the cart
+		cartservice.removeFromCart(userId, fixtures.product(30, 10).getId());
+		assertEquals(List.of(kept.getId() + ":1"), lines(cartservice.getCartByUserId(userId)));
+	}
+
+	private static List<String> lines(Cart cart) {
+		return cart.getItems().stream().map(i -> i.getProduct().getId() + ":" + i.getQuantity()).toList();
+	}
+}
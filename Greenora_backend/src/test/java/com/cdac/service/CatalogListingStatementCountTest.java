@@ -0,0 +1,97 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.dao.ProductDao;
+import com.cdac.dao.UserDao;
+import com.cdac.dto.ProductSummaryDto;
+import com.cdac.entities.Category;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * catalog listings are one select whatever the number of categories / vendors behind them ,
+ * and the summary JSON carries no vendor account data
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class CatalogListingStatementCountTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private ProductService productservice;
+	@Autowired
+	private ProductDao productdao;
+	@Autowired
+	private UserDao userdao;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void listingsAreOneStatementAndLeanPayloads() throws Exception {
+		// 4 categories x 3 vendors , every product with its own pair
+		Category first = null;
+		User firstVendor = null;
+		Long productId = null;
+		for (int c = 0; c < 4; c++) {
+			Category category = fixtures.category();
+			if (first == null)
+				first = category;
+			for (int v = 0; v < 3; v++) {
+				User vendor = fixtures.user(UserRole.ROLE_VENDOR);
+				// a phone the payloads must not leak
+				vendor.setPhone("9999999999");
+				vendor = userdao.save(vendor);
+				Long id = productservice.addProduct(category.getId(), fixtures.dto(vendor, 25, 10)).getId();
+				if (firstVendor == null) {
+					firstVendor = vendor;
+					productId = id;
+				}
+			}
+		}
+		Long categoryId = first.getId();
+		Long vendorId = firstVendor.getId();
+
+		assertOneStatement(() -> productservice.getAllProducts());
+		assertOneStatement(() -> productservice.getProductsByCategoryId(categoryId));
+		assertOneStatement(() -> productservice.getByVendorId(vendorId));
+		assertOneStatement(() -> productservice.getProductPage("price", 50, null).getItems());
+
+		String summary = objectMapper.writeValueAsString(productservice.getProductsByCategoryId(categoryId).get(0));
+		for (String field : List.of("password", "email", "authorities", "myAddress", "phone"))
+			assertFalse(summary.contains("\"" + field + "\""), field);
+		assertTrue(summary.contains("\"category\":{"));
+		assertTrue(summary.contains("\"vendor\":{"));
+
+		// the entity response a listing used to send for the same product
+		String entity = objectMapper.writeValueAsString(productdao.findById(productId).orElseThrow());
+		String lean = objectMapper.writeValueAsString(productservice.getByVendorId(vendorId).get(0));
+		assertTrue(lean.length() * 2 < entity.length(), lean.length() + " vs " + entity.length());
+	}
+
+	private void assertOneStatement(Supplier<List<ProductSummaryDto>> listing) {
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+		assertFalse(listing.get().isEmpty());
+		assertEquals(1, stats.getPrepareStatementCount());
+	}
+}
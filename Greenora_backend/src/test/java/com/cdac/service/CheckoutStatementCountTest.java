@@ -0,0 +1,82 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.cdac.TestFixtures;
+import com.cdac.dao.CartDao;
+import com.cdac.dao.CartItemDao;
+import com.cdac.entities.Cart;
+import com.cdac.entities.CartItem;
+import com.cdac.entities.Product;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+import com.cdac.payment.PaymentOutboxDispatcher;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// statements sent to the DB by one checkout of a 30 line cart
+// cart write-behind only runs when flushed by hand
+@SpringBootTest(properties = { "spring.jpa.properties.hibernate.generate_statistics=true",
+		"greenora.cart.flush-interval-ms=3600000" })
+@ActiveProfiles("test")
+class CheckoutStatementCountTest {
+	private static final int LINES = 30;
+	// IDENTITY ids and a save per line cost two statements per line on top of the fixed part
+	private static final int PER_LINE_SAVE_STATEMENTS = 2 * LINES + 7;
+	// one stock reservation per line , the rest (ids , batched inserts , cart read and clear) is fixed
+	private static final int BATCHED_STATEMENTS = LINES + 7;
+
+	// keeps the async gateway worker out of the statistics
+	@MockitoBean
+	private PaymentOutboxDispatcher dispatcher;
+	// after-commit rollup upserts are not part of the checkout transaction
+	@MockitoBean
+	private SalesRollupListener rollupListener;
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private OrderService orderservice;
+	@Autowired
+	private CartDao cartdao;
+	@Autowired
+	private CartItemDao cartitemdao;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void checkoutStatementsDoNotGrowPerLine() {
+		User user = fixtures.user(UserRole.ROLE_USER);
+		Cart cart = cartdao.save(new Cart(user));
+		for (int i = 0; i < LINES; i++) {
+			Product product = fixtures.product(10 + i, 100);
+
+			CartItem item = new CartItem();
+			item.setCart(cart);
+			item.setProduct(product);
+			item.setQuantity(1);
+			item.setPrice(product.getPrice());
+			cartitemdao.save(item);
+		}
+
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+		orderservice.placeOrder(user.getId(), null, null);
+
+		long statements = stats.getPrepareStatementCount();
+		assertEquals(BATCHED_STATEMENTS, statements);
+		assertTrue(statements < PER_LINE_SAVE_STATEMENTS);
+		// the order , its lines and the payment outbox row , the cart is cleared by one bulk delete
+		assertEquals(LINES + 2, stats.getEntityInsertCount());
+		assertEquals(0, stats.getEntityDeleteCount());
+	}
+}
@@ -0,0 +1,105 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.dto.ExportFormat;
+
+/*
+ * runs in the lowmem surefire execution (-Xmx128m) : millions of rows in a disk backed H2 ,
+ * an export that buffered them would not fit in the heap
+ */
+@Tag("lowmem")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:file:./target/h2-export/db;MODE=MySQL;LOCK_TIMEOUT=10000")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportStreamingTest {
+	private static final int ROWS = 3_000_000;
+	private static final int PAYMENT_ROWS = 200_000;
+	private static final int CHUNK = 200_000;
+
+	@Autowired
+	private ExportService exportservice;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	//counts bytes and newlines , keeps nothing
+	private static class CountingOutputStream extends OutputStream {
+		long bytes;
+		long lines;
+
+		@Override
+		public void write(int b) {
+			bytes++;
+			if (b == '\n')
+				lines++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			bytes += len;
+			for (int i = off; i < off + len; i++)
+				if (b[i] == '\n')
+					lines++;
+		}
+	}
+
+	// generated inside H2 in auto-committed chunks , nothing passes through the test heap
+	@BeforeAll
+	void syntheticRows() {
+		jdbcTemplate.update("insert into users (id, name, email, password, role) values (1, 'finance', 'fin@x.in', 'x', 'ROLE_USER')");
+		// the export reads in primary key order , the search indexes only slow the bulk load down
+		for (String index : new String[] { "idx_orders_date_id", "idx_orders_status_date_id", "idx_orders_user_date_id" })
+			jdbcTemplate.execute("drop index if exists " + index);
+		for (int from = 1; from <= ROWS; from += CHUNK)
+			jdbcTemplate.update("insert into orders (id, total_amt, order_date, delivery_status, delivery_date, user_id) "
+					+ "select x, mod(x, 1000) + 0.5, dateadd('DAY', mod(x, 365), date '2024-01-01'), 'DELIVERED', "
+					+ "dateadd('DAY', mod(x, 365) + 7, date '2024-01-01'), 1 from system_range(?, ?)", from, from + CHUNK - 1);
+		jdbcTemplate.update("insert into payment (id, order_id, method, status, transaction_id, amount, datetime) "
+				+ "select x, x, 'UPI', 'COMPLETED', concat('pay_', x), mod(x, 1000) + 0.5, timestamp '2024-01-01 10:00:00' "
+				+ "from system_range(1, ?)", PAYMENT_ROWS);
+	}
+
+	@Test
+	void exportsMillionsOfOrdersWithConstantHeap() throws IOException {
+		CountingOutputStream out = new CountingOutputStream();
+		long rows = exportservice.exportOrders(ExportFormat.CSV, false, out);
+
+		assertEquals(ROWS, rows);
+		assertEquals(ROWS + 1, out.lines); // + header
+		long maxHeap = Runtime.getRuntime().maxMemory();
+		assertTrue(out.bytes > maxHeap, "export (" + out.bytes + " bytes) should be larger than the heap (" + maxHeap + ")");
+	}
+
+	@Test
+	void exportsPaymentsAsGzippedJsonLines() throws IOException {
+		ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+		long rows = exportservice.exportPayments(ExportFormat.JSONL, true, zipped);
+		assertEquals(PAYMENT_ROWS, rows);
+
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(
+				new GZIPInputStream(new ByteArrayInputStream(zipped.toByteArray())), StandardCharsets.UTF_8))) {
+			String first = in.readLine();
+			assertTrue(first.startsWith("{\"id\":1,\"orderId\":1,\"method\":\"UPI\""), first);
+			assertEquals(PAYMENT_ROWS - 1, in.lines().count());
+		}
+	}
+}
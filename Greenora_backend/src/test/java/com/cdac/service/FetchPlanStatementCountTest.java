@@ -0,0 +1,100 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.cdac.TestFixtures;
+import com.cdac.dto.CartOpDto;
+import com.cdac.dto.OrderResDto;
+import com.cdac.entities.Cart;
+import com.cdac.entities.Category;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+import com.cdac.payment.PaymentOutboxDispatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * statements behind GET /cart/{userId} (cold product cache) and GET /orders/user/{userId} ,
+ * for a small and a large cart - lazy associations + fetch plans keep both flat.
+ * the responses are serialized outside any transaction , as the controllers do
+ */
+@SpringBootTest(properties = { "spring.jpa.properties.hibernate.generate_statistics=true",
+		"greenora.cart.flush-interval-ms=3600000" })
+@ActiveProfiles("test")
+class FetchPlanStatementCountTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@MockitoBean
+	private PaymentOutboxDispatcher dispatcher;
+	@MockitoBean
+	private SalesRollupListener rollupListener;
+
+	@Autowired
+	private CartService cartservice;
+	@Autowired
+	private OrderService orderservice;
+	@Autowired
+	private ProductService productservice;
+	@Autowired
+	private CacheManager cacheManager;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void cartAndOrderReadsDoNotGrowWithLines() throws Exception {
+		User vendor = fixtures.user(UserRole.ROLE_VENDOR);
+		List<Long> products = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			// a category per product so nothing is shared between the lines
+			Category category = fixtures.category();
+			products.add(productservice.addProduct(category.getId(), fixtures.dto(vendor, 10, 50)).getId());
+		}
+
+		long[] small = reads(products.subList(0, 2));
+		long[] large = reads(products);
+		assertEquals(1, small[0], "GET /cart statements");
+		assertEquals(small[0], large[0], "GET /cart statements");
+		assertEquals(1, small[1], "GET /orders/user statements");
+		assertEquals(small[1], large[1], "GET /orders/user statements");
+	}
+
+	private long[] reads(List<Long> productIds) throws Exception {
+		User buyer = fixtures.user(UserRole.ROLE_USER);
+		List<CartOpDto> ops = new ArrayList<>();
+		for (Long id : productIds)
+			ops.add(new CartOpDto(id, 1, null));
+		cartservice.applyCartOps(buyer.getId(), ops);
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		cacheManager.getCache(ProductCacheListener.PRODUCTS_CACHE).clear();
+		stats.clear();
+		Cart cart = cartservice.getCartByUserId(buyer.getId());
+		objectMapper.writeValueAsString(cart);
+		long cartStatements = stats.getPrepareStatementCount();
+		assertEquals(productIds.size(), cart.getItems().size());
+
+		orderservice.placeOrder(buyer.getId(), null, null);
+		stats.clear();
+		List<OrderResDto> orders = orderservice.getOrdersByUser(buyer.getId());
+		objectMapper.writeValueAsString(orders);
+		long orderStatements = stats.getPrepareStatementCount();
+		assertEquals(productIds.size(), orders.get(0).getOrderItems().size());
+		return new long[] { cartStatements, orderStatements };
+	}
+}
@@ -0,0 +1,128 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.dao.IdempotencyRecordDao;
+import com.cdac.entities.IdempotencyRecord;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+	@Autowired
+	private IdempotencyService idempotencyservice;
+	@Autowired
+	private IdempotencyRecordDao recorddao;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void concurrentDuplicatesExecuteOnce() throws Exception {
+		String key = UUID.randomUUID().toString();
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<ResponseEntity<?>>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				return idempotencyservice.execute(key, "test", Map.of("order", 1), () -> {
+					executions.incrementAndGet();
+					sleep(200);
+					return ResponseEntity.ok(Map.of("id", 42));
+				});
+			}));
+		}
+		start.countDown();
+		for (Future<ResponseEntity<?>> f : futures)
+			assertEquals(HttpStatus.OK, f.get().getStatusCode());
+		pool.shutdown();
+
+		assertEquals(1, executions.get());
+		ResponseEntity<?> retry = idempotencyservice.execute(key, "test", Map.of("order", 1), () -> {
+			throw new AssertionError("retry must not execute");
+		});
+		assertEquals("true", retry.getHeaders().getFirst(IdempotencyServiceImpl.REPLAYED_HEADER));
+		assertEquals("{\"id\":42}", retry.getBody());
+	}
+
+	@Test
+	void keyReusedForDifferentRequestIsRejected() {
+		String key = UUID.randomUUID().toString();
+		idempotencyservice.execute(key, "test", Map.of("order", 1), () -> ResponseEntity.ok("first"));
+
+		ResponseEntity<?> other = idempotencyservice.execute(key, "test", Map.of("order", 2),
+				() -> ResponseEntity.ok("second"));
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, other.getStatusCode());
+	}
+
+	@Test
+	void failuresAreNotRemembered() {
+		String key = UUID.randomUUID().toString();
+		assertThrows(InvalidInputException.class, () -> idempotencyservice.execute(key, "test", "req", () -> {
+			throw new InvalidInputException("out of stock");
+		}));
+
+		ResponseEntity<?> retry = idempotencyservice.execute(key, "test", "req", () -> ResponseEntity.ok("done"));
+		assertNull(retry.getHeaders().getFirst(IdempotencyServiceImpl.REPLAYED_HEADER));
+		assertEquals("done", retry.getBody());
+	}
+
+	@Test
+	void claimsOlderThanTheLeaseAreTakenOver() {
+		String key = UUID.randomUUID().toString();
+		// a request that died with its node after claiming the key
+		recorddao.save(new IdempotencyRecord("test:" + key, "f", LocalDateTime.now().plusHours(1)));
+		assertEquals(HttpStatus.CONFLICT,
+				idempotencyservice.execute(key, "test", "req", () -> ResponseEntity.ok("too early")).getStatusCode());
+
+		jdbcTemplate.update("update idempotency_record set updated_on = ? where idem_key = ?",
+				LocalDateTime.now().minusMinutes(10), "test:" + key);
+		ResponseEntity<?> taken = idempotencyservice.execute(key, "test", "req", () -> ResponseEntity.ok("done"));
+		assertEquals("done", taken.getBody());
+		assertNull(taken.getHeaders().getFirst(IdempotencyServiceImpl.REPLAYED_HEADER));
+	}
+
+	@Test
+	void expiredResponsesAreNotReplayed() {
+		String key = UUID.randomUUID().toString();
+		IdempotencyRecord record = new IdempotencyRecord("test:" + key, "f", LocalDateTime.now().minusMinutes(1));
+		record.setStatus(200);
+		record.setBody("\"old\"");
+		recorddao.save(record);
+
+		ResponseEntity<?> fresh = idempotencyservice.execute(key, "test", "req", () -> ResponseEntity.ok("new"));
+		assertEquals("new", fresh.getBody());
+		assertNull(fresh.getHeaders().getFirst(IdempotencyServiceImpl.REPLAYED_HEADER));
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
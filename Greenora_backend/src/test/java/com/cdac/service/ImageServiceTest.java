@@ -0,0 +1,134 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.custom_exception.ResourseNotFoundException;
+import com.cdac.dto.ImageUploadDto;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImageServiceTest {
+
+	@Autowired
+	private ImageService imageservice;
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void identicalUploadsAreStoredOnceUnderTheirHash() throws Exception {
+		byte[] png = png(40, 20, 0x00ff00);
+		// the type is taken from the bytes , not from the file name or content type
+		ImageUploadDto first = imageservice.store(new MockMultipartFile("file", "a.jpg", "image/jpeg", png));
+		ImageUploadDto second = imageservice.store(new MockMultipartFile("file", "b.png", "image/png", png));
+
+		assertEquals(first.getUrl(), second.getUrl());
+		assertTrue(first.getUrl().endsWith(".png"));
+		String fileName = fileName(first.getUrl());
+		Path stored = imageservice.resolve(fileName);
+		assertArrayEquals(png, Files.readAllBytes(stored));
+		assertEquals(stored.getParent().getParent().getFileName() + "" + stored.getParent().getFileName(),
+				fileName.substring(0, 4));
+
+		ImageUploadDto other = imageservice.store(new MockMultipartFile("file", "c.png", "image/png", png(40, 20, 0xff0000)));
+		assertNotEquals(first.getUrl(), other.getUrl());
+
+		// rendered in the background
+		Path thumb = null;
+		for (int i = 0; i < 50 && thumb == null; i++) {
+			try {
+				thumb = imageservice.resolve(fileName(first.getThumbnailUrl()));
+			} catch (ResourseNotFoundException e) {
+				Thread.sleep(100);
+			}
+		}
+		assertNotNull(thumb);
+		assertTrue(Files.size(thumb) > 0);
+	}
+
+	@Test
+	void rejectsNonImagesAndUnknownNames() {
+		assertThrows(InvalidInputException.class, () -> imageservice
+				.store(new MockMultipartFile("file", "x.png", "image/png", "not an image".getBytes())));
+		assertThrows(ResourseNotFoundException.class, () -> imageservice.resolve("../../etc/passwd"));
+		assertThrows(ResourseNotFoundException.class, () -> imageservice.resolve("0".repeat(64) + ".png"));
+	}
+
+	@Test
+	void servesEtagsAndByteRanges() throws Exception {
+		byte[] png = png(64, 64, 0x123456);
+		String url = imageservice.store(new MockMultipartFile("file", "r.png", "image/png", png)).getUrl();
+		String etag = "\"" + fileName(url).substring(0, 64) + "\"";
+		int length = png.length;
+
+		byte[] full = mvc.perform(get(url)).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+				.andReturn().getResponse().getContentAsByteArray();
+		assertArrayEquals(png, full);
+
+		mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+		mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"other\"")).andExpect(status().isOk());
+
+		byte[] part = mvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=2-9")).andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-9/" + length))
+				.andReturn().getResponse().getContentAsByteArray();
+		assertArrayEquals(Arrays.copyOfRange(png, 2, 10), part);
+
+		byte[] suffix = mvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=-5")).andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes " + (length - 5) + "-" + (length - 1) + "/" + length))
+				.andReturn().getResponse().getContentAsByteArray();
+		assertArrayEquals(Arrays.copyOfRange(png, length - 5, length), suffix);
+
+		byte[] open = mvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=10-")).andExpect(status().isPartialContent())
+				.andReturn().getResponse().getContentAsByteArray();
+		assertArrayEquals(Arrays.copyOfRange(png, 10, length), open);
+
+		mvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=" + length + "-"))
+				.andExpect(status().isRequestedRangeNotSatisfiable())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + length));
+		mvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=x-1")).andExpect(status().isRequestedRangeNotSatisfiable());
+	}
+
+	private static String fileName(String url) {
+		return url.substring(url.lastIndexOf('/') + 1);
+	}
+
+	private static byte[] png(int width, int height, int rgb) throws IOException {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int x = 0; x < width; x++)
+			for (int y = 0; y < height; y++)
+				image.setRGB(x, y, rgb ^ (x * y));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,86 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.dao.ProductDao;
+import com.cdac.entities.Product;
+import com.cdac.entities.StockStatus;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryServiceTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private InventoryService inventoryservice;
+
+	@Autowired
+	private ProductDao productdao;
+
+	@Test
+	void concurrentReservationsNeverOversell() throws Exception {
+		int stock = 200;
+		int threads = 32;
+		int attemptsPerThread = 25;
+		Long id = fixtures.product(10, stock).getId();
+
+		AtomicInteger reserved = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < attemptsPerThread; i++) {
+					try {
+						inventoryservice.reserve(Map.of(id, 1));
+						reserved.incrementAndGet();
+					} catch (InvalidInputException e) {
+						rejected.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> f : futures)
+			f.get();
+		pool.shutdown();
+
+		Product after = productdao.findById(id).orElseThrow();
+		assertEquals(stock, reserved.get());
+		assertEquals(threads * attemptsPerThread - stock, rejected.get());
+		assertEquals(0, after.getQuantity());
+		assertEquals(StockStatus.OUT_OF_STOCK, after.getStockStatus());
+	}
+
+	@Test
+	void failedLineRollsBackWholeReservation() {
+		Long plenty = fixtures.product(10, 10).getId();
+		Long scarce = fixtures.product(10, 1).getId();
+
+		assertThrows(InvalidInputException.class, () -> inventoryservice.reserve(Map.of(plenty, 3, scarce, 2)));
+
+		assertEquals(10, productdao.findById(plenty).orElseThrow().getQuantity());
+		assertEquals(1, productdao.findById(scarce).orElseThrow().getQuantity());
+	}
+}
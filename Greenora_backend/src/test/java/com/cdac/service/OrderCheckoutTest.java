@@ -0,0 +1,76 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.dao.CartDao;
+import com.cdac.dao.CartItemDao;
+import com.cdac.dao.OrderDao;
+import com.cdac.dao.PaymentDao;
+import com.cdac.dao.ProductDao;
+import com.cdac.dto.GatewayOrderDto;
+import com.cdac.dto.PaymentResDto;
+import com.cdac.entities.Cart;
+import com.cdac.entities.CartItem;
+import com.cdac.entities.OutboxStatus;
+import com.cdac.entities.Payment;
+import com.cdac.entities.Product;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderCheckoutTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private OrderService orderservice;
+	@Autowired
+	private ProductDao productdao;
+	@Autowired
+	private CartDao cartdao;
+	@Autowired
+	private CartItemDao cartitemdao;
+	@Autowired
+	private OrderDao orderdao;
+	@Autowired
+	private PaymentDao paymentdao;
+
+	@Test
+	void gatewayOrderIsCreatedAfterCommit() throws InterruptedException {
+		User user = fixtures.user(UserRole.ROLE_USER);
+		Product product = fixtures.product(120, 5);
+
+		Cart cart = cartdao.save(new Cart(user));
+		CartItem item = new CartItem();
+		item.setCart(cart);
+		item.setProduct(product);
+		item.setQuantity(2);
+		item.setPrice(120);
+		cartitemdao.save(item);
+
+		PaymentResDto res = orderservice.placeOrder(user.getId(), null, null);
+		assertNull(res.getRazorpayOrderId());
+		assertEquals(240, res.getAmount());
+
+		GatewayOrderDto gateway = orderservice.getGatewayOrder(res.getId());
+		for (int i = 0; i < 100 && gateway.getStatus() != OutboxStatus.SENT; i++) {
+			Thread.sleep(50);
+			gateway = orderservice.getGatewayOrder(res.getId());
+		}
+		assertEquals(OutboxStatus.SENT, gateway.getStatus());
+		assertTrue(gateway.getRazorpayOrderId().startsWith("order_stub"));
+
+		Payment payment = paymentdao.findByOrderId(orderdao.findById(res.getId()).orElseThrow()).orElseThrow();
+		assertEquals(gateway.getRazorpayOrderId(), payment.getTransactionId());
+		assertEquals(3, productdao.findById(product.getId()).orElseThrow().getQuantity());
+	}
+}
@@ -0,0 +1,78 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.dao.OrderDao;
+import com.cdac.dto.KeysetPageDto;
+import com.cdac.dto.OrderListItemDto;
+import com.cdac.dto.OrderSearchDto;
+import com.cdac.entities.DeliveryStatus;
+import com.cdac.entities.Order;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderSearchTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private OrderService orderservice;
+	@Autowired
+	private OrderDao orderdao;
+
+	@Test
+	void filtersAndPagesNewestFirst() {
+		User alice = fixtures.user("alice@search.in", UserRole.ROLE_USER);
+		User bob = fixtures.user("bob@search.in", UserRole.ROLE_USER);
+		LocalDate day = LocalDate.of(2031, 1, 1);
+		// 30 orders for alice over 10 days , alternating status , amounts 10..300
+		for (int i = 0; i < 30; i++)
+			orderdao.save(new Order(10 * (i + 1), day.plusDays(i % 10),
+					i % 2 == 0 ? DeliveryStatus.SHIPPED : DeliveryStatus.PROCESSING, alice));
+		orderdao.save(new Order(1000, day, DeliveryStatus.SHIPPED, bob));
+
+		OrderSearchDto q = new OrderSearchDto();
+		q.setUserId(alice.getId());
+		q.setStatus(List.of(DeliveryStatus.SHIPPED));
+		q.setFrom(day.plusDays(2));
+		q.setTo(day.plusDays(8));
+		q.setMinAmount(50.0);
+		q.setSize(4);
+
+		List<OrderListItemDto> all = new ArrayList<>();
+		KeysetPageDto<OrderListItemDto> page;
+		do {
+			page = orderservice.searchOrders(q);
+			assertTrue(page.getItems().size() <= 4);
+			all.addAll(page.getItems());
+			q.setToken(page.getNextToken());
+		} while (page.isHasMore());
+
+		// shipped = even i , day offset i % 10 in [2 , 8] , amount >= 50
+		long expected = 0;
+		for (int i = 0; i < 30; i++)
+			if (i % 2 == 0 && i % 10 >= 2 && i % 10 <= 8 && 10 * (i + 1) >= 50)
+				expected++;
+		assertEquals(expected, all.size());
+		assertEquals(expected, all.stream().map(OrderListItemDto::getId).distinct().count());
+		for (int i = 1; i < all.size(); i++) {
+			OrderListItemDto prev = all.get(i - 1), cur = all.get(i);
+			assertTrue(prev.getOrderDate().isAfter(cur.getOrderDate())
+					|| (prev.getOrderDate().equals(cur.getOrderDate()) && prev.getId() > cur.getId()));
+		}
+		assertTrue(all.stream().allMatch(o -> o.getUserEmail().equals("alice@search.in")));
+	}
+}
@@ -0,0 +1,129 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.dao.ProductDao;
+import com.cdac.dto.ProductDto;
+import com.cdac.entities.Product;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ProductCacheTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private ProductService productservice;
+	@Autowired
+	private ProductDao productdao;
+	@Autowired
+	private CacheManager cacheManager;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void missLoadsOnceThenHitsServeFromTheCache() {
+		Long id = product(40).getId();
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		cache().clear();
+
+		stats.clear();
+		Product first = productservice.getProductById(id);
+		assertEquals(1, stats.getPrepareStatementCount());
+		assertNotNull(cache().get(id));
+
+		stats.clear();
+		Product second = productservice.getProductById(id);
+		Map<Long, Product> batch = productservice.getProductsByIds(List.of(id));
+		assertEquals(0, stats.getPrepareStatementCount());
+		assertEquals(first.getName(), second.getName());
+		assertEquals(first.getCategory().getName(), batch.get(id).getCategory().getName());
+		assertEquals(first.getVendor().getEmail(), batch.get(id).getVendor().getEmail());
+	}
+
+	@Test
+	void callersCannotChangeTheCachedProduct() {
+		Product saved = product(40);
+		Product read = productservice.getProductById(saved.getId());
+		read.setPrice(1);
+		read.setName("changed");
+		read.getCategory().setName("changed");
+
+		Product again = productservice.getProductById(saved.getId());
+		assertNotSame(read, again);
+		assertEquals(40, again.getPrice());
+		assertEquals(saved.getName(), again.getName());
+		assertEquals(saved.getCategory().getName(), again.getCategory().getName());
+		assertEquals(40, productdao.findById(saved.getId()).orElseThrow().getPrice());
+
+		Product batched = productservice.getProductsByIds(List.of(saved.getId())).get(saved.getId());
+		batched.setPrice(2);
+		assertEquals(40, productservice.getProductById(saved.getId()).getPrice());
+	}
+
+	@Test
+	void updateEvictsAfterCommit() {
+		Product saved = product(40);
+		productservice.getProductById(saved.getId());
+		assertNotNull(cache().get(saved.getId()));
+
+		ProductDto dto = fixtures.dto(saved.getVendor(), 55, 10);
+		dto.setName(saved.getName());
+		productservice.updateProduct(saved.getId(), dto);
+
+		assertNull(cache().get(saved.getId()));
+		assertEquals(55, productservice.getProductById(saved.getId()).getPrice());
+	}
+
+	@Test
+	void productJsonIsRenderedOnceAndEvictedWithTheProduct() {
+		Product saved = product(40);
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		byte[] first = productservice.getProductJson(saved.getId());
+		assertTrue(new String(first, StandardCharsets.UTF_8).contains(saved.getName()));
+
+		stats.clear();
+		assertSame(first, productservice.getProductJson(saved.getId()));
+		assertEquals(0, stats.getPrepareStatementCount());
+
+		ProductDto dto = fixtures.dto(saved.getVendor(), 55, 10);
+		dto.setName(saved.getName());
+		productservice.updateProduct(saved.getId(), dto);
+
+		assertNull(cacheManager.getCache(ProductCacheListener.PRODUCT_JSON_CACHE).get(saved.getId()));
+		assertNotSame(first, productservice.getProductJson(saved.getId()));
+	}
+
+	private Cache cache() {
+		return cacheManager.getCache(ProductCacheListener.PRODUCTS_CACHE);
+	}
+
+	private Product product(double price) {
+		User vendor = fixtures.user(UserRole.ROLE_VENDOR);
+		Long id = productservice.addProduct(fixtures.category().getId(), fixtures.dto(vendor, price, 10)).getId();
+		return productservice.getProductById(id);
+	}
+}
@@ -0,0 +1,118 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.dao.ProductDao;
+import com.cdac.dto.ImportReportDto;
+import com.cdac.entities.UserRole;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductImportServiceTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	private static final String HEADER = "name,description,quantity,price,ecoRating,categoryId,vendorId,image";
+
+	@Autowired
+	private ProductImportService importservice;
+	@Autowired
+	private ProductDao productdao;
+
+	@Test
+	void goodFileIsImportedInBatches() throws IOException {
+		Long categoryId = fixtures.category().getId();
+		Long vendorId = fixtures.user(UserRole.ROLE_VENDOR).getId();
+		StringBuilder csv = new StringBuilder(HEADER).append('\n');
+		// more than two JDBC batches
+		int rows = ProductImportServiceImpl.BATCH_SIZE * 2 + 7;
+		for (int i = 0; i < rows; i++)
+			csv.append(row("good-" + i, "\"fresh, local\"", categoryId, vendorId, "img.png"));
+
+		ImportReportDto report = importservice.importCsv(in(csv.toString()));
+		assertEquals(rows, report.getTotalRows());
+		assertEquals(rows, report.getImported());
+		assertEquals(0, report.getFailed());
+		assertEquals(rows, productdao.findNamesByCategoryId(categoryId).size());
+	}
+
+	@Test
+	void badRowsAreReportedWithTheirLineNumbers() throws IOException {
+		Long categoryId = fixtures.category().getId();
+		Long vendorId = fixtures.user(UserRole.ROLE_VENDOR).getId();
+		String csv = HEADER + "\n"
+				+ row("ok-1", "x", categoryId, vendorId, "") // line 2
+				+ "bad-price,x,5,abc,3," + categoryId + "," + vendorId + ",\n" // line 3
+				+ row("no-category", "x", 3_000_000_000L, vendorId, "") // line 4 , a long id is parsed
+				+ row("OK-1", "x", categoryId, vendorId, "") // line 5 , same name in the category
+				+ "\n" // line 6 , blank
+				+ "\"unterminated,x,5,10,3," + categoryId + "," + vendorId + ",\n" // line 7
+				+ row("ok-2", "x", categoryId, vendorId, ""); // line 8
+
+		ImportReportDto report = importservice.importCsv(in(csv));
+		assertEquals(6, report.getTotalRows());
+		assertEquals(2, report.getImported());
+		assertEquals(4, report.getFailed());
+		assertEquals(List.of(3L, 4L, 5L, 7L), report.getErrors().stream().map(ImportReportDto.RowError::getLine).toList());
+		assertEquals("invalid price abc", report.getErrors().get(0).getMessage());
+		assertEquals("invalid category id 3000000000", report.getErrors().get(1).getMessage());
+
+		String jsonl = "{\"name\":\"json-ok\",\"quantity\":1,\"price\":10,\"ecoRating\":2,\"categoryId\":" + categoryId
+				+ ",\"vendorId\":" + vendorId + "}\n"
+				+ "{not json\n"
+				+ "{\"name\":\"\",\"quantity\":1,\"price\":10,\"ecoRating\":2,\"categoryId\":" + categoryId
+				+ ",\"vendorId\":" + vendorId + "}\n"
+				+ "null\n";
+		report = importservice.importJsonLines(in(jsonl));
+		assertEquals(1, report.getImported());
+		assertEquals(List.of(2L, 3L, 4L), report.getErrors().stream().map(ImportReportDto.RowError::getLine).toList());
+		assertEquals("expected a json object", report.getErrors().get(2).getMessage());
+	}
+
+	@Test
+	void aRowFailingInTheDatabaseDoesNotSinkItsBatch() throws IOException {
+		Long categoryId = fixtures.category().getId();
+		Long vendorId = fixtures.user(UserRole.ROLE_VENDOR).getId();
+		StringBuilder csv = new StringBuilder(HEADER).append('\n');
+		for (int i = 0; i < 10; i++) {
+			// passes validation but not the image column length , so the batch insert fails
+			String image = i == 4 ? "i".repeat(300) : "img.png";
+			csv.append(row("batch-" + i, "x", categoryId, vendorId, image));
+		}
+
+		ImportReportDto report = importservice.importCsv(in(csv.toString()));
+		assertEquals(10, report.getTotalRows());
+		assertEquals(9, report.getImported());
+		assertEquals(1, report.getFailed());
+		assertEquals(6, report.getErrors().get(0).getLine());
+		assertTrue(report.getErrors().get(0).getMessage().startsWith("insert failed"));
+
+		Set<String> names = productdao.findNamesByCategoryId(categoryId).stream().collect(Collectors.toSet());
+		assertEquals(9, names.size());
+		assertFalse(names.contains("batch-4"));
+	}
+
+	private static String row(String name, String description, long categoryId, long vendorId, String image) {
+		return name + "," + description + ",5,10,3," + categoryId + "," + vendorId + "," + image + "\n";
+	}
+
+	private static InputStream in(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,112 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.dao.ProductDao;
+import com.cdac.dto.KeysetPageDto;
+import com.cdac.dto.ProductSummaryDto;
+
+// the context is shared with other test classes , so pages are checked for order and completeness over the whole catalog
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductPageTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private ProductService productservice;
+	@Autowired
+	private ProductDao productdao;
+
+	@Test
+	void idOrderVisitsEveryProductOnce() {
+		List<Long> mine = new ArrayList<>();
+		for (int i = 0; i < 7; i++)
+			mine.add(fixtures.product(10 + i, 10).getId());
+
+		List<ProductSummaryDto> all = walk("id", 3);
+		List<Long> ids = all.stream().map(ProductSummaryDto::getId).toList();
+		for (int i = 1; i < ids.size(); i++)
+			assertTrue(ids.get(i - 1) < ids.get(i));
+		assertTrue(ids.containsAll(mine));
+		assertEquals(productdao.count(), ids.size());
+	}
+
+	@Test
+	void priceOrderBreaksTiesById() {
+		List<Long> tied = new ArrayList<>();
+		for (int i = 0; i < 5; i++)
+			tied.add(fixtures.product(123.45, 10).getId());
+		fixtures.product(5, 10);
+		fixtures.product(9999, 10);
+
+		// page size 2 makes pages start and end inside the run of equal prices
+		List<ProductSummaryDto> all = walk("price", 2);
+		Comparator<ProductSummaryDto> order = Comparator.comparingDouble(ProductSummaryDto::getPrice)
+				.thenComparing(ProductSummaryDto::getId);
+		for (int i = 1; i < all.size(); i++)
+			assertTrue(order.compare(all.get(i - 1), all.get(i)) < 0);
+		List<Long> ids = all.stream().map(ProductSummaryDto::getId).toList();
+		assertEquals(ids.size(), new HashSet<>(ids).size());
+		assertEquals(tied, ids.stream().filter(tied::contains).toList());
+		assertEquals(productdao.count(), ids.size());
+	}
+
+	@Test
+	void tokenOfTheOtherSortOrderIsRejected() {
+		fixtures.product(1, 10);
+		fixtures.product(2, 10);
+		String byId = productservice.getProductPage("id", 1, null).getNextToken();
+		String byPrice = productservice.getProductPage("price", 1, null).getNextToken();
+
+		assertThrows(InvalidInputException.class, () -> productservice.getProductPage("price", 1, byId));
+		assertThrows(InvalidInputException.class, () -> productservice.getProductPage("id", 1, byPrice));
+	}
+
+	@Test
+	void malformedTokensAreRejected() {
+		assertThrows(InvalidInputException.class, () -> productservice.getProductPage("id", 5, "not base64!"));
+		assertThrows(InvalidInputException.class, () -> productservice.getProductPage("id", 5, token("i:abc")));
+		assertThrows(InvalidInputException.class, () -> productservice.getProductPage("id", 5, token("i")));
+		assertThrows(InvalidInputException.class, () -> productservice.getProductPage("price", 5, token("p:1")));
+		assertThrows(InvalidInputException.class, () -> productservice.getProductPage("price", 5, token("p:x:1")));
+	}
+
+	private List<ProductSummaryDto> walk(String sortBy, int size) {
+		List<ProductSummaryDto> all = new ArrayList<>();
+		String token = null;
+		for (;;) {
+			KeysetPageDto<ProductSummaryDto> page = productservice.getProductPage(sortBy, size, token);
+			assertTrue(page.getItems().size() <= size);
+			all.addAll(page.getItems());
+			if (!page.isHasMore()) {
+				assertNull(page.getNextToken());
+				return all;
+			}
+			assertFalse(page.getItems().isEmpty());
+			token = page.getNextToken();
+		}
+	}
+
+	private static String token(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,125 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.custom_exception.ResourseNotFoundException;
+import com.cdac.dao.OrderDao;
+import com.cdac.dao.OrderItemDao;
+import com.cdac.dao.ProductDao;
+import com.cdac.dto.KeysetPageDto;
+import com.cdac.dto.ProductSummaryDto;
+import com.cdac.dto.RatingSummaryDto;
+import com.cdac.dto.ReviewDto;
+import com.cdac.dto.ReviewResDto;
+import com.cdac.entities.DeliveryStatus;
+import com.cdac.entities.Order;
+import com.cdac.entities.OrderItem;
+import com.cdac.entities.Product;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReviewServiceTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private ReviewService reviewservice;
+	@Autowired
+	private ProductDao productdao;
+	@Autowired
+	private OrderDao orderdao;
+	@Autowired
+	private OrderItemDao orderItemdao;
+
+	@Test
+	void concurrentReviewsKeepExactAggregates() throws Exception {
+		Product product = fixtures.newProduct(80, 10);
+		product.setActive(true);
+		Product saved = productdao.save(product);
+
+		int[] ratings = { 5, 4, 4, 3, 1, 5 };
+		List<Long> buyers = new ArrayList<>();
+		List<Long> orders = new ArrayList<>();
+		for (int i = 0; i < ratings.length; i++) {
+			User user = fixtures.user(UserRole.ROLE_USER);
+			Order order = orderdao.save(new Order(80, LocalDate.now(), DeliveryStatus.DELIVERED, user));
+			orderItemdao.save(new OrderItem(1, 80, saved, order));
+			buyers.add(user.getId());
+			orders.add(order.getId());
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(ratings.length);
+		List<Future<ReviewResDto>> futures = new ArrayList<>();
+		for (int i = 0; i < ratings.length; i++) {
+			ReviewDto dto = review(orders.get(i), ratings[i]);
+			Long buyer = buyers.get(i);
+			futures.add(pool.submit(() -> reviewservice.addReview(buyer, saved.getId(), dto)));
+		}
+		List<ReviewResDto> added = new ArrayList<>();
+		for (Future<ReviewResDto> f : futures)
+			added.add(f.get());
+		pool.shutdown();
+
+		RatingSummaryDto summary = reviewservice.getRatingSummary(saved.getId());
+		assertEquals(6, summary.getRatingCount());
+		assertEquals(22 / 6.0, summary.getAverageRating(), 1e-9);
+		assertArrayEquals(new int[] { 1, 0, 1, 2, 2 }, summary.getHistogram());
+
+		// a product edit writes the entity , it must not touch the counters
+		Product edited = productdao.findById(saved.getId()).orElseThrow();
+		edited.setDescription("edited");
+		productdao.save(edited);
+		ProductSummaryDto listed = productdao.findSummariesByIdIn(List.of(saved.getId())).get(0);
+		assertEquals(6, listed.getRatingCount());
+		assertEquals(22 / 6.0, listed.getAverageRating(), 1e-9);
+
+		assertThrows(InvalidInputException.class,
+				() -> reviewservice.addReview(buyers.get(0), saved.getId(), review(orders.get(0), 2)));
+		assertThrows(InvalidInputException.class,
+				() -> reviewservice.addReview(buyers.get(0), saved.getId(), review(orders.get(1), 2)));
+
+		KeysetPageDto<ReviewResDto> page = reviewservice.getReviews(saved.getId(), 4, null);
+		assertEquals(4, page.getItems().size());
+		assertTrue(page.isHasMore());
+		KeysetPageDto<ReviewResDto> last = reviewservice.getReviews(saved.getId(), 4, page.getNextToken());
+		assertEquals(2, last.getItems().size());
+		assertFalse(last.isHasMore());
+		assertTrue(page.getItems().get(3).getId() > last.getItems().get(0).getId());
+
+		ReviewResDto oneStar = added.get(4);
+		assertThrows(InvalidInputException.class, () -> reviewservice.deleteReview(oneStar.getId(), buyers.get(0)));
+		reviewservice.deleteReview(oneStar.getId(), buyers.get(4));
+		summary = reviewservice.getRatingSummary(saved.getId());
+		assertEquals(5, summary.getRatingCount());
+		assertArrayEquals(new int[] { 0, 0, 1, 2, 2 }, summary.getHistogram());
+		assertThrows(ResourseNotFoundException.class, () -> reviewservice.deleteReview(oneStar.getId(), buyers.get(4)));
+	}
+
+	private static ReviewDto review(Long orderId, int rating) {
+		ReviewDto dto = new ReviewDto();
+		dto.setOrderId(orderId);
+		dto.setRating(rating);
+		dto.setReviewText("rated " + rating);
+		return dto;
+	}
+}
@@ -0,0 +1,116 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.custom_exception.InvalidInputException;
+import com.cdac.dao.CartDao;
+import com.cdac.dao.CartItemDao;
+import com.cdac.dao.ProductDao;
+import com.cdac.dto.PaymentResDto;
+import com.cdac.dto.SalesDayDto;
+import com.cdac.entities.Cart;
+import com.cdac.entities.CartItem;
+import com.cdac.entities.Category;
+import com.cdac.entities.Product;
+import com.cdac.entities.RollupDimension;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SalesRollupTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private OrderService orderservice;
+	@Autowired
+	private SalesRollupService rollupservice;
+	@Autowired
+	private ProductDao productdao;
+	@Autowired
+	private CartDao cartdao;
+	@Autowired
+	private CartItemDao cartitemdao;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void rollupsFollowOrdersAndMatchRebuild() {
+		LocalDate today = LocalDate.now();
+		User vendor = fixtures.user(UserRole.ROLE_VENDOR);
+		Category category = fixtures.category();
+		PaymentResDto first = checkout(product(vendor, category), 2);
+		PaymentResDto second = checkout(product(vendor, category), 3);
+
+		SalesDayDto day = single(RollupDimension.VENDOR, vendor.getId(), today);
+		assertEquals(2, day.getOrderCount());
+		assertEquals(5, day.getUnits());
+		assertEquals(750, day.getRevenue(), 0.001);
+		assertEquals(375, day.getAverageBasket(), 0.001);
+		assertEquals(5, single(RollupDimension.CATEGORY, category.getId(), today).getUnits());
+
+		//cancel takes the order back out , reverting re-adds it once
+		orderservice.orderUpdate(first.getId(), "CANCELLED");
+		orderservice.orderUpdate(first.getId(), "RETURNED");
+		day = single(RollupDimension.VENDOR, vendor.getId(), today);
+		assertEquals(1, day.getOrderCount());
+		assertEquals(3, day.getUnits());
+		assertEquals(450, day.getRevenue(), 0.001);
+
+		assertTrue(rollupservice.getDaily(RollupDimension.VENDOR, vendor.getId(), today.minusDays(7),
+				today.minusDays(1)).isEmpty());
+
+		// today is still being upserted live , only completed days are rebuilt
+		assertThrows(InvalidInputException.class, () -> rollupservice.rebuild(today, today));
+		assertThrows(InvalidInputException.class, () -> rollupservice.rebuild(today.minusDays(1), today.plusDays(1)));
+
+		// the same orders a day earlier , rebuilt from the order tables
+		LocalDate yesterday = today.minusDays(1);
+		jdbcTemplate.update("update orders set order_date = ? where id in (?, ?)", yesterday, first.getId(),
+				second.getId());
+		rollupservice.rebuild(yesterday, yesterday);
+		SalesDayDto rebuilt = single(RollupDimension.VENDOR, vendor.getId(), yesterday);
+		assertEquals(day.getOrderCount(), rebuilt.getOrderCount());
+		assertEquals(day.getUnits(), rebuilt.getUnits());
+		assertEquals(day.getRevenue(), rebuilt.getRevenue(), 0.001);
+		assertEquals(3, single(RollupDimension.CATEGORY, category.getId(), yesterday).getUnits());
+	}
+
+	private PaymentResDto checkout(Product product, int quantity) {
+		User buyer = fixtures.user(UserRole.ROLE_USER);
+		Cart cart = cartdao.save(new Cart(buyer));
+		CartItem item = new CartItem();
+		item.setCart(cart);
+		item.setProduct(product);
+		item.setQuantity(quantity);
+		item.setPrice(product.getPrice());
+		cartitemdao.save(item);
+		return orderservice.placeOrder(buyer.getId(), null, null);
+	}
+
+	private Product product(User vendor, Category category) {
+		Product product = fixtures.newProduct(150, 50);
+		product.setVendor(vendor);
+		product.setCategory(category);
+		return productdao.save(product);
+	}
+
+	private SalesDayDto single(RollupDimension dimension, long id, LocalDate day) {
+		List<SalesDayDto> list = rollupservice.getDaily(dimension, id, day, day);
+		assertEquals(1, list.size());
+		return list.get(0);
+	}
+}
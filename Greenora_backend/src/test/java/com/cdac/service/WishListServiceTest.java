@@ -0,0 +1,67 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestFixtures;
+import com.cdac.custom_exception.ResourseNotFoundException;
+import com.cdac.dao.WishListItemDao;
+import com.cdac.dto.ProductSummaryDto;
+import com.cdac.entities.User;
+import com.cdac.entities.UserRole;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WishListServiceTest {
+
+	@Autowired
+	private TestFixtures fixtures;
+	@Autowired
+	private WishListService wishlistservice;
+	@Autowired
+	private WishListItemDao itemdao;
+
+	@Test
+	void membershipFollowsCommittedChanges() throws InterruptedException {
+		User user = fixtures.user(UserRole.ROLE_USER);
+		String email = user.getEmail();
+
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 6; i++)
+			ids.add(fixtures.product(10, 1).getId());
+
+		// cache is loaded empty first , later adds must show up without a reload
+		assertTrue(wishlistservice.getWishlist(email).isEmpty());
+		List<Thread> threads = new ArrayList<>();
+		for (Long id : List.of(ids.get(4), ids.get(1), ids.get(3))) {
+			Thread t = new Thread(() -> wishlistservice.addToWishlist(email, id));
+			t.start();
+			threads.add(t);
+		}
+		for (Thread t : threads)
+			t.join();
+		wishlistservice.addToWishlist(email, ids.get(1));
+
+		assertEquals(List.of(ids.get(1), ids.get(3), ids.get(4)), wishlistservice.filterInWishlist(email, ids));
+		assertEquals(List.of(ids.get(1), ids.get(3), ids.get(4)),
+				wishlistservice.getWishlist(email).stream().map(ProductSummaryDto::getId).toList());
+		assertEquals(3, itemdao.findProductIdsByUserId(user.getId()).size());
+		assertTrue(wishlistservice.isInWishlist(email, ids.get(3)));
+
+		wishlistservice.removeFromWishlist(email, ids.get(3));
+		assertFalse(wishlistservice.isInWishlist(email, ids.get(3)));
+		assertEquals(List.of(ids.get(1), ids.get(4)), wishlistservice.filterInWishlist(email, ids));
+		assertThrows(ResourseNotFoundException.class, () -> wishlistservice.removeFromWishlist(email, ids.get(3)));
+		assertThrows(ResourseNotFoundException.class, () -> wishlistservice.addToWishlist(email, -1L));
+	}
+}
@@ -7,6 +7,7 @@ import couponServices from '../Services/CouponServices';
 import authenticationService from '../Services/AuthenticationServices';
 import orderServices from '../Services/orderServices';
 import paymentServices from '../Services/paymentServices';
+import salesServices from '../Services/SalesServices';
 import { Link } from 'react-router-dom';
 
 const AdminDashboard = () => {
@@ -41,11 +42,14 @@ const AdminDashboard = () => {
 
   const [orders, setOrders] = useState([]);
   const [orderLoading, setOrderLoading] = useState(false);
+  const [orderNextToken, setOrderNextToken] = useState(null);
 
   const [payments, setPayments] = useState([]);
   const [paymentLoading, setPaymentLoading] = useState(false);
   const [totalTransactions, setTotalTransactions] = useState(0);
 
+  const [sales, setSales] = useState({ orders: 0, revenue: 0 });
+  const [salesLoading, setSalesLoading] = useState(false);
 
   useEffect(() => {
     loadCategories();
@@ -55,6 +59,7 @@ const AdminDashboard = () => {
     loadUsers();
     loadOrders();
     loadPayments();
+    loadSales();
   }, []);
 
   const loadCategories = async () => {
@@ -120,8 +125,22 @@ const AdminDashboard = () => {
   const loadOrders = async () => {
     try {
       setOrderLoading(true);
-      const data = await orderServices.getallOrders();
-      setOrders(data);
+      const page = await orderServices.searchOrders({ size: 20 });
+      setOrders(page.items);
+      setOrderNextToken(page.nextToken);
+    } catch (error) {
+      console.error('Error loading orders:', error);
+    } finally {
+      setOrderLoading(false);
+    }
+  };
+
+  const loadMoreOrders = async () => {
+    try {
+      setOrderLoading(true);
+      const page = await orderServices.searchOrders({ size: 20, token: orderNextToken });
+      setOrders((prev) => [...prev, ...page.items]);
+      setOrderNextToken(page.nextToken);
     } catch (error) {
       console.error('Error loading orders:', error);
     } finally {
@@ -143,6 +162,26 @@ const AdminDashboard = () => {
     }
   };
   
+  // Last 30 days from the daily rollups instead of adding up every payment
+  const loadSales = async () => {
+    try {
+      setSalesLoading(true);
+      const isoDay = (d) => `${d.getFullYear()}-${String(d.getMonth() + 1).padStart(2, '0')}-${String(d.getDate()).padStart(2, '0')}`;
+      const to = new Date();
+      const from = new Date(to);
+      from.setDate(from.getDate() - 29);
+      const days = await salesServices.getDailySales(isoDay(from), isoDay(to));
+      setSales({
+        orders: days.reduce((sum, day) => sum + day.orderCount, 0),
+        revenue: days.reduce((sum, day) => sum + day.revenue, 0)
+      });
+    } catch (error) {
+      console.error('Error loading sales:', error);
+    } finally {
+      setSalesLoading(false);
+    }
+  };
+
   const showAlert = (message) => {
     console.warn("Custom Alert:", message);
     alert(message);
@@ -900,6 +939,11 @@ const AdminDashboard = () => {
                   ))}
                 </ul>
               )}
+              {!orderLoading && orderNextToken && (
+                <button onClick={loadMoreOrders} className={primaryButtonClass}>
+                  Load More Orders
+                </button>
+              )}
             </div>
           </section>
         );
@@ -915,6 +959,19 @@ const AdminDashboard = () => {
                 ₹{totalTransactions.toFixed(2)}
               </p>
             </div>
+            <div className="mb-8 p-6 bg-green-50 rounded-2xl shadow-inner border border-green-100 text-center">
+              <h3 className="text-2xl font-bold text-green-700">Sales - Last 30 Days</h3>
+              {salesLoading ? (
+                <p className="text-green-600 mt-2 text-xl">Loading sales...</p>
+              ) : (
+                <>
+                  <p className="text-5xl font-extrabold text-green-900 mt-2">₹{sales.revenue.toFixed(2)}</p>
+                  <p className="text-gray-600 mt-2 text-lg">
+                    {sales.orders} orders , average basket ₹{(sales.orders ? sales.revenue / sales.orders : 0).toFixed(2)}
+                  </p>
+                </>
+              )}
+            </div>
             <div className="bg-green-50 rounded-2xl shadow-inner border border-green-100 p-7">
               <h3 className="text-2xl font-bold text-green-700 mb-5">All Transactions</h3>
               {paymentLoading ? (
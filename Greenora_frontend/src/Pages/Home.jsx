@@ -635,6 +635,13 @@ const GrenoraHomepage = () => {
     loadData();
   }, [auth]);
 
+  useEffect(() => {
+    if (!auth.isLoggedIn || products.length === 0) return;
+    productServices.checkWishlist(products.map(p => p.id))
+      .then(setWishlistItems)
+      .catch(() => setWishlistItems([]));
+  }, [auth, products]);
+
   useEffect(() => {
     const timer = setInterval(() => {
       setCurrentSlide((prev) => (prev + 1) % heroSlides.length);
@@ -685,17 +692,27 @@ const GrenoraHomepage = () => {
     }
   };
 
-  const toggleWishlist = (productId) => {
+  const toggleWishlist = async (productId) => {
     if (!auth.isLoggedIn) {
       window.location.href = '/login';
       return;
     }
     
-    setWishlistItems(prev => 
-      prev.includes(productId) 
-        ? prev.filter(id => id !== productId)
-        : [...prev, productId]
-    );
+    const hearted = wishlistItems.includes(productId);
+    try {
+      if (hearted) {
+        await productServices.removeFromWishlist(productId);
+      } else {
+        await productServices.addToWishlist(productId);
+      }
+      setWishlistItems(prev => 
+        hearted
+          ? prev.filter(id => id !== productId)
+          : [...prev, productId]
+      );
+    } catch (error) {
+      alert('Failed to update wishlist. Please try again.');
+    }
   };
 
   const getTotalCartItems = () => {
@@ -1041,14 +1058,14 @@ const GrenoraHomepage = () => {
                             style={{
                               height: '1rem',
                               width: '1rem',
-                              color: i < Math.floor(product.rating || 0) ? '#fbbf24' : '#d1d5db',
-                              fill: i < Math.floor(product.rating || 0) ? '#fbbf24' : 'none',
+                              color: i < Math.floor(product.averageRating || 0) ? '#fbbf24' : '#d1d5db',
+                              fill: i < Math.floor(product.averageRating || 0) ? '#fbbf24' : 'none',
                             }}
                           />
                         ))}
                       </div>
                       <span style={styles.ratingText}>
-                        {product.rating ? product.rating.toFixed(1) : '0.0'} ({product.reviews || 0})
+                        {product.averageRating ? product.averageRating.toFixed(1) : '0.0'} ({product.ratingCount || 0})
                       </span>
                     </div>
                     <div style={styles.priceContainer}>
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { 
   Leaf, 
   CreditCard, 
@@ -18,6 +18,8 @@ const Payment = () => {
   const navigate = useNavigate();
   const [loading, setLoading] = useState(false);
   const [razorpayLoaded, setRazorpayLoaded] = useState(false);
+  // one key per checkout page, so double clicks / retries do not place a second order
+  const idempotencyKey = useRef(crypto.randomUUID());
 
   useEffect(() => {
     const loadRazorpayScript = () => {
@@ -76,8 +78,10 @@ const Payment = () => {
       const order = await OrderServices.placeOrder({
         userId: auth.user.id,
         addressId: auth.user.addresId,
-        couponId: null
+        couponId: null,
+        idempotencyKey: idempotencyKey.current
       });
+      const gatewayOrder = await OrderServices.waitForGatewayOrder(order.id);
       
       const options = {
         key: "rzp_test_3XPbZ2s4nAbtpD",
@@ -85,7 +89,7 @@ const Payment = () => {
         currency: order.currency,
         name: "Greenora",
         description: "Organic Products Purchase",
-        order_id:order.razorpayOrderId,
+        order_id:gatewayOrder.razorpayOrderId,
         handler: async function (response) {
           try {
             console.log('Payment successful:', response);
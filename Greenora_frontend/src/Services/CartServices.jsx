@@ -49,6 +49,39 @@ export const updateCartItem = async (userId, productId, quantity) => {
   }
 }
 
+// totals in paise , priceChanged lists products whose price moved since they were added
+export const getCartTotals = async (userId, couponCode) => {
+  try {
+    const params = couponCode ? { couponCode } : {};
+    const response = await axios.get(`${API_URL}/${userId}/totals`, { params });
+    return response.data;
+  } catch (error) {
+    console.error('Error fetching cart totals:', error);
+    throw error;
+  }
+}
+
+export const acceptCurrentPrices = async (userId) => {
+  try {
+    const response = await axios.post(`${API_URL}/${userId}/reprice`);
+    return response.data;
+  } catch (error) {
+    console.error('Error updating cart prices:', error);
+    throw error;
+  }
+}
+
+// several line edits in one request : [{ productId, quantity }] sets a line , [{ productId, delta }] adds to it
+export const patchCart = async (userId, ops) => {
+  try {
+    const response = await axios.patch(`${API_URL}/${userId}`, ops);
+    return response.data;
+  } catch (error) {
+    console.error('Error updating cart:', error);
+    throw error;
+  }
+}
+
 export const removeFromCart = async (userId, itemId) => {
   try {
     const response = await axios.delete(`${API_URL}/${userId}/product/${itemId}`);
@@ -73,6 +106,9 @@ const cartServices = {
   getCart,
   addToCart,
   updateCartItem,
+  patchCart,
+  getCartTotals,
+  acceptCurrentPrices,
   removeFromCart,
   clearCart,
 };
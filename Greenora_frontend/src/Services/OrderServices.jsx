@@ -15,7 +15,8 @@ const API_URL = 'http://localhost:8080/orders';
 
 
 
-export const placeOrder = async ({ userId, addressId, couponId }) => {
+// A retry that reuses the same idempotencyKey gets the first order back instead of placing a new one
+export const placeOrder = async ({ userId, addressId, couponId, idempotencyKey }) => {
   try {
     let url = `${API_URL}/user/${userId}/address/${addressId}`;
     
@@ -24,7 +25,8 @@ export const placeOrder = async ({ userId, addressId, couponId }) => {
       url += `?couponId=${couponId}`;
     }
 
-    const response = await axios.post(url); // No body, since your API doesn't expect one
+    const headers = idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : {};
+    const response = await axios.post(url, null, { headers }); // No body, since your API doesn't expect one
     return response.data;
   } catch (error) {
     console.error('Error in place order:', error);
@@ -33,6 +35,23 @@ export const placeOrder = async ({ userId, addressId, couponId }) => {
 };
 
 
+// The Razorpay order is created asynchronously after the order commits.
+// Poll until it is ready (200), and fail on 502 or when time runs out.
+export const waitForGatewayOrder = async (orderId, { intervalMs = 500, timeoutMs = 20000 } = {}) => {
+  const deadline = Date.now() + timeoutMs;
+  while (Date.now() < deadline) {
+    const response = await axios.get(`${API_URL}/${orderId}/payment`, {
+      validateStatus: (status) => status === 200 || status === 202
+    });
+    if (response.status === 200) {
+      return response.data;
+    }
+    await new Promise((resolve) => setTimeout(resolve, intervalMs));
+  }
+  throw new Error('Timed out waiting for payment order');
+};
+
+
 export const getOrderByUser = async (userId) => {
   try {
     const response = await axios.get(`${API_URL}/user/${userId}`);
@@ -61,6 +80,19 @@ export const getallOrders = async () => {
     throw error;
   }
 };
+// filters: { status, from, to, userId, minAmount, size, token } -> { items, nextToken, hasMore }
+export const searchOrders = async (filters = {}) => {
+  try {
+    const response = await axios.get(`${API_URL}/search`, {
+      params: filters,
+      paramsSerializer: { indexes: null } // status=A&status=B
+    });
+    return response.data;
+  } catch (error) {
+    console.error('Error searching orders:', error);
+    throw error;
+  }
+};
 export const updateOrderStatus = async (orderId, status) => {
   try {
     const response = await axios.put(`${API_URL}/${orderId}`,null, {
@@ -79,8 +111,10 @@ export const updateOrderStatus = async (orderId, status) => {
 const OrderServices = {
   getOrder,
   placeOrder,
+  waitForGatewayOrder,
   getOrderByUser,
   getallOrders,
+  searchOrders,
   updateOrderStatus
 };
 
@@ -0,0 +1,42 @@
+import axios from 'axios';
+
+axios.interceptors.request.use(
+  (config) => {
+    const token = localStorage.getItem('token');
+    if (token) {
+      config.headers['Authorization'] = `Bearer ${token}`;
+    }
+    return config;
+  },
+  (error) => Promise.reject(error)
+);
+
+const API_URL = 'http://localhost:8080/sales';
+
+// One row per day from the rollup table , from/to are ISO dates (yyyy-mm-dd)
+export const getDailySales = async (from, to) => {
+  try {
+    const response = await axios.get(`${API_URL}/daily`, { params: { from, to } });
+    return response.data;
+  } catch (error) {
+    console.error('Error in get daily sales:', error);
+    throw error;
+  }
+};
+
+export const getVendorSales = async (vendorId, from, to) => {
+  try {
+    const response = await axios.get(`${API_URL}/vendor/${vendorId}`, { params: { from, to } });
+    return response.data;
+  } catch (error) {
+    console.error('Error in get vendor sales:', error);
+    throw error;
+  }
+};
+
+const salesServices = {
+  getDailySales,
+  getVendorSales
+};
+
+export default salesServices;
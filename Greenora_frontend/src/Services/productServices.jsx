@@ -120,6 +120,18 @@ export const isInWishlist = async (productId) => {
     throw error;
   }
 }
+// one round trip for a whole grid , returns the ids that are in the wishlist
+export const checkWishlist = async (productIds) => {
+  try {
+    const params = new URLSearchParams();
+    productIds.forEach(id => params.append('ids', id));
+    const response = await axios.get(`${API_URL}/wishlist/check?${params.toString()}`);
+    return response.data;
+  } catch (error) {
+    console.error('Error checking wishlist status:', error);
+    throw error;
+  }
+}
 export const vendorProducts=async(id)=>{
   try {
     const response = await axios.get(`${API_URL}/vendor/${id}`);
@@ -129,6 +141,19 @@ export const vendorProducts=async(id)=>{
     throw error; 
   }
 }
+// frequently bought together with any of the given product ids
+export const getRelatedProducts = async (productIds, limit = 8) => {
+  try {
+    const params = new URLSearchParams();
+    productIds.forEach(id => params.append('ids', id));
+    params.append('limit', limit);
+    const response = await axios.get(`${API_URL}/related?${params.toString()}`);
+    return response.data;
+  } catch (error) {
+    console.error('Error fetching related products:', error);
+    throw error;
+  }
+}
 
 const productServices = {
   fetchProducts,
@@ -142,7 +167,9 @@ const productServices = {
   removeFromWishlist,
   getWishlist,
   isInWishlist,
-  vendorProducts
+  checkWishlist,
+  vendorProducts,
+  getRelatedProducts
 };
 
 export default productServices;
\ No newline at end of file
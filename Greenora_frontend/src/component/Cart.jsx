@@ -21,6 +21,7 @@ import { useAuth } from '../context/AuthContext';
 import { useNavigate } from 'react-router-dom';
 import couponServices from '../Services/CouponServices';
 import cartServices from '../Services/CartServices';
+import productServices from '../Services/productServices';
 import { Link } from 'react-router-dom';
 const CartPage = () => {
   const { auth } = useAuth();
@@ -33,6 +34,7 @@ const CartPage = () => {
   const [availableCoupons, setAvailableCoupons] = useState([]);
   const [loading, setLoading] = useState(false);
   const [cartLoading, setCartLoading] = useState(true);
+  const [relatedItems, setRelatedItems] = useState([]);
 
   useEffect(() => {
     if (!auth.isLoading) {
@@ -57,6 +59,27 @@ const CartPage = () => {
        couponServices.fetchActiveCoupon().then(setAvailableCoupons);  
   },[auth.isLoggedIn]);
 
+  // frequently bought together with what is in the cart
+  const cartProductIds = cartItems.map(item => item.id).join(',');
+  useEffect(() => {
+    if (!cartProductIds) {
+      setRelatedItems([]);
+      return;
+    }
+    productServices.getRelatedProducts(cartProductIds.split(','), 4)
+      .then(list => setRelatedItems(list || []))
+      .catch(() => setRelatedItems([]));
+  }, [cartProductIds]);
+
+  const addRelatedToCart = async (product) => {
+    try {
+      await cartServices.addToCart(auth.user.id, product.id, 1);
+      loadCartData();
+    } catch (error) {
+      console.error('Error adding related product:', error);
+    }
+  };
+
   const loadCartData = async () => {
     try {
       setCartLoading(true);
@@ -75,8 +98,8 @@ const CartPage = () => {
         quantity: item.quantity,
         image: item.product.image,
         category: item.product.category.name,
-        rating: item.product.ecoRating, 
-        reviews: item.product.reviews || 0,
+        rating: item.product.ratingCount ? item.product.ratingSum / item.product.ratingCount : 0,
+        reviews: item.product.ratingCount || 0,
         originalPrice: item.product.originalPrice || 0,
         discount: item.product.discount || 0,
         organic: item.product.ecoRating >= 4, 
@@ -530,6 +553,34 @@ const CartPage = () => {
                   </div>
                 </div>
               )}
+
+              {/* Frequently Bought Together */}
+              {relatedItems.length > 0 && (
+                <div className="cart-section">
+                  <h3 className="section-title">Frequently Bought Together</h3>
+                  <div className="grid grid-cols-2 md:grid-cols-4 gap-4">
+                    {relatedItems.map(({ product }) => (
+                      <div key={product.id} className="bg-white rounded-xl shadow p-3 flex flex-col">
+                        <img
+                          src={product.image || 'https://via.placeholder.com/200x200?text=Product'}
+                          alt={product.name}
+                          className="h-28 w-full object-cover rounded-lg mb-2"
+                        />
+                        <h4 className="text-sm font-semibold text-green-800 truncate">{product.name}</h4>
+                        <span className="text-green-700 font-bold mb-2">₹{(product.price || 0).toFixed(2)}</span>
+                        <button
+                          onClick={() => addRelatedToCart(product)}
+                          disabled={product.stockStatus !== 'IN_STOCK'}
+                          className="action-btn primary mt-auto"
+                        >
+                          <Plus className="h-4 w-4" />
+                          Add
+                        </button>
+                      </div>
+                    ))}
+                  </div>
+                </div>
+              )}
             </div>
 
             {/* Order Summary */}